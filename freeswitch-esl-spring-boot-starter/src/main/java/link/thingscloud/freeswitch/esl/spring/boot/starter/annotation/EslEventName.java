@@ -31,4 +31,28 @@ import java.lang.annotation.*;
 public @interface EslEventName {
 
     String[] value();
+
+    /**
+     * Event-Subclass values of the events, eg sofia::register for CUSTOM events. Empty matches any
+     * subclass.
+     *
+     * @return subclass values
+     */
+    String[] subclass() default {};
+
+    /**
+     * Header predicates all matched by the events, eg Caller-Direction=inbound.
+     *
+     * @return header predicates as name=value
+     */
+    String[] headers() default {};
+
+    /**
+     * Event headers read by the handler, the inbound decoder skips every other header of these events.
+     * Empty keeps every header, as soon as one handler of an event declares no projection the event is
+     * kept whole. Only applied with the zeroCopyDecoder, a warning is logged otherwise.
+     *
+     * @return header names
+     */
+    String[] projection() default {};
 }
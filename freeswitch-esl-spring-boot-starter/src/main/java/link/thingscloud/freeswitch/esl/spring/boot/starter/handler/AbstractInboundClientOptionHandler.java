@@ -62,6 +62,32 @@ public abstract class AbstractInboundClientOptionHandler implements InboundClien
                 .readerIdleTimeSeconds(properties.getReaderIdleTimeSeconds())
                 .defaultPassword(properties.getDefaultPassword())
                 .disablePublicExecutor(properties.isDisablePublicExecutor())
+                .virtualThreads(properties.isVirtualThreads())
+                .eventDispatchLanes(properties.getEventDispatchLanes())
+                .eventRingBufferSize(properties.getEventRingBufferSize())
+                .eventRingBufferConsumers(properties.getEventRingBufferConsumers())
+                .eventRingBufferWaitStrategy(properties.getEventRingBufferWaitStrategy())
+                .eventQueueHighWatermark(properties.getEventQueueHighWatermark())
+                .eventQueueLowWatermark(properties.getEventQueueLowWatermark())
+                .eventQueueHardLimit(properties.getEventQueueHardLimit())
+                .eventMaxLagMillis(properties.getEventMaxLagMillis())
+                .sheddableEvents(properties.getSheddableEvents().toArray(new String[0]))
+                .zeroCopyDecoder(properties.isZeroCopyDecoder())
+                .pooledMessages(properties.isPooledMessages())
+                .backgroundJobTimeoutSeconds(properties.getBackgroundJobTimeoutSeconds())
+                .commandTimeoutSeconds(properties.getCommandTimeoutSeconds())
+                .commandConnections(properties.getCommandConnections())
+                .reconnectBackoffBaseMillis(properties.getReconnectBackoffBaseMillis())
+                .reconnectBackoffMaxMillis(properties.getReconnectBackoffMaxMillis())
+                .maxConcurrentConnects(properties.getMaxConcurrentConnects())
+                .startStaggerMillis(properties.getStartStaggerMillis())
+                .nativeTransport(properties.isNativeTransport())
+                .edgeTriggered(properties.isEdgeTriggered())
+                .tcpQuickAck(properties.isTcpQuickAck())
+                .maxInFlightCommands(properties.getMaxInFlightCommands())
+                .inFlightPolicy(properties.getInFlightPolicy())
+                .inFlightQueueTimeoutMillis(properties.getInFlightQueueTimeoutMillis())
+                .eventFormat(properties.getEventFormat())
                 .performance(properties.isPerformance())
                 .performanceCostTime(properties.getPerformanceCostTime())
                 .eventPerformance(properties.isEventPerformance())
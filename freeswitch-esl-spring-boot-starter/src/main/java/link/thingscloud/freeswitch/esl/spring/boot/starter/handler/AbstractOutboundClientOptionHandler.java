@@ -63,6 +63,13 @@ public abstract class AbstractOutboundClientOptionHandler implements OutboundCli
                 .readerIdleTimeSeconds(properties.getReaderIdleTimeSeconds())
                 .defaultPassword(properties.getDefaultPassword())
                 .disablePublicExecutor(properties.isDisablePublicExecutor())
+                .zeroCopyDecoder(properties.isZeroCopyDecoder())
+                .pooledMessages(properties.isPooledMessages())
+                .backgroundJobTimeoutSeconds(properties.getBackgroundJobTimeoutSeconds())
+                .nativeTransport(properties.isNativeTransport())
+                .edgeTriggered(properties.isEdgeTriggered())
+                .reusePort(properties.isReusePort())
+                .tcpQuickAck(properties.isTcpQuickAck())
                 .performance(properties.isPerformance())
                 .performanceCostTime(properties.getPerformanceCostTime())
                 .eventPerformance(properties.isEventPerformance())
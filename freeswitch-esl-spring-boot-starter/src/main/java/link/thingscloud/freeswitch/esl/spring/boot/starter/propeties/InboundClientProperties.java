@@ -17,10 +17,13 @@
 
 package link.thingscloud.freeswitch.esl.spring.boot.starter.propeties;
 
+import link.thingscloud.freeswitch.esl.inbound.option.InFlightPolicy;
+import link.thingscloud.freeswitch.esl.inbound.option.WaitStrategy;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -43,6 +46,32 @@ public class InboundClientProperties {
     private int readerIdleTimeSeconds = 25;
     private String defaultPassword = "ClueCon";
     private boolean disablePublicExecutor = false;
+    private boolean virtualThreads = false;
+    private int eventDispatchLanes = 0;
+    private int eventRingBufferSize = 0;
+    private int eventRingBufferConsumers = 1;
+    private WaitStrategy eventRingBufferWaitStrategy = WaitStrategy.BLOCKING;
+    private int eventQueueHighWatermark = 0;
+    private int eventQueueLowWatermark = 0;
+    private int eventQueueHardLimit = 0;
+    private long eventMaxLagMillis = 0;
+    private List<String> sheddableEvents = new ArrayList<>(Arrays.asList("HEARTBEAT", "RE_SCHEDULE", "PRESENCE_IN"));
+    private boolean zeroCopyDecoder = false;
+    private boolean pooledMessages = false;
+    private int backgroundJobTimeoutSeconds = 300;
+    private int commandTimeoutSeconds = 0;
+    private int commandConnections = 0;
+    private long reconnectBackoffBaseMillis = 1000;
+    private long reconnectBackoffMaxMillis = 0;
+    private int maxConcurrentConnects = 0;
+    private long startStaggerMillis = 0;
+    private boolean nativeTransport = false;
+    private boolean edgeTriggered = true;
+    private boolean tcpQuickAck = false;
+    private int maxInFlightCommands = 0;
+    private InFlightPolicy inFlightPolicy = InFlightPolicy.QUEUE;
+    private long inFlightQueueTimeoutMillis = 5000;
+    private String eventFormat = "plain";
     private boolean performance = false;
     private long performanceCostTime = 200;
     private boolean eventPerformance = false;
@@ -43,6 +43,13 @@ public class OutboundClientProperties {
     private int readerIdleTimeSeconds = 25;
     private String defaultPassword = "ClueCon";
     private boolean disablePublicExecutor = false;
+    private boolean zeroCopyDecoder = false;
+    private boolean pooledMessages = false;
+    private int backgroundJobTimeoutSeconds = 300;
+    private boolean nativeTransport = false;
+    private boolean edgeTriggered = true;
+    private boolean reusePort = false;
+    private boolean tcpQuickAck = false;
     private boolean performance = false;
     private long performanceCostTime = 200;
     private boolean eventPerformance = false;
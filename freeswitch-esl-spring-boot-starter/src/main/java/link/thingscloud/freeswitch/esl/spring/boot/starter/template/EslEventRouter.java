@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.spring.boot.starter.template;
+
+import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
+import link.thingscloud.freeswitch.esl.util.ArrayUtils;
+import link.thingscloud.freeswitch.esl.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>EslEventRouter class.</p>
+ * <p>
+ * Dispatch table of the event handlers, compiled at startup from their
+ * {@link link.thingscloud.freeswitch.esl.spring.boot.starter.annotation.EslEventName} : events are
+ * routed by Event-Name, then Event-Subclass, then the value of each header a predicate is declared on,
+ * one hash lookup per level whatever the number of handlers. Handlers matched by an event are
+ * returned in registration order. Built from a single thread, read only once built.
+ *
+ * @param <H> handler type
+ * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
+ * @version 1.0.0
+ */
+public class EslEventRouter<H> {
+
+    /**
+     * {@code "Event-Subclass"}
+     */
+    public static final String EVENT_SUBCLASS = "Event-Subclass";
+
+    private final Map<String, Route<H>> routes = new HashMap<>(16);
+    private int order;
+
+    /**
+     * <p>add.</p>
+     *
+     * @param eventName  event name, eg CUSTOM
+     * @param subclasses Event-Subclass values, empty matches any subclass
+     * @param headers    header predicates as name=value, all must match
+     * @param handler    a H object.
+     * @return this router
+     */
+    public EslEventRouter<H> add(String eventName, String[] subclasses, String[] headers, H handler) {
+        Target<H> target = new Target<>(order++, handler, headers);
+        Route<H> route = routes.computeIfAbsent(eventName, k -> new Route<>());
+        Set<String> values = new LinkedHashSet<>();
+        if (!ArrayUtils.isEmpty(subclasses)) {
+            for (String subclass : subclasses) {
+                if (StringUtils.isNotBlank(subclass)) {
+                    values.add(subclass.trim());
+                }
+            }
+        }
+        if (values.isEmpty()) {
+            route.any.add(target);
+        }
+        for (String subclass : values) {
+            route.bySubclass.computeIfAbsent(subclass, k -> new Bucket<>()).add(target);
+        }
+        return this;
+    }
+
+    /**
+     * <p>route.</p>
+     *
+     * @param event a {@link link.thingscloud.freeswitch.esl.transport.event.EslEvent} object.
+     * @return the handlers matching the event, empty if none, read only
+     */
+    public List<H> route(EslEvent event) {
+        Route<H> route = routes.get(event.getEventName());
+        if (route == null) {
+            return Collections.emptyList();
+        }
+        if (route.bySubclass.isEmpty() && route.any.byHeader.isEmpty()) {
+            // event name only
+            return route.any.readOnlyHandlers;
+        }
+        List<Target<H>> matched = new ArrayList<>(4);
+        route.any.collect(event, matched);
+        if (!route.bySubclass.isEmpty()) {
+            String subclass = event.getEventHeader(EVENT_SUBCLASS);
+            Bucket<H> bucket = subclass == null ? null : route.bySubclass.get(subclass);
+            if (bucket != null) {
+                bucket.collect(event, matched);
+            }
+        }
+        if (matched.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (matched.size() > 1) {
+            matched.sort(Comparator.comparingInt(target -> target.order));
+        }
+        List<H> handlers = new ArrayList<>(matched.size());
+        for (Target<H> target : matched) {
+            handlers.add(target.handler);
+        }
+        return Collections.unmodifiableList(handlers);
+    }
+
+    /**
+     * The names of the headers predicates are declared on, they must be kept by the header projection.
+     *
+     * @param headers header predicates as name=value
+     * @return header names
+     */
+    public static Set<String> predicateHeaders(String[] headers) {
+        Set<String> names = new LinkedHashSet<>();
+        if (headers != null) {
+            for (String header : headers) {
+                if (StringUtils.isNotBlank(header)) {
+                    names.add(parse(header)[0]);
+                }
+            }
+        }
+        return names;
+    }
+
+    private static String[] parse(String predicate) {
+        int index = predicate.indexOf('=');
+        if (index <= 0 || StringUtils.isBlank(predicate.substring(0, index))) {
+            throw new IllegalArgumentException("header predicate must be name=value : " + predicate);
+        }
+        return new String[]{predicate.substring(0, index).trim(), predicate.substring(index + 1).trim()};
+    }
+
+    private static class Route<H> {
+        private final Bucket<H> any = new Bucket<>();
+        private final Map<String, Bucket<H>> bySubclass = new HashMap<>(4);
+    }
+
+    private static class Bucket<H> {
+        /**
+         * handlers without predicates
+         */
+        private final List<H> handlers = new ArrayList<>(4);
+        private final List<H> readOnlyHandlers = Collections.unmodifiableList(handlers);
+        private final List<Target<H>> unconditional = new ArrayList<>(4);
+        /**
+         * handlers with predicates, by the name and value of their first predicate
+         */
+        private final Map<String, Map<String, List<Target<H>>>> byHeader = new LinkedHashMap<>(4);
+
+        private void add(Target<H> target) {
+            if (target.names.length == 0) {
+                unconditional.add(target);
+                handlers.add(target.handler);
+            } else {
+                byHeader.computeIfAbsent(target.names[0], k -> new HashMap<>(4))
+                        .computeIfAbsent(target.values[0], k -> new ArrayList<>(4)).add(target);
+            }
+        }
+
+        private void collect(EslEvent event, List<Target<H>> matched) {
+            matched.addAll(unconditional);
+            for (Map.Entry<String, Map<String, List<Target<H>>>> entry : byHeader.entrySet()) {
+                String value = event.getEventHeader(entry.getKey());
+                List<Target<H>> targets = value == null ? null : entry.getValue().get(value);
+                if (targets == null) {
+                    continue;
+                }
+                for (Target<H> target : targets) {
+                    if (target.matchesFrom(1, event)) {
+                        matched.add(target);
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Target<H> {
+        private final int order;
+        private final H handler;
+        private final String[] names;
+        private final String[] values;
+
+        private Target(int order, H handler, String[] headers) {
+            this.order = order;
+            this.handler = handler;
+            List<String[]> predicates = new ArrayList<>();
+            if (headers != null) {
+                for (String header : headers) {
+                    if (StringUtils.isNotBlank(header)) {
+                        predicates.add(parse(header));
+                    }
+                }
+            }
+            this.names = new String[predicates.size()];
+            this.values = new String[predicates.size()];
+            for (int i = 0; i < predicates.size(); i++) {
+                names[i] = predicates.get(i)[0];
+                values[i] = predicates.get(i)[1];
+            }
+        }
+
+        private boolean matchesFrom(int index, EslEvent event) {
+            for (int i = index; i < names.length; i++) {
+                if (!StringUtils.equals(values[i], event.getEventHeader(names[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -43,7 +43,8 @@ public class IEslEventListenerTemplate implements IEslEventListener, Initializin
 
     @Autowired
     private final List<EslEventHandler> eslEventHandlers = Collections.emptyList();
-    private final Map<String, List<EslEventHandler>> handlerTable = new HashMap<>(16);
+    private final EslEventRouter<EslEventHandler> router = new EslEventRouter<>();
+    private final Map<String, Set<String>> projections = new HashMap<>(16);
     @Autowired
     private InboundClient inboundClient;
     private EslEventHandler defaultEventHandler = new DefaultEslEventHandler();
@@ -65,8 +66,7 @@ public class IEslEventListenerTemplate implements IEslEventListener, Initializin
     }
 
     private void handleEslEvent(String address, EslEvent event) {
-        String eventName = event.getEventName();
-        List<EslEventHandler> handlers = handlerTable.get(eventName);
+        List<EslEventHandler> handlers = router.route(event);
         if (!CollectionUtils.isEmpty(handlers)) {
             handlers.forEach(eventHandler -> eventHandler.handle(address, event));
             return;
@@ -96,15 +96,42 @@ public class IEslEventListenerTemplate implements IEslEventListener, Initializin
                 if (StringUtils.isBlank(value)) {
                     continue;
                 }
-                log.info("IEslEventListener add EventName[{}], EventHandler[{}] ...", value, eventHandler.getClass());
+                addProjection(value, eventName.projection(), EslEventRouter.predicateHeaders(eventName.headers()));
+                log.info("IEslEventListener add EventName[{}], Subclass{}, Headers{}, EventHandler[{}] ...", value,
+                        Arrays.toString(eventName.subclass()), Arrays.toString(eventName.headers()), eventHandler.getClass());
                 if (StringUtils.equals(EslEventHandler.DEFAULT_ESL_EVENT_HANDLER, value)) {
                     defaultEventHandler = eventHandler;
                 } else {
-                    handlerTable.computeIfAbsent(value, k -> new ArrayList<>(4)).add(eventHandler);
+                    router.add(value, eventName.subclass(), eventName.headers(), eventHandler);
                 }
             }
         }
+        projections.forEach((name, headers) -> {
+            if (!headers.isEmpty()) {
+                if (!inboundClient.option().zeroCopyDecoder()) {
+                    log.warn("IEslEventListener projection of EventName[{}] is ignored, it requires the zeroCopyDecoder ...", name);
+                }
+                log.info("IEslEventListener project EventName[{}] on headers {} ...", name, headers);
+                inboundClient.option().headerProjection(name, headers.toArray(new String[0]));
+            }
+        });
         inboundClient.option().addListener(this);
     }
 
+    private void addProjection(String eventName, String[] headers, Set<String> predicateHeaders) {
+        Set<String> current = projections.get(eventName);
+        if (ArrayUtils.isEmpty(headers)) {
+            // one handler needs every header
+            projections.put(eventName, Collections.emptySet());
+        } else if (current == null) {
+            current = new LinkedHashSet<>(Arrays.asList(headers));
+            // the predicates are matched on the projected event
+            current.addAll(predicateHeaders);
+            projections.put(eventName, current);
+        } else if (!current.isEmpty()) {
+            current.addAll(Arrays.asList(headers));
+            current.addAll(predicateHeaders);
+        }
+    }
+
 }
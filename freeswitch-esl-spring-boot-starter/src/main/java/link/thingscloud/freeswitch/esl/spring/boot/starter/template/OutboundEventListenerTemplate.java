@@ -1,6 +1,5 @@
 package link.thingscloud.freeswitch.esl.spring.boot.starter.template;
 
-import com.google.common.collect.Maps;
 import link.thingscloud.freeswitch.esl.OutboundEventListener;
 import link.thingscloud.freeswitch.esl.outbound.handler.Context;
 import link.thingscloud.freeswitch.esl.spring.boot.starter.annotation.EslEventName;
@@ -16,10 +15,9 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.CollectionUtils;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 /**
  * @author th158
@@ -33,7 +31,7 @@ public class OutboundEventListenerTemplate implements OutboundEventListener, Ini
     @Autowired
     private final List<OutBoundEventHandler> outBoundEventHandlers = Collections.emptyList();
 
-    private final Map<String, List<OutBoundEventHandler>> handlerTable = Maps.newHashMap();
+    private final EslEventRouter<OutBoundEventHandler> router = new EslEventRouter<>();
     private final OutBoundConnectHandler defaultOutBoundConnectHandler = new DefaultOutBoundConnectHandler();
     private final OutBoundEventHandler defaultOutBoundEslEventHandler = new DefaultOutBoundEventHandler();
 
@@ -41,7 +39,7 @@ public class OutboundEventListenerTemplate implements OutboundEventListener, Ini
     public void handleEslEvent(Context context, EslEvent event) {
         String eventName = event.getEventName();
         log.info("fs-esl outbound event name: {}", eventName);
-        List<OutBoundEventHandler> handlers = handlerTable.get(eventName);
+        List<OutBoundEventHandler> handlers = router.route(event);
         if (!CollectionUtils.isEmpty(handlers)) {
             handlers.forEach(eventHandler -> eventHandler.handler(context, event));
             return;
@@ -71,8 +69,9 @@ public class OutboundEventListenerTemplate implements OutboundEventListener, Ini
             if (!ArrayUtils.isEmpty(values)) {
                 for (String value : values) {
                     if (StringUtils.isNotBlank(value)) {
-                        log.info("IOutBoundEslEventListener add EventName[{}], OutBoundEslEventHandler[{}] to tables ...", value, outBoundEslEventHandler.getClass());
-                        handlerTable.computeIfAbsent(value, k -> new ArrayList<>(4)).add(outBoundEslEventHandler);
+                        log.info("IOutBoundEslEventListener add EventName[{}], Subclass{}, Headers{}, OutBoundEslEventHandler[{}] to tables ...", value,
+                                Arrays.toString(eventName.subclass()), Arrays.toString(eventName.headers()), outBoundEslEventHandler.getClass());
+                        router.add(value, eventName.subclass(), eventName.headers(), outBoundEslEventHandler);
                     }
                 }
             }
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package link.thingscloud.freeswitch.esl.spring.boot.starter.template;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import junit.framework.TestCase;
+import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
+import link.thingscloud.freeswitch.esl.transport.message.EslFrameDecoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>EslEventRouterTest class.</p>
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class EslEventRouterTest extends TestCase {
+
+    private static final String[] NONE = {};
+
+    public void testSubclassBucketsKeepRegistrationOrder() {
+        EslEventRouter<String> router = new EslEventRouter<String>()
+                .add("CUSTOM", new String[]{"sofia::register"}, NONE, "register")
+                .add("CUSTOM", NONE, NONE, "any")
+                .add("CUSTOM", new String[]{"conference::maintenance", "sofia::register"}, NONE, "both");
+
+        assertEquals(Arrays.asList("register", "any", "both"), router.route(event("CUSTOM", "Event-Subclass: sofia::register")));
+        assertEquals(Arrays.asList("any", "both"), router.route(event("CUSTOM", "Event-Subclass: conference::maintenance")));
+        assertEquals(Collections.singletonList("any"), router.route(event("CUSTOM", "Event-Subclass: sofia::unregister")));
+        assertEquals(Collections.singletonList("any"), router.route(event("CUSTOM")));
+    }
+
+    public void testEveryPredicateMustMatch() {
+        EslEventRouter<String> router = new EslEventRouter<String>()
+                .add("CHANNEL_ANSWER", NONE, new String[]{"Call-Direction=inbound", "Caller-Context=default"}, "inbound-default")
+                .add("CHANNEL_ANSWER", NONE, new String[]{"Call-Direction=inbound"}, "inbound")
+                .add("CHANNEL_ANSWER", NONE, new String[]{"Call-Direction=outbound"}, "outbound");
+
+        assertEquals(Arrays.asList("inbound-default", "inbound"),
+                router.route(event("CHANNEL_ANSWER", "Call-Direction: inbound", "Caller-Context: default")));
+        assertEquals(Collections.singletonList("inbound"),
+                router.route(event("CHANNEL_ANSWER", "Call-Direction: inbound", "Caller-Context: public")));
+        assertEquals(Collections.singletonList("outbound"), router.route(event("CHANNEL_ANSWER", "Call-Direction: outbound")));
+    }
+
+    public void testNoMatchFallsBackToDefaultHandler() {
+        EslEventRouter<String> router = new EslEventRouter<String>()
+                .add("CHANNEL_CREATE", NONE, NONE, "create")
+                .add("CHANNEL_ANSWER", NONE, new String[]{"Call-Direction=inbound"}, "inbound");
+
+        // an empty route hands the event to the default handler
+        assertTrue(router.route(event("HEARTBEAT")).isEmpty());
+        assertTrue(router.route(event("CHANNEL_ANSWER", "Call-Direction: outbound")).isEmpty());
+        assertTrue(router.route(event("CHANNEL_ANSWER")).isEmpty());
+    }
+
+    public void testRoutesAreReadOnly() {
+        EslEventRouter<String> router = new EslEventRouter<String>()
+                .add("CHANNEL_CREATE", NONE, NONE, "create")
+                .add("CUSTOM", new String[]{"sofia::register"}, NONE, "register");
+        for (List<String> handlers : Arrays.asList(router.route(event("CHANNEL_CREATE")),
+                router.route(event("CUSTOM", "Event-Subclass: sofia::register")))) {
+            try {
+                handlers.clear();
+                fail("route must not be modifiable");
+            } catch (UnsupportedOperationException expected) {
+                // the compiled table is shared by every event
+            }
+        }
+        assertEquals(Collections.singletonList("create"), router.route(event("CHANNEL_CREATE")));
+    }
+
+    private static EslEvent event(String eventName, String... headers) {
+        StringBuilder body = new StringBuilder("Event-Name: ").append(eventName).append('\n');
+        for (String header : headers) {
+            body.append(header).append('\n');
+        }
+        body.append('\n');
+        EmbeddedChannel channel = new EmbeddedChannel(new EslFrameDecoder(8192));
+        channel.writeInbound(Unpooled.copiedBuffer("Content-Length: " + body.length()
+                + "\nContent-Type: text/event-plain\n\n" + body, StandardCharsets.UTF_8));
+        EslEvent event = new EslEvent(channel.readInbound());
+        channel.finishAndReleaseAll();
+        return event;
+    }
+}
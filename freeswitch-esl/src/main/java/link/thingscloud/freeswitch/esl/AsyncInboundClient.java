@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package link.thingscloud.freeswitch.esl;
+
+import link.thingscloud.freeswitch.esl.transport.BatchResponse;
+import link.thingscloud.freeswitch.esl.transport.CommandResponse;
+import link.thingscloud.freeswitch.esl.transport.EslCommand;
+import link.thingscloud.freeswitch.esl.transport.FanOutResult;
+import link.thingscloud.freeswitch.esl.transport.SendEvent;
+import link.thingscloud.freeswitch.esl.transport.SendMsg;
+import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
+import link.thingscloud.freeswitch.esl.transport.message.EslMessage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * <p>AsyncInboundClient interface.</p>
+ * <p>
+ * The non-blocking view of an {@link InboundClient}, see {@link InboundClient#async()}. No thread is
+ * held while waiting for FreeSWITCH, the futures are completed from the IO thread when the reply is
+ * read, so dependent stages doing real work should use the {@code *Async} variants.
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public interface AsyncInboundClient extends AsyncInboundClientCommand {
+
+    /**
+     * Sends a FreeSWITCH API command to the server.
+     *
+     * @param address Esl server address
+     * @param command API command to send
+     * @param arg     command arguments
+     * @return the future {@link EslMessage} containing command results
+     */
+    CompletableFuture<EslMessage> sendApiCommand(String address, String command, String arg);
+
+    /**
+     * Sends a FreeSWITCH API command to the server, the future fails with an
+     * {@link link.thingscloud.freeswitch.esl.exception.InboundTimeoutExcetion} if the reply does not
+     * arrive within the deadline.
+     *
+     * @param address       Esl server address
+     * @param command       API command to send
+     * @param arg           command arguments
+     * @param timeoutMillis deadline of the reply
+     * @return the future {@link EslMessage} containing command results
+     */
+    CompletableFuture<EslMessage> sendApiCommand(String address, String command, String arg, long timeoutMillis);
+
+    /**
+     * Submit a FreeSWITCH API command to the server to be executed in background mode.
+     *
+     * @param address Esl server address
+     * @param command API command to send
+     * @param arg     command arguments
+     * @return the future Job-UUID that the server will tag result event with.
+     */
+    CompletableFuture<String> sendAsyncApiCommand(String address, String command, String arg);
+
+    /**
+     * Submit a FreeSWITCH API command to the server to be executed in background mode, the future is
+     * completed with the BACKGROUND_JOB event of the job, matched by its Job-UUID.
+     * <p>
+     * Note that this Client must be subscribed in the normal way to BACKGOUND_JOB Events, in order to
+     * receive this event. A job whose event does not arrive within the backgroundJobTimeoutSeconds
+     * option fails with a {@link java.util.concurrent.TimeoutException}.
+     *
+     * @param address Esl server address
+     * @param command API command to send
+     * @param arg     command arguments
+     * @return the future BACKGROUND_JOB {@link EslEvent}
+     */
+    CompletableFuture<EslEvent> sendBackgroundApiCommand(String address, String command, String arg);
+
+    /**
+     * Send a batch of commands, eg {@code EslCommand.bgapi("uuid_kill", uuid)}, to one server in a
+     * single write and flush. The commands go out in list order on one connection and each gets its
+     * own future, one failed command does not fail the others.
+     *
+     * @param address  Esl server address
+     * @param commands api, bgapi or command lines
+     * @return the future replies, in the order of the commands
+     */
+    List<CompletableFuture<EslMessage>> sendCommands(String address, List<EslCommand> commands);
+
+    /**
+     * Send a batch of commands like {@link #sendCommands(String, List)} and aggregate the replies.
+     *
+     * @param address  Esl server address
+     * @param commands api, bgapi or command lines
+     * @return the future {@link BatchResponse}, completed once every command completed
+     */
+    CompletableFuture<BatchResponse> sendBatchCommand(String address, List<EslCommand> commands);
+
+    /**
+     * Send a FreeSWITCH API command to every AUTHED server at once, eg {@code show calls count}.
+     *
+     * @param command       API command to send
+     * @param arg           command arguments
+     * @param timeoutMillis deadline of the whole sweep, servers without a reply by then are reported as failed
+     * @return the future {@link FanOutResult} by server address, never completed exceptionally
+     */
+    CompletableFuture<FanOutResult<EslMessage>> fanOutApiCommand(String command, String arg, long timeoutMillis);
+
+    /**
+     * Run an operation of this client against every AUTHED server at once, eg
+     * {@code fanOut(address -> async.sendApiCommand(address, "sofia", "status"), 2000)}.
+     *
+     * @param sender        sends the command to the given address
+     * @param timeoutMillis deadline of the whole sweep, servers without a result by then are reported as failed
+     * @param <T>           result type
+     * @return the future {@link FanOutResult} by server address, never completed exceptionally
+     */
+    <T> CompletableFuture<FanOutResult<T>> fanOut(Function<String, CompletableFuture<T>> sender, long timeoutMillis);
+
+    /**
+     * Set the current event subscription for this connection to the server.
+     *
+     * @param address Esl server address
+     * @param format  can be { plain | json | xml }
+     * @param events  { all | space separated list of events }
+     * @return the future {@link CommandResponse} with the server's response.
+     */
+    CompletableFuture<CommandResponse> setEventSubscriptions(String address, String format, String events);
+
+    /**
+     * Cancel any existing event subscription.
+     *
+     * @param address Esl server address
+     * @return the future {@link CommandResponse} with the server's response.
+     */
+    CompletableFuture<CommandResponse> cancelEventSubscriptions(String address);
+
+    /**
+     * Add an event filter to the current set of event filters on this connection.
+     *
+     * @param address       Esl server address
+     * @param eventHeader   to filter on
+     * @param valueToFilter the value to match
+     * @return the future {@link CommandResponse} with the server's response.
+     */
+    CompletableFuture<CommandResponse> addEventFilter(String address, String eventHeader, String valueToFilter);
+
+    /**
+     * Delete an event filter from the current set of event filters on this connection.
+     *
+     * @param address       Esl server address
+     * @param eventHeader   to filter on
+     * @param valueToFilter the value to match
+     * @return the future {@link CommandResponse} with the server's response.
+     */
+    CompletableFuture<CommandResponse> deleteEventFilter(String address, String eventHeader, String valueToFilter);
+
+    /**
+     * Send an event.
+     *
+     * @param address   Esl server address
+     * @param sendEvent a {@link SendEvent} object.
+     * @return the future {@link CommandResponse} with the server's response.
+     */
+    CompletableFuture<CommandResponse> sendEvent(String address, SendEvent sendEvent);
+
+    /**
+     * Send a {@link SendMsg} command to FreeSWITCH.
+     *
+     * @param address Esl server address
+     * @param sendMsg a {@link SendMsg} with call UUID
+     * @return the future {@link CommandResponse} with the server's response.
+     */
+    CompletableFuture<CommandResponse> sendMessage(String address, SendMsg sendMsg);
+
+    /**
+     * Enable log output.
+     *
+     * @param address Esl server address
+     * @param level   using the same values as in console.conf
+     * @return the future {@link CommandResponse} with the server's response.
+     */
+    CompletableFuture<CommandResponse> setLoggingLevel(String address, String level);
+
+    /**
+     * Disable any logging previously enabled with setLogLevel().
+     *
+     * @param address Esl server address
+     * @return the future {@link CommandResponse} with the server's response.
+     */
+    CompletableFuture<CommandResponse> cancelLogging(String address);
+
+    /**
+     * Close the socket connection
+     *
+     * @param address Esl server address
+     * @return the future {@link CommandResponse} with the server's response.
+     */
+    CompletableFuture<CommandResponse> close(String address);
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package link.thingscloud.freeswitch.esl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>AsyncInboundClientCommand interface.</p>
+ * <p>
+ * The {@link InboundClientCommand} operations returning futures completed from the IO thread.
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public interface AsyncInboundClientCommand {
+
+    /**
+     * uuid_answer &lt;uuid&gt;
+     *
+     * @param address address
+     * @param uuid    leg uuid
+     * @return future Job UUID
+     */
+    CompletableFuture<String> answer(String address, String uuid);
+
+    /**
+     * uuid_bridge &lt;uuid&gt; &lt;other_uuid&gt;
+     *
+     * @param address   address
+     * @param uuid      leg uuid
+     * @param otherUuid other leg uuid
+     * @return future Job UUID
+     */
+    CompletableFuture<String> bridge(String address, String uuid, String otherUuid);
+
+    /**
+     * uuid_broadcast  &lt;uuid&gt; &lt;path&gt; [aleg|bleg|holdb|both]
+     *
+     * @param address address
+     * @param uuid    leg uuid
+     * @param path    file path
+     * @param smf     swithc media flag : aleg|bleg|holdb|both
+     * @return future Job UUID
+     */
+    CompletableFuture<String> broadcast(String address, String uuid, String path, String smf);
+
+    /**
+     * uuid_break &lt;uuid&gt; [all]
+     *
+     * @param address address
+     * @param uuid    leg uuid
+     * @return future Job UUID
+     */
+    default CompletableFuture<String> break0(String address, String uuid) {
+        return break0(address, uuid, false);
+    }
+
+    /**
+     * uuid_break &lt;uuid&gt; [all]
+     *
+     * @param address address
+     * @param uuid    leg uuid
+     * @param all     false
+     * @return future Job UUID
+     */
+    CompletableFuture<String> break0(String address, String uuid, boolean all);
+
+    /**
+     * uuid_hold [off|toggle] &lt;uuid&gt; [&lt;display&gt;]
+     *
+     * @param address address
+     * @param uuid    leg uuid
+     * @return future Job UUID
+     */
+    default CompletableFuture<String> hold(String address, String uuid) {
+        return hold(address, "off", uuid, false);
+    }
+
+    /**
+     * uuid_hold [off|toggle] &lt;uuid&gt; [&lt;display&gt;]
+     *
+     * @param address address
+     * @param smf     off|toggle
+     * @param uuid    leg uuid
+     * @param display false
+     * @return future Job UUID
+     */
+    CompletableFuture<String> hold(String address, String smf, String uuid, boolean display);
+
+    /**
+     * uuid_getvar &lt;uuid&gt; &lt;var&gt;
+     *
+     * @param address address
+     * @param uuid    leg uuid
+     * @param var     变量名
+     * @return future body lines
+     */
+    CompletableFuture<List<String>> getVar(String address, String uuid, String var);
+
+    /**
+     * uuid_setvar &lt;uuid&gt; &lt;var&gt; [value]
+     *
+     * @param address address
+     * @param uuid    leg uuid
+     * @param var     变量名
+     * @param val     变量值, 为空时则删除该变量
+     * @return future Job UUID
+     */
+    CompletableFuture<String> setVar(String address, String uuid, String var, String val);
+
+    /**
+     * uuid_setvar_multi &lt;uuid&gt; &lt;var&gt;=&lt;value&gt;;&lt;var&gt;=&lt;value&gt;...
+     *
+     * @param address address
+     * @param uuid    leg uuid
+     * @param map     键值对集合
+     * @return future Job UUID
+     */
+    CompletableFuture<String> multiSetVar(String address, String uuid, Map<String, String> map);
+
+    /**
+     * uuid_record &lt;uuid&gt; [start|stop|mask|unmask] &lt;path&gt; [&lt;limit&gt;]
+     *
+     * @param address address
+     * @param uuid    leg uuid
+     * @param action  start|stop|mask|unmask
+     * @param path    录音路径
+     * @param limit   limit
+     * @return future Job UUID
+     */
+    CompletableFuture<String> record(String address, String uuid, String action, String path, int limit);
+
+    /**
+     * uuid_transfer &lt;uuid&gt; [-bleg|-both] &lt;dest-exten&gt; [&lt;dialplan&gt;] [&lt;context&gt;]
+     *
+     * @param address address
+     * @param uuid    leg uuid
+     * @param dest    dest extension
+     * @return future Job UUID
+     */
+    default CompletableFuture<String> transfer(String address, String uuid, String dest) {
+        return transfer(address, uuid, null, dest, null, null);
+    }
+
+    /**
+     * uuid_transfer &lt;uuid&gt; [-bleg|-both] &lt;dest-exten&gt; [&lt;dialplan&gt;] [&lt;context&gt;]
+     *
+     * @param address  address
+     * @param uuid     leg uuid
+     * @param smf      [-bleg|-both]
+     * @param dest     dest extension
+     * @param dialplan XML
+     * @param context  dialplan context name
+     * @return future Job UUID
+     */
+    CompletableFuture<String> transfer(String address, String uuid, String smf, String dest, String dialplan, String context);
+}
@@ -19,11 +19,17 @@ package link.thingscloud.freeswitch.esl;
 
 import link.thingscloud.freeswitch.esl.exception.InboundTimeoutExcetion;
 import link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption;
+import link.thingscloud.freeswitch.esl.transport.BatchResponse;
 import link.thingscloud.freeswitch.esl.transport.CommandResponse;
+import link.thingscloud.freeswitch.esl.transport.EslCommand;
+import link.thingscloud.freeswitch.esl.transport.FanOutResult;
 import link.thingscloud.freeswitch.esl.transport.SendEvent;
 import link.thingscloud.freeswitch.esl.transport.SendMsg;
+import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
 import link.thingscloud.freeswitch.esl.transport.message.EslMessage;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -60,6 +66,14 @@ public interface InboundClient extends InboundClientService, InboundClientComman
      */
     InboundClientOption option();
 
+    /**
+     * The non-blocking view of this client, every command returns a future completed when FreeSWITCH
+     * replies, without holding a thread while waiting.
+     *
+     * @return a {@link link.thingscloud.freeswitch.esl.AsyncInboundClient} object.
+     */
+    AsyncInboundClient async();
+
     /**
      * Sends a FreeSWITCH API command to the server and blocks, waiting for an immediate response from the
      * server.
@@ -84,7 +98,7 @@ public interface InboundClient extends InboundClientService, InboundClientComman
      * @param arg            command arguments
      * @param timeoutSeconds timeout seconds arguments
      * @return an {@link link.thingscloud.freeswitch.esl.transport.message.EslMessage} containing command results
-     * @throws link.thingscloud.freeswitch.esl.exception.InboundTimeoutExcetion if any.
+     * @throws link.thingscloud.freeswitch.esl.exception.InboundTimeoutExcetion if no reply arrives within timeoutSeconds, other {@link link.thingscloud.freeswitch.esl.exception.InboundClientException}s are thrown as they are.
      */
     EslMessage sendSyncApiCommand(String address, String command, String arg, long timeoutSeconds) throws InboundTimeoutExcetion;
 
@@ -131,6 +145,46 @@ public interface InboundClient extends InboundClientService, InboundClientComman
      */
     void sendAsyncApiCommand(String address, String command, String arg, Consumer<String> consumer);
 
+    /**
+     * Submit a FreeSWITCH API command to the server to be executed in background mode, the returned
+     * future is completed with the BACKGROUND_JOB event of the job, matched by its Job-UUID, without
+     * holding a thread meanwhile.
+     * <p>
+     * Note that this Client must be subscribed in the normal way to BACKGOUND_JOB Events, in order to
+     * receive this event. A job whose event does not arrive within
+     * {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption#backgroundJobTimeoutSeconds()}
+     * fails with a {@link java.util.concurrent.TimeoutException}.
+     *
+     * @param address Esl server address
+     * @param command API command to send
+     * @param arg     command arguments
+     * @return the future BACKGROUND_JOB {@link link.thingscloud.freeswitch.esl.transport.event.EslEvent}
+     */
+    CompletableFuture<EslEvent> sendBackgroundApiCommand(String address, String command, String arg);
+
+    /**
+     * Send a batch of commands, eg {@code EslCommand.bgapi("uuid_setvar", uuid + " foo bar")}, to one
+     * server in a single write and flush, and block until every command completed. The commands go
+     * out in list order on one connection, a failed command is reported in the
+     * {@link BatchResponse} without failing the others.
+     *
+     * @param address  Esl server address
+     * @param commands api, bgapi or command lines
+     * @return a {@link BatchResponse} with the replies in the order of the commands
+     */
+    BatchResponse sendBatchCommand(String address, List<EslCommand> commands);
+
+    /**
+     * Send a FreeSWITCH API command to every AUTHED server at once and block until they all replied
+     * or the deadline passed, so a sweep takes as long as the slowest server.
+     *
+     * @param command       API command to send
+     * @param arg           command arguments
+     * @param timeoutMillis deadline of the whole sweep, servers without a reply by then are reported as failed
+     * @return a {@link FanOutResult} by server address
+     */
+    FanOutResult<EslMessage> fanOutApiCommand(String command, String arg, long timeoutMillis);
+
     /**
      * Set the current event subscription for this connection to the server.  Examples of the events
      * argument are:
@@ -143,10 +197,9 @@ public interface InboundClient extends InboundClientService, InboundClientComman
      * <p>
      * Subsequent calls to this method replaces any previous subscriptions that were set.
      * </p>
-     * Note: current implementation can only process 'plain' events.
      *
      * @param address Esl server address
-     * @param format  can be { plain | xml }
+     * @param format  can be { plain | json | xml }
      * @param events  { all | space separated list of events }
      * @return a {@link link.thingscloud.freeswitch.esl.transport.CommandResponse} with the server's response.
      */
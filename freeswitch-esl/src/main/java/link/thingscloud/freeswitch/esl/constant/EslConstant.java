@@ -33,6 +33,14 @@ public class EslConstant {
      * Constant <code>PLAIN="plain"</code>
      */
     public static final String PLAIN = "plain";
+    /**
+     * Constant <code>JSON="json"</code>
+     */
+    public static final String JSON = "json";
+    /**
+     * Constant <code>XML="xml"</code>
+     */
+    public static final String XML = "xml";
 
     public static final String SMF_ALEG = "aleg";
     public static final String SMF_BLEG = "bleg";
@@ -17,16 +17,22 @@
 
 package link.thingscloud.freeswitch.esl.inbound;
 
+import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.util.concurrent.DefaultThreadFactory;
+import link.thingscloud.freeswitch.esl.AsyncInboundClient;
 import link.thingscloud.freeswitch.esl.InboundClient;
 import link.thingscloud.freeswitch.esl.constant.EslConstant;
+import link.thingscloud.freeswitch.esl.constant.EventNames;
 import link.thingscloud.freeswitch.esl.exception.InboundClientException;
+import link.thingscloud.freeswitch.esl.inbound.ConnectionRegistry.ServerEntry;
 import link.thingscloud.freeswitch.esl.inbound.handler.InboundChannelHandler;
 import link.thingscloud.freeswitch.esl.inbound.listener.EventListener;
 import link.thingscloud.freeswitch.esl.inbound.listener.ServerOptionListener;
 import link.thingscloud.freeswitch.esl.inbound.option.ConnectState;
+import link.thingscloud.freeswitch.esl.inbound.option.ConnectionRole;
 import link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption;
+import link.thingscloud.freeswitch.esl.inbound.option.ServerLoad;
 import link.thingscloud.freeswitch.esl.inbound.option.ServerOption;
 import link.thingscloud.freeswitch.esl.transport.CommandResponse;
 import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
@@ -34,11 +40,14 @@ import link.thingscloud.freeswitch.esl.transport.message.EslHeaders;
 import link.thingscloud.freeswitch.esl.transport.message.EslMessage;
 import link.thingscloud.freeswitch.esl.util.StringUtils;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <p>flow :</p>
@@ -49,6 +58,14 @@ import java.util.concurrent.TimeUnit;
  * /|            |---» FAILED
  * |                     |
  * ----------------------|
+ * <p>
+ * The flow is the one of the event connection of a server. With commandConnections set, each server
+ * also gets that many command-only connections, which authenticate but never subscribe, so that
+ * command replies do not queue behind event traffic. They reconnect on their own and
+ * {@link #getAuthedHandler(String)} routes commands to the least busy of them.
+ * <p>
+ * Servers and their connections are kept in a {@link ConnectionRegistry} indexed by address, the
+ * command path never scans the server options.
  *
  * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
  */
@@ -57,10 +74,15 @@ abstract class AbstractInboundClient extends AbstractNettyInboundClient implemen
     private final ScheduledThreadPoolExecutor scheduledPoolExecutor = new ScheduledThreadPoolExecutor(1,
             new DefaultThreadFactory("inbound-scheduled-pool", true));
 
-    private final Map<String, InboundChannelHandler> handlerTable = new HashMap<>(32);
+    private final ConnectionRegistry registry = new ConnectionRegistry();
+
+    private final ConnectThrottle throttle;
+
+    final AsyncInboundClient async = new NettyAsyncInboundClient(this);
 
     AbstractInboundClient(InboundClientOption option) {
         super(option);
+        this.throttle = new ConnectThrottle(option);
     }
 
     /**
@@ -71,6 +93,14 @@ abstract class AbstractInboundClient extends AbstractNettyInboundClient implemen
         return option;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AsyncInboundClient async() {
+        return async;
+    }
+
 
     /**
      * {@inheritDoc}
@@ -84,9 +114,20 @@ abstract class AbstractInboundClient extends AbstractNettyInboundClient implemen
         addEventListener();
 
         option().serverOptions().forEach(serverOption -> {
+            registry.register(serverOption);
             if (serverOption.state() == ConnectState.INIT) {
                 serverOption.state(ConnectState.CONNECTING);
-                doConnect(serverOption);
+                long delayMillis = throttle.startDelayMillis();
+                if (delayMillis > 0) {
+                    // staggered, so that a fleet of clients does not connect at the same instant
+                    scheduledPoolExecutor.schedule(() -> {
+                        doConnect(serverOption);
+                        doConnectCommands(serverOption);
+                    }, delayMillis, TimeUnit.MILLISECONDS);
+                } else {
+                    doConnect(serverOption);
+                    doConnectCommands(serverOption);
+                }
             }
         });
     }
@@ -100,7 +141,11 @@ abstract class AbstractInboundClient extends AbstractNettyInboundClient implemen
         log.info("inbound client will shutdown ...");
         option().serverOptions().forEach(serverOption -> {
             serverOption.state(ConnectState.SHUTDOWN);
-            InboundChannelHandler inboundChannelHandler = handlerTable.get(serverOption.address());
+            ServerEntry entry = registry.get(serverOption.address());
+            if (entry == null) {
+                return;
+            }
+            InboundChannelHandler inboundChannelHandler = entry.eventHandler;
             if (inboundChannelHandler != null) {
                 inboundChannelHandler.close().addListener((ChannelFutureListener) future -> {
                     if (future.isSuccess()) {
@@ -110,8 +155,19 @@ abstract class AbstractInboundClient extends AbstractNettyInboundClient implemen
                     }
                 });
             }
+            closeCommandConnections(entry);
         });
         workerGroup.shutdownGracefully();
+        if (eventLanes != null) {
+            eventLanes.shutdownGracefully();
+        }
+        if (eventRing != null) {
+            // the events already published are still dispatched
+            eventRing.shutdown();
+        }
+        // the tasks already submitted still run, either pool or virtual threads
+        publicExecutor.shutdown();
+        timer.stop();
     }
 
     /**
@@ -119,35 +175,49 @@ abstract class AbstractInboundClient extends AbstractNettyInboundClient implemen
      */
     @Override
     public void onChannelActive(String remoteAddr, InboundChannelHandler inboundChannelHandler) {
-        handlerTable.put(remoteAddr, inboundChannelHandler);
+        if (inboundChannelHandler.role() == ConnectionRole.COMMAND) {
+            log.info("command connection of remote server [{}] is active.", remoteAddr);
+            return;
+        }
+        ServerEntry entry = registry.get(remoteAddr);
+        if (entry == null) {
+            log.warn("remote server [{}] is not registered, server options are matched by ip address.", remoteAddr);
+            return;
+        }
+        entry.eventHandler = inboundChannelHandler;
         // 连接监听
-        option().serverOptions().forEach(serverOption -> {
-            if (StringUtils.equals(serverOption.address(), remoteAddr)) {
-                if (option().serverConnectionListener() != null) {
-                    option().serverConnectionListener().onOpened(serverOption);
-                }
-            }
-        });
+        if (option().serverConnectionListener() != null) {
+            option().serverConnectionListener().onOpened(entry.serverOption);
+        }
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void onChannelClosed(String remoteAddr) {
-        handlerTable.remove(remoteAddr);
-        option().serverOptions().forEach(serverOption -> {
-            if (StringUtils.equals(serverOption.address(), remoteAddr)) {
-                // 连接监听
-                if (option().serverConnectionListener() != null) {
-                    option().serverConnectionListener().onClosed(serverOption);
-                }
-                if (serverOption.state() != ConnectState.SHUTDOWN) {
-                    serverOption.state(ConnectState.CLOSED);
-                    scheduledPoolExecutor.schedule(() -> doConnect(serverOption), getTimeoutSeconds(serverOption), TimeUnit.SECONDS);
-                }
-            }
-        });
+    public void onChannelClosed(String remoteAddr, InboundChannelHandler inboundChannelHandler) {
+        // closed before the end of the auth
+        throttle.release(inboundChannelHandler.channel());
+        if (inboundChannelHandler.role() == ConnectionRole.COMMAND) {
+            onCommandChannelClosed(remoteAddr, inboundChannelHandler);
+            return;
+        }
+        ServerEntry entry = registry.get(remoteAddr);
+        if (entry == null) {
+            return;
+        }
+        if (entry.eventHandler == inboundChannelHandler) {
+            entry.eventHandler = null;
+        }
+        ServerOption serverOption = entry.serverOption;
+        // 连接监听
+        if (option().serverConnectionListener() != null) {
+            option().serverConnectionListener().onClosed(serverOption);
+        }
+        if (serverOption.state() != ConnectState.SHUTDOWN) {
+            serverOption.state(ConnectState.CLOSED);
+            scheduleReconnect(() -> doConnect(serverOption), serverOption, entry.connectFailures);
+        }
     }
 
     /**
@@ -156,31 +226,43 @@ abstract class AbstractInboundClient extends AbstractNettyInboundClient implemen
     @Override
     public void handleAuthRequest(String address, InboundChannelHandler inboundChannelHandler) {
         log.info("Auth requested[{}], sending [auth {}]", address, "*****");
-        for (ServerOption serverOption : option().serverOptions()) {
-            String password = serverOption.password();
-            if (password == null) {
-                password = option().defaultPassword();
+        try {
+            if (inboundChannelHandler.role() == ConnectionRole.COMMAND) {
+                authCommandConnection(address, inboundChannelHandler);
+            } else {
+                authEventConnection(address, inboundChannelHandler);
             }
-            if (StringUtils.equals(address, serverOption.address())) {
-                EslMessage response = inboundChannelHandler.sendSyncSingleLineCommand("auth " + password);
-                log.debug("Auth response [{}]", response);
-                if (response.getContentType().equals(EslHeaders.Value.COMMAND_REPLY)) {
-                    CommandResponse reply = new CommandResponse("auth " + password, response);
-                    serverOption.state(ConnectState.AUTHED);
-                    log.info("Auth response success={}, message=[{}]", reply.isOk(), reply.getReplyText());
-                    if (!option().events().isEmpty()) {
-                        StringBuilder sb = new StringBuilder();
-                        for (String event : option().events()) {
-                            sb.append(event).append(" ");
-                        }
-                        setEventSubscriptions(address, "plain", sb.toString());
-                    }
-                } else {
-                    serverOption.state(ConnectState.AUTHED_FAILED);
-                    log.error("Bad auth response message [{}]", response);
-                    throw new IllegalStateException("Incorrect auth response");
+        } finally {
+            // the auth and subscription burst of the connect is over
+            throttle.release(inboundChannelHandler.channel());
+        }
+    }
+
+    private void authEventConnection(String address, InboundChannelHandler inboundChannelHandler) {
+        ServerEntry entry = registry.get(address);
+        if (entry == null) {
+            return;
+        }
+        ServerOption serverOption = entry.serverOption;
+        String password = password(serverOption);
+        EslMessage response = inboundChannelHandler.sendSyncSingleLineCommand("auth " + password);
+        log.debug("Auth response [{}]", response);
+        if (response.getContentType().equals(EslHeaders.Value.COMMAND_REPLY)) {
+            CommandResponse reply = new CommandResponse("auth " + password, response);
+            serverOption.state(ConnectState.AUTHED);
+            entry.connectFailures.set(0);
+            log.info("Auth response success={}, message=[{}]", reply.isOk(), reply.getReplyText());
+            if (!option().events().isEmpty()) {
+                StringBuilder sb = new StringBuilder();
+                for (String event : option().events()) {
+                    sb.append(event).append(" ");
                 }
+                setEventSubscriptions(address, option().eventFormat(), sb.toString());
             }
+        } else {
+            serverOption.state(ConnectState.AUTHED_FAILED);
+            log.error("Bad auth response message [{}]", response);
+            throw new IllegalStateException("Incorrect auth response");
         }
     }
 
@@ -189,6 +271,9 @@ abstract class AbstractInboundClient extends AbstractNettyInboundClient implemen
      */
     @Override
     public void handleEslEvent(String address, EslEvent event) {
+        if (StringUtils.equals(event.getEventName(), EventNames.HEARTBEAT)) {
+            updateServerLoad(address, event);
+        }
         option().listeners().forEach(listener -> {
             long start = 0L;
             if (option().performance()) {
@@ -244,24 +329,56 @@ abstract class AbstractInboundClient extends AbstractNettyInboundClient implemen
     }
 
     /**
-     * <p>getAuthedHandler.</p>
+     * The handler to send a command to, the least busy authed command connection of the address, or
+     * its event connection when it has none.
      *
      * @param address a {@link java.lang.String} object.
      * @return a {@link link.thingscloud.freeswitch.esl.inbound.handler.InboundChannelHandler} object.
      */
     public InboundChannelHandler getAuthedHandler(String address) {
-        InboundChannelHandler handler = handlerTable.get(address);
+        ServerEntry entry = registry.get(address);
+        if (entry != null && !entry.commandHandlers.isEmpty()) {
+            InboundChannelHandler handler = leastBusy(entry.commandHandlers);
+            if (handler != null) {
+                return handler;
+            }
+        }
+        return getEventHandler(entry, address);
+    }
+
+    /**
+     * <p>authedAddresses.</p>
+     *
+     * @return the addresses of the AUTHED servers
+     */
+    List<String> authedAddresses() {
+        List<String> addresses = new ArrayList<>();
+        for (ServerEntry entry : registry.entries()) {
+            if (entry.isAuthed()) {
+                addresses.add(entry.serverOption.address());
+            }
+        }
+        return addresses;
+    }
+
+    /**
+     * The handler of the event connection of the address, for the subscriptions, filters and bgapi
+     * jobs waiting for their BACKGROUND_JOB event.
+     *
+     * @param address a {@link java.lang.String} object.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.handler.InboundChannelHandler} object.
+     */
+    public InboundChannelHandler getEventHandler(String address) {
+        return getEventHandler(registry.get(address), address);
+    }
+
+    private InboundChannelHandler getEventHandler(ServerEntry entry, String address) {
+        InboundChannelHandler handler = entry == null ? null : entry.eventHandler;
         if (handler == null) {
             throw new InboundClientException("not found inbound handler for address : " + address);
         }
-        List<ServerOption> serverOptions = option().serverOptions();
-        for (ServerOption serverOption : serverOptions) {
-            if (StringUtils.equals(serverOption.address(), address)) {
-                if (serverOption.state() != ConnectState.AUTHED) {
-                    throw new InboundClientException("inbound handler is not authed for address : " + address);
-                }
-                break;
-            }
+        if (!entry.isAuthed()) {
+            throw new InboundClientException("inbound handler is not authed for address : " + address);
         }
         return handler;
     }
@@ -270,8 +387,10 @@ abstract class AbstractInboundClient extends AbstractNettyInboundClient implemen
         option().serverOptionListener(new ServerOptionListener() {
             @Override
             public void onAdded(ServerOption serverOption) {
+                registry.register(serverOption);
                 if (serverOption.state() == ConnectState.INIT) {
                     doConnect(serverOption);
+                    doConnectCommands(serverOption);
                 }
             }
 
@@ -279,6 +398,9 @@ abstract class AbstractInboundClient extends AbstractNettyInboundClient implemen
             public void onRemoved(ServerOption serverOption) {
                 if (serverOption.state() == ConnectState.CONNECTED || serverOption.state() == ConnectState.AUTHED) {
                     doClose(serverOption);
+                } else {
+                    // stops the pending reconnects
+                    registry.unregister(serverOption.address());
                 }
             }
         });
@@ -293,7 +415,7 @@ abstract class AbstractInboundClient extends AbstractNettyInboundClient implemen
                 for (String event : list) {
                     sb.append(event).append(" ");
                 }
-                option().serverOptions().forEach(serverOption -> publicExecutor.execute(() -> setEventSubscriptions(serverOption.address(), "plain", sb.toString())));
+                option().serverOptions().forEach(serverOption -> publicExecutor.execute(() -> setEventSubscriptions(serverOption.address(), option().eventFormat(), sb.toString())));
             }
 
             @Override
@@ -305,27 +427,58 @@ abstract class AbstractInboundClient extends AbstractNettyInboundClient implemen
     }
 
     private void doConnect(final ServerOption serverOption) {
+        ServerEntry entry = registry.get(serverOption.address());
+        if (serverOption.state() == ConnectState.SHUTDOWN || entry == null || entry.serverOption != serverOption) {
+            return;
+        }
+        if (!throttle.tryAcquire()) {
+            scheduledPoolExecutor.schedule(() -> doConnect(serverOption), throttle.permitWaitMillis(), TimeUnit.MILLISECONDS);
+            return;
+        }
         log.info("connect remote server [{}:{}] ...", serverOption.host(), serverOption.port());
         serverOption.addConnectTimes();
         serverOption.state(ConnectState.CONNECTING);
-        bootstrap.connect(serverOption.host(), serverOption.port()).addListener((ChannelFutureListener) future -> {
+        connectBootstrap(ConnectionRole.EVENT).connect(serverOption.host(), serverOption.port()).addListener((ChannelFutureListener) future -> {
             if (future.isSuccess()) {
                 serverOption.state(ConnectState.CONNECTED);
                 log.info("connect remote server [{}:{}] success.", serverOption.host(), serverOption.port());
             } else {
+                throttle.release();
                 serverOption.state(ConnectState.FAILED);
                 log.warn("connect remote server [{}:{}] failed, will try again, cause : ", serverOption.host(), serverOption.port(), future.cause());
-                scheduledPoolExecutor.schedule(() -> doConnect(serverOption), getTimeoutSeconds(serverOption), TimeUnit.SECONDS);
+                scheduleReconnect(() -> doConnect(serverOption), serverOption, entry.connectFailures);
             }
         });
     }
 
+    private Bootstrap connectBootstrap(ConnectionRole role) {
+        if (role == ConnectionRole.EVENT && !throttle.isLimited()) {
+            return bootstrap;
+        }
+        Bootstrap connectBootstrap = bootstrap.clone();
+        if (role == ConnectionRole.COMMAND) {
+            connectBootstrap.attr(InboundChannelHandler.CONNECTION_ROLE, ConnectionRole.COMMAND);
+        }
+        if (throttle.isLimited()) {
+            connectBootstrap.attr(ConnectThrottle.CONNECT_PERMIT, Boolean.TRUE);
+        }
+        return connectBootstrap;
+    }
+
+    private void scheduleReconnect(Runnable connect, ServerOption serverOption, AtomicInteger failures) {
+        long delayMillis = throttle.reconnectDelayMillis(failures.getAndIncrement(), getTimeoutSeconds(serverOption));
+        scheduledPoolExecutor.schedule(connect, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
     private void doClose(ServerOption serverOption) {
         log.info("doClose remote server [{}:{}] success.", serverOption.host(), serverOption.port());
         serverOption.state(ConnectState.CLOSING);
         option().serverOptions().remove(serverOption);
-        String remoteAddr = serverOption.address();
-        InboundChannelHandler inboundChannelHandler = handlerTable.get(remoteAddr);
+        ServerEntry entry = registry.unregister(serverOption.address());
+        if (entry == null) {
+            return;
+        }
+        InboundChannelHandler inboundChannelHandler = entry.eventHandler;
         if (inboundChannelHandler != null) {
             inboundChannelHandler.close().addListener((ChannelFutureListener) future -> {
                 if (future.isSuccess()) {
@@ -335,6 +488,119 @@ abstract class AbstractInboundClient extends AbstractNettyInboundClient implemen
                 }
             });
         }
+        closeCommandConnections(entry);
+    }
+
+    private void updateServerLoad(String address, EslEvent heartbeat) {
+        ServerEntry entry = registry.get(address);
+        if (entry != null) {
+            entry.serverOption.load(ServerLoad.valueOf(heartbeat));
+        }
+    }
+
+    private void doConnectCommands(ServerOption serverOption) {
+        for (int i = 0; i < option().commandConnections(); i++) {
+            doConnectCommand(serverOption);
+        }
+    }
+
+    private void doConnectCommand(final ServerOption serverOption) {
+        ServerEntry entry = registry.get(serverOption.address());
+        if (serverOption.state() == ConnectState.SHUTDOWN || entry == null || entry.serverOption != serverOption) {
+            return;
+        }
+        if (!throttle.tryAcquire()) {
+            scheduledPoolExecutor.schedule(() -> doConnectCommand(serverOption), throttle.permitWaitMillis(), TimeUnit.MILLISECONDS);
+            return;
+        }
+        log.info("connect command connection of remote server [{}:{}] ...", serverOption.host(), serverOption.port());
+        connectBootstrap(ConnectionRole.COMMAND).connect(serverOption.host(), serverOption.port()).addListener((ChannelFutureListener) future -> {
+            if (!future.isSuccess()) {
+                throttle.release();
+                log.warn("connect command connection of remote server [{}:{}] failed, will try again, cause : ", serverOption.host(), serverOption.port(), future.cause());
+                scheduleReconnect(() -> doConnectCommand(serverOption), serverOption, entry.commandConnectFailures);
+            }
+        });
+    }
+
+    private void authCommandConnection(String address, InboundChannelHandler inboundChannelHandler) {
+        ServerEntry entry = registry.get(address);
+        if (entry == null) {
+            inboundChannelHandler.close();
+            return;
+        }
+        String password = password(entry.serverOption);
+        EslMessage response = inboundChannelHandler.sendSyncSingleLineCommand("auth " + password);
+        if (response.getContentType().equals(EslHeaders.Value.COMMAND_REPLY)
+                && new CommandResponse("auth " + password, response).isOk()) {
+            entry.commandHandlers.add(inboundChannelHandler);
+            entry.commandConnectFailures.set(0);
+            log.info("command connection of remote server [{}] authed.", address);
+        } else {
+            log.error("Bad auth response message of command connection [{}]", response);
+            throw new IllegalStateException("Incorrect auth response");
+        }
+    }
+
+    private void onCommandChannelClosed(String remoteAddr, InboundChannelHandler inboundChannelHandler) {
+        ServerEntry entry = registry.get(remoteAddr);
+        if (entry == null) {
+            return;
+        }
+        entry.commandHandlers.remove(inboundChannelHandler);
+        ServerOption serverOption = entry.serverOption;
+        if (serverOption.state() != ConnectState.SHUTDOWN) {
+            log.info("command connection of remote server [{}] is closed, will reconnect.", remoteAddr);
+            scheduleReconnect(() -> doConnectCommand(serverOption), serverOption, entry.commandConnectFailures);
+        }
+    }
+
+    private void closeCommandConnections(ServerEntry entry) {
+        List<InboundChannelHandler> commandHandlers = new ArrayList<>(entry.commandHandlers);
+        entry.commandHandlers.clear();
+        commandHandlers.forEach(InboundChannelHandler::close);
+    }
+
+    private String password(ServerOption serverOption) {
+        return serverOption.password() == null ? option().defaultPassword() : serverOption.password();
+    }
+
+    private static InboundChannelHandler leastBusy(List<InboundChannelHandler> handlers) {
+        // a random start spreads the ties over the connections
+        Object[] candidates = handlers.toArray();
+        if (candidates.length == 0) {
+            return null;
+        }
+        int start = ThreadLocalRandom.current().nextInt(candidates.length);
+        InboundChannelHandler best = null;
+        for (int i = 0; i < candidates.length; i++) {
+            InboundChannelHandler handler = (InboundChannelHandler) candidates[(start + i) % candidates.length];
+            if (best == null || handler.inFlightCommands() < best.inFlightCommands()) {
+                best = handler;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Block until the command future completes, for the synchronous API.
+     *
+     * @param future command future
+     * @param <T>    result type
+     * @return the result of the command
+     */
+    <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InboundClientException("interrupted while waiting for reply", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new InboundClientException(e.getCause());
+        }
     }
 
     private int getTimeoutSeconds(ServerOption serverOption) {
@@ -22,23 +22,36 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.string.StringEncoder;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.timeout.IdleStateHandler;
 import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.util.HashedWheelTimer;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import link.thingscloud.freeswitch.esl.InboundClientService;
+import link.thingscloud.freeswitch.esl.inbound.handler.EventLanes;
+import link.thingscloud.freeswitch.esl.inbound.handler.EventRingBuffer;
 import link.thingscloud.freeswitch.esl.inbound.handler.InboundChannelHandler;
 import link.thingscloud.freeswitch.esl.inbound.listener.ChannelEventListener;
 import link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption;
+import link.thingscloud.freeswitch.esl.transport.EslCommandEncoder;
+import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
 import link.thingscloud.freeswitch.esl.transport.message.EslFrameDecoder;
+import link.thingscloud.freeswitch.esl.transport.message.EslZeroCopyFrameDecoder;
+import link.thingscloud.freeswitch.esl.util.VirtualThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
@@ -48,6 +61,18 @@ abstract class AbstractNettyInboundClient implements ChannelEventListener, Inbou
     final Bootstrap bootstrap;
     final EventLoopGroup workerGroup;
     final ExecutorService publicExecutor;
+    /**
+     * ordered lanes of the events, null when they are dispatched on the public executor
+     */
+    final EventLanes eventLanes;
+    /**
+     * ring the events of every connection are dispatched through, null when it is disabled
+     */
+    final EventRingBuffer<InboundChannelHandler, EslEvent> eventRing;
+    /**
+     * deadlines of the commands and bgapi jobs of every connection
+     */
+    final HashedWheelTimer timer;
 
     final InboundClientOption option;
 
@@ -58,13 +83,46 @@ abstract class AbstractNettyInboundClient implements ChannelEventListener, Inbou
 
         bootstrap = new Bootstrap();
 
-        publicExecutor = new ScheduledThreadPoolExecutor(option.publicExecutorThread(),
-                new DefaultThreadFactory("Inbound-Executor", true));
+        if (option.virtualThreads() && VirtualThreads.isSupported()) {
+            // blocking listeners park their virtual thread instead of holding a pool thread
+            publicExecutor = VirtualThreads.newExecutor("Inbound-Executor");
+        } else {
+            if (option.virtualThreads()) {
+                log.warn("virtual threads require Java 21 or later, fall back to the public executor thread pool.");
+            }
+            publicExecutor = new ScheduledThreadPoolExecutor(option.publicExecutorThread(),
+                    new DefaultThreadFactory("Inbound-Executor", true));
+        }
+        timer = new HashedWheelTimer(new DefaultThreadFactory("inbound-timer", true), 100, TimeUnit.MILLISECONDS);
+        if (option.eventDispatchLanes() > 0 && option.eventRingBufferSize() > 0) {
+            throw new IllegalArgumentException("eventDispatchLanes and eventRingBufferSize can not be both enabled");
+        }
+        eventLanes = option.eventDispatchLanes() > 0
+                ? new EventLanes(option.eventDispatchLanes(), new DefaultThreadFactory("inbound-event-lane", true)) : null;
+        eventRing = option.eventRingBufferSize() > 0 && !option.disablePublicExecutor()
+                ? InboundChannelHandler.newEventRing(option.eventRingBufferSize(), option.eventRingBufferConsumers(),
+                option.eventRingBufferWaitStrategy(), new DefaultThreadFactory("inbound-event-ring", true)) : null;
 
-        workerGroup = new NioEventLoopGroup(option.workerGroupThread(), new DefaultThreadFactory("inbound-worker", true));
-        bootstrap.group(workerGroup)
-                .channel(NioSocketChannel.class)
-                .option(ChannelOption.TCP_NODELAY, true)
+        if (!option.zeroCopyDecoder() && !option.headerProjection().isEmpty()) {
+            log.warn("header projections are only applied by the zeroCopyDecoder, events are kept whole : {}", option.headerProjection());
+        }
+
+        boolean epoll = option.nativeTransport() && Epoll.isAvailable();
+        if (option.nativeTransport() && !epoll) {
+            log.warn("epoll native transport is unavailable, fall back to nio : {}", Epoll.unavailabilityCause().toString());
+        }
+        if (epoll) {
+            workerGroup = new EpollEventLoopGroup(option.workerGroupThread(), new DefaultThreadFactory("inbound-worker", true));
+            bootstrap.group(workerGroup)
+                    .channel(EpollSocketChannel.class)
+                    .option(EpollChannelOption.EPOLL_MODE, option.edgeTriggered() ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED)
+                    .option(EpollChannelOption.TCP_QUICKACK, option.tcpQuickAck());
+        } else {
+            workerGroup = new NioEventLoopGroup(option.workerGroupThread(), new DefaultThreadFactory("inbound-worker", true));
+            bootstrap.group(workerGroup)
+                    .channel(NioSocketChannel.class);
+        }
+        bootstrap.option(ChannelOption.TCP_NODELAY, true)
                 .option(ChannelOption.SO_KEEPALIVE, false)
                 .option(ChannelOption.SO_SNDBUF, option.sndBufSize())
                 .option(ChannelOption.SO_RCVBUF, option.rcvBufSize())
@@ -72,15 +130,22 @@ abstract class AbstractNettyInboundClient implements ChannelEventListener, Inbou
                     @Override
                     protected void initChannel(SocketChannel ch) throws Exception {
                         ChannelPipeline pipeline = ch.pipeline();
-                        pipeline.addLast("encoder", new StringEncoder());
-                        pipeline.addLast("decoder", new EslFrameDecoder(8192));
+                        // consolidate the flushes of commands issued in bursts
+                        pipeline.addLast("flushConsolidation", new FlushConsolidationHandler(
+                                FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES, true));
+                        pipeline.addLast("encoder", new EslCommandEncoder());
+                        if (option.zeroCopyDecoder()) {
+                            pipeline.addLast("decoder", new EslZeroCopyFrameDecoder(8192, false, option.pooledMessages(), option.headerProjection()));
+                        } else {
+                            pipeline.addLast("decoder", new EslFrameDecoder(8192));
+                        }
                         if (option.readerIdleTimeSeconds() > 0 && option.readTimeoutSeconds() > 0
                                 && option.readerIdleTimeSeconds() < option.readTimeoutSeconds()) {
                             pipeline.addLast("idleState", new IdleStateHandler(option.readerIdleTimeSeconds(), 0, 0));
                             pipeline.addLast("readTimeout", new ReadTimeoutHandler(option.readTimeoutSeconds()));
                         }
                         // now the inbound client logic
-                        pipeline.addLast("clientHandler", new InboundChannelHandler(AbstractNettyInboundClient.this, publicExecutor, option.disablePublicExecutor()));
+                        pipeline.addLast("clientHandler", new InboundChannelHandler(AbstractNettyInboundClient.this, publicExecutor, eventLanes, eventRing, option, timer));
                     }
                 });
     }
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.inbound;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>ConnectThrottle class.</p>
+ * <p>
+ * Spreads the (re)connects of an inbound client over time, so that a restarting FreeSWITCH cluster
+ * is not hit by every client at the same instant :
+ * <ul>
+ * <li>reconnect delays grow exponentially with the consecutive failures of a server, with full
+ * jitter : a random delay between 0 and {@code min(max, base * 2^failures)}</li>
+ * <li>at most maxConcurrentConnects connects, from the TCP connect to the end of the ESL auth, are
+ * in progress at once, the others wait for a permit</li>
+ * <li>the initial connects are spread at random over startStaggerMillis</li>
+ * </ul>
+ * Without reconnectBackoffMaxMillis the reconnect delay stays the fixed timeoutSeconds of the server.
+ *
+ * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
+ * @version 1.0.0
+ */
+class ConnectThrottle {
+
+    /**
+     * set on the channels holding a connect permit
+     */
+    static final AttributeKey<Boolean> CONNECT_PERMIT = AttributeKey.valueOf("eslConnectPermit");
+
+    private final Semaphore permits;
+    private final long baseMillis;
+    private final long maxMillis;
+    private final long staggerMillis;
+
+    ConnectThrottle(InboundClientOption option) {
+        this.permits = option.maxConcurrentConnects() > 0 ? new Semaphore(option.maxConcurrentConnects()) : null;
+        this.baseMillis = Math.max(1L, option.reconnectBackoffBaseMillis());
+        this.maxMillis = option.reconnectBackoffMaxMillis();
+        this.staggerMillis = option.startStaggerMillis();
+    }
+
+    /**
+     * <p>isLimited.</p>
+     *
+     * @return true if the concurrent connects are limited
+     */
+    boolean isLimited() {
+        return permits != null;
+    }
+
+    /**
+     * <p>tryAcquire.</p>
+     *
+     * @return true if a connect may start now
+     */
+    boolean tryAcquire() {
+        return permits == null || permits.tryAcquire();
+    }
+
+    /**
+     * Release the permit held by the channel, if any, once.
+     *
+     * @param channel a {@link io.netty.channel.Channel} object.
+     */
+    void release(Channel channel) {
+        if (permits != null && channel != null && channel.attr(CONNECT_PERMIT).getAndSet(null) != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * Release a permit acquired for a connect which could not be started.
+     */
+    void release() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * <p>reconnectDelayMillis.</p>
+     *
+     * @param failures       consecutive failures of the connection
+     * @param timeoutSeconds fixed delay of the server
+     * @return the delay before the next connect
+     */
+    long reconnectDelayMillis(int failures, int timeoutSeconds) {
+        if (maxMillis <= 0) {
+            return TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        }
+        // base * 2^failures, the shift stops before the sign bit
+        int shift = Math.max(0, Math.min(failures, Long.numberOfLeadingZeros(baseMillis) - 1));
+        long ceiling = Math.min(maxMillis, baseMillis << shift);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * <p>permitWaitMillis.</p>
+     *
+     * @return the delay before trying again to get a connect permit
+     */
+    long permitWaitMillis() {
+        return baseMillis / 2 + ThreadLocalRandom.current().nextLong(baseMillis + 1);
+    }
+
+    /**
+     * <p>startDelayMillis.</p>
+     *
+     * @return the delay of an initial connect
+     */
+    long startDelayMillis() {
+        return staggerMillis <= 0 ? 0L : ThreadLocalRandom.current().nextLong(staggerMillis + 1);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.inbound;
+
+import link.thingscloud.freeswitch.esl.inbound.handler.InboundChannelHandler;
+import link.thingscloud.freeswitch.esl.inbound.option.ConnectState;
+import link.thingscloud.freeswitch.esl.inbound.option.ServerOption;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>ConnectionRegistry class.</p>
+ * <p>
+ * The servers of an inbound client indexed by address, with their options, event connection and
+ * command connections. Every lookup is one hash lookup without lock, whatever the number of servers.
+ * Handlers are published through a volatile field and a copy-on-write list, the connection state
+ * through the volatile {@link ServerOption#state()}.
+ *
+ * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
+ * @version 1.0.0
+ */
+class ConnectionRegistry {
+
+    private final ConcurrentMap<String, ServerEntry> entries = new ConcurrentHashMap<>(64);
+
+    /**
+     * <p>register.</p>
+     *
+     * @param serverOption a {@link link.thingscloud.freeswitch.esl.inbound.option.ServerOption} object.
+     * @return the entry of the server, the existing one if its address is already registered
+     */
+    ServerEntry register(ServerOption serverOption) {
+        return entries.computeIfAbsent(serverOption.address(), address -> new ServerEntry(serverOption));
+    }
+
+    /**
+     * <p>unregister.</p>
+     *
+     * @param address a {@link java.lang.String} object.
+     * @return the removed entry, or null
+     */
+    ServerEntry unregister(String address) {
+        return entries.remove(address);
+    }
+
+    /**
+     * <p>get.</p>
+     *
+     * @param address a {@link java.lang.String} object.
+     * @return the entry of the server, or null
+     */
+    ServerEntry get(String address) {
+        return entries.get(address);
+    }
+
+    /**
+     * <p>entries.</p>
+     *
+     * @return a live view of the entries
+     */
+    Collection<ServerEntry> entries() {
+        return entries.values();
+    }
+
+    /**
+     * A server and its connections.
+     */
+    static class ServerEntry {
+        final ServerOption serverOption;
+        /**
+         * authed command connections
+         */
+        final List<InboundChannelHandler> commandHandlers = new CopyOnWriteArrayList<>();
+        /**
+         * consecutive failures of the event connection, for the reconnect backoff
+         */
+        final AtomicInteger connectFailures = new AtomicInteger();
+        /**
+         * consecutive failures of the command connections, for the reconnect backoff
+         */
+        final AtomicInteger commandConnectFailures = new AtomicInteger();
+        volatile InboundChannelHandler eventHandler;
+
+        ServerEntry(ServerOption serverOption) {
+            this.serverOption = serverOption;
+        }
+
+        boolean isAuthed() {
+            return serverOption.state() == ConnectState.AUTHED;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package link.thingscloud.freeswitch.esl.inbound;
+
+import io.netty.util.Timeout;
+import link.thingscloud.freeswitch.esl.AsyncInboundClient;
+import link.thingscloud.freeswitch.esl.builder.Command;
+import link.thingscloud.freeswitch.esl.constant.EslConstant;
+import link.thingscloud.freeswitch.esl.exception.InboundTimeoutExcetion;
+import link.thingscloud.freeswitch.esl.inbound.handler.InboundChannelHandler;
+import link.thingscloud.freeswitch.esl.transport.BatchResponse;
+import link.thingscloud.freeswitch.esl.transport.CommandResponse;
+import link.thingscloud.freeswitch.esl.transport.EslCommand;
+import link.thingscloud.freeswitch.esl.transport.FanOutResult;
+import link.thingscloud.freeswitch.esl.transport.SendEvent;
+import link.thingscloud.freeswitch.esl.transport.SendMsg;
+import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
+import link.thingscloud.freeswitch.esl.transport.message.EslMessage;
+import link.thingscloud.freeswitch.esl.util.StringUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static link.thingscloud.freeswitch.esl.builder.Command.*;
+
+/**
+ * <p>NettyAsyncInboundClient class.</p>
+ * <p>
+ * Builds the commands of the {@link AsyncInboundClient} and hands them to the
+ * {@link InboundChannelHandler} of the address, the blocking {@link NettyInboundClient} methods wait
+ * on these futures.
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+@Slf4j
+class NettyAsyncInboundClient implements AsyncInboundClient {
+
+    private static final String EMPTY = "";
+
+    private final AbstractInboundClient client;
+    private final boolean debugEnabled = log.isDebugEnabled();
+
+    NettyAsyncInboundClient(AbstractInboundClient client) {
+        this.client = client;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<EslMessage> sendApiCommand(String address, String command, String arg) {
+        log.debug("sendApiCommand address : {}, command : {}, arg : {}", address, command, arg);
+        return send(address, handler -> handler.sendCommand(EslCommand.api(command, arg)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<EslMessage> sendApiCommand(String address, String command, String arg, long timeoutMillis) {
+        log.debug("sendApiCommand address : {}, command : {}, arg : {}, timeoutMillis : {}", address, command, arg, timeoutMillis);
+        return send(address, handler -> handler.sendCommand(EslCommand.api(command, arg), timeoutMillis));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> sendAsyncApiCommand(String address, String command, String arg) {
+        log.debug("sendAsyncApiCommand address : {}, command : {}, arg : {}", address, command, arg);
+        return send(address, handler -> handler.sendBackgroundCommand(EslCommand.bgapi(command, arg)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<EslEvent> sendBackgroundApiCommand(String address, String command, String arg) {
+        log.debug("sendBackgroundApiCommand address : {}, command : {}, arg : {}", address, command, arg);
+        // the BACKGROUND_JOB event only comes back on the subscribed event connection
+        return sendOnEventConnection(address, handler -> handler.sendBackgroundJobCommand(EslCommand.bgapi(command, arg)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<CompletableFuture<EslMessage>> sendCommands(String address, List<EslCommand> commands) {
+        log.debug("sendCommands address : {}, commands : {}", address, commands.size());
+        InboundChannelHandler handler;
+        try {
+            handler = client.getAuthedHandler(address);
+        } catch (RuntimeException e) {
+            List<CompletableFuture<EslMessage>> futures = new ArrayList<>(commands.size());
+            for (int i = 0; i < commands.size(); i++) {
+                CompletableFuture<EslMessage> future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+                futures.add(future);
+            }
+            return futures;
+        }
+        // one connection keeps the submission order
+        return handler.sendCommands(commands);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchCommand(String address, List<EslCommand> commands) {
+        return BatchResponse.collect(commands, sendCommands(address, commands));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<FanOutResult<EslMessage>> fanOutApiCommand(String command, String arg, long timeoutMillis) {
+        log.debug("fanOutApiCommand command : {}, arg : {}, timeoutMillis : {}", command, arg, timeoutMillis);
+        return fanOut(address -> sendApiCommand(address, command, arg, timeoutMillis), timeoutMillis);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> CompletableFuture<FanOutResult<T>> fanOut(Function<String, CompletableFuture<T>> sender, long timeoutMillis) {
+        Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+        for (String address : client.authedAddresses()) {
+            CompletableFuture<T> future;
+            try {
+                future = sender.apply(address);
+            } catch (RuntimeException e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+            futures.put(address, future);
+        }
+        CompletableFuture<FanOutResult<T>> result = new CompletableFuture<>();
+        // one deadline for the sweep, on the timer wheel of the client
+        Timeout timeout = timeoutMillis <= 0 ? null : client.timer.newTimeout(t -> result.complete(FanOutResult.collect(futures,
+                () -> new InboundTimeoutExcetion("no result within " + timeoutMillis + "ms"))), timeoutMillis, TimeUnit.MILLISECONDS);
+        CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).whenComplete((ignored, cause) -> {
+            if (timeout != null) {
+                timeout.cancel();
+            }
+            result.complete(FanOutResult.collect(futures, () -> new IllegalStateException("not completed")));
+        });
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<CommandResponse> setEventSubscriptions(String address, String format, String events) {
+        if (!StringUtils.inEquals(format, EslConstant.PLAIN, EslConstant.JSON, EslConstant.XML)) {
+            throw new IllegalStateException("Unsupported event format [" + format + "], expected { plain | json | xml }");
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("event ");
+        sb.append(format);
+        if (events != null && !events.isEmpty()) {
+            sb.append(' ');
+            sb.append(events);
+        }
+        return sendLine(address, sb.toString());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<CommandResponse> cancelEventSubscriptions(String address) {
+        return sendLine(address, "noevents");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<CommandResponse> addEventFilter(String address, String eventHeader, String valueToFilter) {
+        StringBuilder sb = new StringBuilder();
+        if (eventHeader != null && !eventHeader.isEmpty()) {
+            sb.append("filter ");
+            sb.append(eventHeader);
+        }
+        if (valueToFilter != null && !valueToFilter.isEmpty()) {
+            sb.append(' ');
+            sb.append(valueToFilter);
+        }
+        return sendLine(address, sb.toString());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<CommandResponse> deleteEventFilter(String address, String eventHeader, String valueToFilter) {
+        StringBuilder sb = new StringBuilder();
+        if (eventHeader != null && !eventHeader.isEmpty()) {
+            sb.append("filter delete ");
+            sb.append(eventHeader);
+        }
+        if (valueToFilter != null && !valueToFilter.isEmpty()) {
+            sb.append(' ');
+            sb.append(valueToFilter);
+        }
+        return sendLine(address, sb.toString());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<CommandResponse> sendEvent(String address, SendEvent sendEvent) {
+        return send(address, handler -> handler.sendCommand(sendEvent))
+                .thenApply(response -> new CommandResponse(sendEvent.toString(), response));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<CommandResponse> sendMessage(String address, SendMsg sendMsg) {
+        return send(address, handler -> handler.sendCommand(sendMsg))
+                .thenApply(response -> new CommandResponse(sendMsg.toString(), response));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<CommandResponse> setLoggingLevel(String address, String level) {
+        StringBuilder sb = new StringBuilder();
+        if (level != null && !level.isEmpty()) {
+            sb.append("log ");
+            sb.append(level);
+        }
+        return sendLine(address, sb.toString());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<CommandResponse> cancelLogging(String address) {
+        return sendLine(address, "nolog");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<CommandResponse> close(String address) {
+        return sendLine(address, "exit");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> answer(String address, String uuid) {
+        String command = Command.cmd(UUID_ANSWER).arg(uuid).toString();
+        if (debugEnabled) {
+            log.debug("answer address : {}, command : {}", address, command);
+        }
+        return sendAsyncApiCommand(address, command, EMPTY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> bridge(String address, String uuid, String otherUuid) {
+        String command = Command.cmd(UUID_BRIDGE).arg(uuid).arg(otherUuid).toString();
+        if (debugEnabled) {
+            log.debug("bridge address : {}, command : {}", address, command);
+        }
+        return sendAsyncApiCommand(address, command, EMPTY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> broadcast(String address, String uuid, String path, String smf) {
+        String command = Command.cmd(UUID_BROADCAST).arg(uuid).arg(path).arg(smf).toString();
+        if (debugEnabled) {
+            log.debug("broadcast address : {}, command : {}", address, command);
+        }
+        return sendAsyncApiCommand(address, command, EMPTY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> break0(String address, String uuid, boolean all) {
+        String command = Command.cmd(UUID_BREAK).arg(uuid).arg(all ? "all" : null).toString();
+        if (debugEnabled) {
+            log.debug("break0 address : {}, command : {}", address, command);
+        }
+        return sendAsyncApiCommand(address, command, EMPTY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> hold(String address, String smf, String uuid, boolean display) {
+        String command = Command.cmd(UUID_HOLD).arg(smf).arg(uuid).arg(display ? "all" : EMPTY).toString();
+        if (debugEnabled) {
+            log.debug("hold address : {}, command : {}", address, command);
+        }
+        return sendAsyncApiCommand(address, command, EMPTY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<List<String>> getVar(String address, String uuid, String var) {
+        String command = Command.cmd(UUID_GETVAR).arg(uuid).arg(var).toString();
+        if (debugEnabled) {
+            log.debug("getVar address : {}, command : {}", address, command);
+        }
+        return sendApiCommand(address, command, EMPTY).thenApply(EslMessage::getBodyLines);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> setVar(String address, String uuid, String var, String val) {
+        String command = Command.cmd(UUID_SETVAR).arg(uuid).arg(var).arg(val).toString();
+        if (debugEnabled) {
+            log.debug("setVar address : {}, command : {}", address, command);
+        }
+        return sendAsyncApiCommand(address, command, EMPTY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> multiSetVar(String address, String uuid, Map<String, String> map) {
+        if (map == null || map.isEmpty()) {
+            return CompletableFuture.completedFuture(EMPTY);
+        }
+        StringBuilder command = new StringBuilder("uuid_setvar_multi " + uuid + " ");
+        map.forEach((key, value) -> command.append(key).append("=").append(value).append(";"));
+        command.deleteCharAt(command.length() - 1);
+        if (debugEnabled) {
+            log.debug("multiSetVar address : {}, command : {}", address, command);
+        }
+        return sendAsyncApiCommand(address, command.toString(), EMPTY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> record(String address, String uuid, String action, String path, int limit) {
+        String command = Command.cmd(UUID_RECORD).arg(uuid).arg(action).arg(path).arg(limit < 1 ? null : String.valueOf(limit)).toString();
+        if (debugEnabled) {
+            log.debug("record address : {}, command : {}", address, command);
+        }
+        return sendAsyncApiCommand(address, command, EMPTY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> transfer(String address, String uuid, String smf, String dest, String dialplan, String context) {
+        String command = Command.cmd(UUID_TRANSFER).arg(uuid).arg(smf).arg(dest).arg(dialplan).arg(context).toString();
+        if (debugEnabled) {
+            log.debug("transfer address : {}, command : {}", address, command);
+        }
+        return sendAsyncApiCommand(address, command, EMPTY);
+    }
+
+    private CompletableFuture<CommandResponse> sendLine(String address, String command) {
+        // subscriptions, filters and logging belong to the event connection
+        return sendOnEventConnection(address, handler -> handler.sendCommand(EslCommand.line(command)))
+                .thenApply(response -> new CommandResponse(command, response));
+    }
+
+    private <T> CompletableFuture<T> send(String address, Function<InboundChannelHandler, CompletableFuture<T>> sender) {
+        return send(address, false, sender);
+    }
+
+    private <T> CompletableFuture<T> sendOnEventConnection(String address, Function<InboundChannelHandler, CompletableFuture<T>> sender) {
+        return send(address, true, sender);
+    }
+
+    private <T> CompletableFuture<T> send(String address, boolean eventConnection, Function<InboundChannelHandler, CompletableFuture<T>> sender) {
+        InboundChannelHandler handler;
+        try {
+            handler = eventConnection ? client.getEventHandler(address) : client.getAuthedHandler(address);
+        } catch (RuntimeException e) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        return sender.apply(handler);
+    }
+}
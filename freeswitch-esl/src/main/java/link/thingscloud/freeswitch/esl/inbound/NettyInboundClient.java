@@ -18,16 +18,19 @@
 package link.thingscloud.freeswitch.esl.inbound;
 
 import link.thingscloud.freeswitch.esl.InboundClient;
-import link.thingscloud.freeswitch.esl.constant.EslConstant;
 import link.thingscloud.freeswitch.esl.exception.InboundTimeoutExcetion;
-import link.thingscloud.freeswitch.esl.inbound.handler.InboundChannelHandler;
 import link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption;
+import link.thingscloud.freeswitch.esl.transport.BatchResponse;
 import link.thingscloud.freeswitch.esl.transport.CommandResponse;
+import link.thingscloud.freeswitch.esl.transport.EslCommand;
+import link.thingscloud.freeswitch.esl.transport.FanOutResult;
 import link.thingscloud.freeswitch.esl.transport.SendEvent;
 import link.thingscloud.freeswitch.esl.transport.SendMsg;
+import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
 import link.thingscloud.freeswitch.esl.transport.message.EslMessage;
-import link.thingscloud.freeswitch.esl.util.StringUtils;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -54,18 +57,7 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public EslMessage sendSyncApiCommand(String address, String command, String arg) {
-        InboundChannelHandler handler = getAuthedHandler(address);
-        StringBuilder sb = new StringBuilder();
-        if (command != null && !command.isEmpty()) {
-            sb.append("api ");
-            sb.append(command);
-        }
-        if (arg != null && !arg.isEmpty()) {
-            sb.append(' ');
-            sb.append(arg);
-        }
-        log.debug("sendSyncApiCommand address : {}, command : {}, arg : {}", address, command, arg);
-        return handler.sendSyncSingleLineCommand(sb.toString());
+        return await(async.sendApiCommand(address, command, arg));
     }
 
     /**
@@ -73,11 +65,9 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public EslMessage sendSyncApiCommand(String address, String command, String arg, long timeoutSeconds) throws InboundTimeoutExcetion {
-        try {
-            return publicExecutor.submit(() -> sendSyncApiCommand(address, command, arg)).get(timeoutSeconds, TimeUnit.SECONDS);
-        } catch (Exception e) {
-            throw new InboundTimeoutExcetion(String.format("sendSyncApiCommand address : %s, command : %s, arg : %s, timeoutSeconds : %s", address, command, arg, timeoutSeconds), e);
-        }
+        // the deadline runs on the timer wheel of the client, the reply order is kept if it fires :
+        // its expiry fails the future with InboundTimeoutExcetion, other failures are thrown as they are
+        return await(async.sendApiCommand(address, command, arg, TimeUnit.SECONDS.toMillis(timeoutSeconds)));
     }
 
     /**
@@ -85,12 +75,7 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public void sendSyncApiCommand(String address, String command, String arg, Consumer<EslMessage> consumer) {
-        publicExecutor.execute(() -> {
-            EslMessage msg = sendSyncApiCommand(address, command, arg);
-            if (consumer != null) {
-                consumer.accept(msg);
-            }
-        });
+        acceptAsync(async.sendApiCommand(address, command, arg), consumer);
     }
 
     /**
@@ -98,17 +83,7 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public String sendAsyncApiCommand(String address, String command, String arg) {
-        InboundChannelHandler handler = getAuthedHandler(address);
-        StringBuilder sb = new StringBuilder();
-        if (command != null && !command.isEmpty()) {
-            sb.append("bgapi ");
-            sb.append(command);
-        }
-        if (arg != null && !arg.isEmpty()) {
-            sb.append(' ');
-            sb.append(arg);
-        }
-        return handler.sendAsyncCommand(sb.toString());
+        return await(async.sendAsyncApiCommand(address, command, arg));
     }
 
     /**
@@ -116,33 +91,39 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public void sendAsyncApiCommand(String address, String command, String arg, Consumer<String> consumer) {
-        publicExecutor.execute(() -> {
-            String msg = sendAsyncApiCommand(address, command, arg);
-            if (consumer != null) {
-                consumer.accept(msg);
-            }
-        });
+        acceptAsync(async.sendAsyncApiCommand(address, command, arg), consumer);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public CommandResponse setEventSubscriptions(String address, String format, String events) {
-        if (!StringUtils.equals(format, EslConstant.PLAIN)) {
-            throw new IllegalStateException("Only 'plain' event format is supported at present");
-        }
-        InboundChannelHandler handler = getAuthedHandler(address);
+    public CompletableFuture<EslEvent> sendBackgroundApiCommand(String address, String command, String arg) {
+        return async.sendBackgroundApiCommand(address, command, arg);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BatchResponse sendBatchCommand(String address, List<EslCommand> commands) {
+        return await(async.sendBatchCommand(address, commands));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FanOutResult<EslMessage> fanOutApiCommand(String command, String arg, long timeoutMillis) {
+        return await(async.fanOutApiCommand(command, arg, timeoutMillis));
+    }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("event ");
-        sb.append(format);
-        if (events != null && !events.isEmpty()) {
-            sb.append(' ');
-            sb.append(events);
-        }
-        EslMessage response = handler.sendSyncSingleLineCommand(sb.toString());
-        return new CommandResponse(sb.toString(), response);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandResponse setEventSubscriptions(String address, String format, String events) {
+        return await(async.setEventSubscriptions(address, format, events));
     }
 
     /**
@@ -150,9 +131,7 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public CommandResponse cancelEventSubscriptions(String address) {
-        InboundChannelHandler handler = getAuthedHandler(address);
-        EslMessage response = handler.sendSyncSingleLineCommand("noevents");
-        return new CommandResponse("noevents", response);
+        return await(async.cancelEventSubscriptions(address));
     }
 
     /**
@@ -160,19 +139,7 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public CommandResponse addEventFilter(String address, String eventHeader, String valueToFilter) {
-        InboundChannelHandler handler = getAuthedHandler(address);
-        StringBuilder sb = new StringBuilder();
-        if (eventHeader != null && !eventHeader.isEmpty()) {
-            sb.append("filter ");
-            sb.append(eventHeader);
-        }
-        if (valueToFilter != null && !valueToFilter.isEmpty()) {
-            sb.append(' ');
-            sb.append(valueToFilter);
-        }
-        EslMessage response = handler.sendSyncSingleLineCommand(sb.toString());
-
-        return new CommandResponse(sb.toString(), response);
+        return await(async.addEventFilter(address, eventHeader, valueToFilter));
     }
 
     /**
@@ -180,19 +147,7 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public CommandResponse deleteEventFilter(String address, String eventHeader, String valueToFilter) {
-        InboundChannelHandler handler = getAuthedHandler(address);
-
-        StringBuilder sb = new StringBuilder();
-        if (eventHeader != null && !eventHeader.isEmpty()) {
-            sb.append("filter delete ");
-            sb.append(eventHeader);
-        }
-        if (valueToFilter != null && !valueToFilter.isEmpty()) {
-            sb.append(' ');
-            sb.append(valueToFilter);
-        }
-        EslMessage response = handler.sendSyncSingleLineCommand(sb.toString());
-        return new CommandResponse(sb.toString(), response);
+        return await(async.deleteEventFilter(address, eventHeader, valueToFilter));
     }
 
     /**
@@ -200,9 +155,7 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public CommandResponse sendEvent(String address, SendEvent sendEvent) {
-        InboundChannelHandler handler = getAuthedHandler(address);
-        EslMessage response = handler.sendSyncMultiLineCommand(sendEvent.getMsgLines());
-        return new CommandResponse(sendEvent.toString(), response);
+        return await(async.sendEvent(address, sendEvent));
     }
 
     /**
@@ -210,12 +163,7 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public void sendEvent(String address, SendEvent sendEvent, Consumer<CommandResponse> consumer) {
-        publicExecutor.execute(() -> {
-            CommandResponse response = sendEvent(address, sendEvent);
-            if (consumer != null) {
-                consumer.accept(response);
-            }
-        });
+        acceptAsync(async.sendEvent(address, sendEvent), consumer);
     }
 
     /**
@@ -223,9 +171,7 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public CommandResponse sendMessage(String address, SendMsg sendMsg) {
-        InboundChannelHandler handler = getAuthedHandler(address);
-        EslMessage response = handler.sendSyncMultiLineCommand(sendMsg.getMsgLines());
-        return new CommandResponse(sendMsg.toString(), response);
+        return await(async.sendMessage(address, sendMsg));
     }
 
     /**
@@ -233,12 +179,7 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public void sendMessage(String address, SendMsg sendMsg, Consumer<CommandResponse> consumer) {
-        publicExecutor.execute(() -> {
-            CommandResponse response = sendMessage(address, sendMsg);
-            if (consumer != null) {
-                consumer.accept(response);
-            }
-        });
+        acceptAsync(async.sendMessage(address, sendMsg), consumer);
     }
 
     /**
@@ -246,14 +187,7 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public CommandResponse setLoggingLevel(String address, String level) {
-        InboundChannelHandler handler = getAuthedHandler(address);
-        StringBuilder sb = new StringBuilder();
-        if (level != null && !level.isEmpty()) {
-            sb.append("log ");
-            sb.append(level);
-        }
-        EslMessage response = handler.sendSyncSingleLineCommand(sb.toString());
-        return new CommandResponse(sb.toString(), response);
+        return await(async.setLoggingLevel(address, level));
     }
 
     /**
@@ -261,9 +195,7 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public CommandResponse cancelLogging(String address) {
-        InboundChannelHandler handler = getAuthedHandler(address);
-        EslMessage response = handler.sendSyncSingleLineCommand("nolog");
-        return new CommandResponse("nolog", response);
+        return await(async.cancelLogging(address));
     }
 
     /**
@@ -271,9 +203,7 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public CommandResponse close(String address) {
-        InboundChannelHandler handler = getAuthedHandler(address);
-        EslMessage response = handler.sendSyncSingleLineCommand("exit");
-        return new CommandResponse("exit", response);
+        return await(async.close(address));
     }
 
     /**
@@ -281,7 +211,20 @@ public class NettyInboundClient extends AbstractInboundClientCommand {
      */
     @Override
     public InboundClient closeChannel(String address) {
-        getAuthedHandler(address).close();
+        getEventHandler(address).close();
         return this;
     }
+
+    /**
+     * Hand the result over to the consumer on the public executor, no thread waits for the reply.
+     */
+    private <T> void acceptAsync(CompletableFuture<T> future, Consumer<T> consumer) {
+        future.whenCompleteAsync((result, cause) -> {
+            if (cause != null) {
+                log.error("inbound command failed, cause : ", cause);
+            } else if (consumer != null) {
+                consumer.accept(result);
+            }
+        }, publicExecutor);
+    }
 }
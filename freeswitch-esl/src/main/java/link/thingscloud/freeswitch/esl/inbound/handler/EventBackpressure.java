@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.inbound.handler;
+
+import link.thingscloud.freeswitch.esl.constant.EventNames;
+import link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption;
+import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
+import link.thingscloud.freeswitch.esl.transport.event.EslEventHeaderNames;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>EventBackpressure class.</p>
+ * <p>
+ * Bounds the events of a connection handed to the listener threads and not dispatched yet :
+ * <ul>
+ * <li>at the high watermark the channel stops reading, FreeSWITCH then queues the events on its side,
+ * reading resumes once the listeners are back under the low watermark. The connection keeps reading
+ * while replies or BACKGROUND_JOB events of its commands are awaited, a listener may be waiting for
+ * them, until the hard limit : there it stops reading whatever is awaited, so the pending events stay
+ * bounded. Listeners blocking on replies should then use the command connections or the async API</li>
+ * <li>while at the high watermark the sheddable events, eg HEARTBEAT, are dropped instead of queued</li>
+ * <li>the lag of an event is measured from its {@code Event-Date-Timestamp} when it is dispatched,
+ * sheddable events later than maxLagMillis are dropped</li>
+ * </ul>
+ * BACKGROUND_JOB and CHANNEL_HANGUP_COMPLETE are never dropped, whatever the sheddable events.
+ *
+ * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
+ * @version 1.0.0
+ */
+@Slf4j
+public class EventBackpressure {
+
+    private static final Set<String> NEVER_SHED = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            EventNames.BACKGROUND_JOB, EventNames.CHANNEL_HANGUP_COMPLETE)));
+
+    private final int highWatermark;
+    private final int lowWatermark;
+    private final int hardLimit;
+    private final long maxLagMillis;
+    private final Set<String> sheddableEvents;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong shed = new AtomicLong();
+    private final AtomicBoolean readSuspended = new AtomicBoolean();
+    private volatile long lastLagMillis;
+
+    /**
+     * <p>Constructor for EventBackpressure.</p>
+     *
+     * @param option a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public EventBackpressure(InboundClientOption option) {
+        this.highWatermark = option.eventQueueHighWatermark();
+        this.lowWatermark = option.eventQueueLowWatermark() > 0 && option.eventQueueLowWatermark() < highWatermark
+                ? option.eventQueueLowWatermark() : highWatermark / 2;
+        this.hardLimit = option.eventQueueHardLimit() > highWatermark
+                ? option.eventQueueHardLimit() : highWatermark * 2;
+        this.maxLagMillis = option.eventMaxLagMillis();
+        Set<String> names = new HashSet<>(option.sheddableEvents());
+        names.removeAll(NEVER_SHED);
+        this.sheddableEvents = names;
+    }
+
+    /**
+     * Called on the io thread before an event is handed to the listener threads.
+     *
+     * @param event      a {@link link.thingscloud.freeswitch.esl.transport.event.EslEvent} object.
+     * @param remoteAddr address the event was read from
+     * @return false if the event is shed, it must then be released instead of dispatched
+     */
+    boolean admit(EslEvent event, String remoteAddr) {
+        if (highWatermark <= 0) {
+            return true;
+        }
+        if (pending.get() >= highWatermark && isSheddable(event)) {
+            shed.incrementAndGet();
+            return false;
+        }
+        if (pending.incrementAndGet() >= highWatermark && readSuspended.compareAndSet(false, true)) {
+            log.warn("event listeners fall behind, {} events pending, stop reading from [{}]", highWatermark, remoteAddr);
+        }
+        return true;
+    }
+
+    /**
+     * Called on the listener thread before the listeners.
+     *
+     * @param event a {@link link.thingscloud.freeswitch.esl.transport.event.EslEvent} object.
+     * @return false if the event is too late and shed
+     */
+    boolean beforeDispatch(EslEvent event) {
+        if (maxLagMillis <= 0) {
+            return true;
+        }
+        long lag = lagMillis(event);
+        lastLagMillis = lag;
+        if (lag > maxLagMillis && isSheddable(event)) {
+            shed.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Called on the listener thread once an admitted event is dispatched or shed.
+     *
+     * @param remoteAddr address the event was read from
+     * @return true if reading may resume
+     */
+    boolean afterDispatch(String remoteAddr) {
+        if (highWatermark <= 0) {
+            return false;
+        }
+        if (pending.decrementAndGet() <= lowWatermark && readSuspended.compareAndSet(true, false)) {
+            log.info("event listeners caught up, resume reading from [{}]", remoteAddr);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Called on the io thread when an admitted event is dropped before being dispatched.
+     *
+     * @param remoteAddr address the event was read from
+     * @return true if reading may resume
+     */
+    boolean afterDrop(String remoteAddr) {
+        shed.incrementAndGet();
+        return afterDispatch(remoteAddr);
+    }
+
+    /**
+     * <p>pending.</p>
+     *
+     * @return events handed to the listener threads and not dispatched yet
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * <p>shed.</p>
+     *
+     * @return events dropped so far
+     */
+    public long shed() {
+        return shed.get();
+    }
+
+    /**
+     * <p>lastLagMillis.</p>
+     *
+     * @return lag of the last dispatched event, only measured with a maxLagMillis
+     */
+    public long lastLagMillis() {
+        return lastLagMillis;
+    }
+
+    /**
+     * <p>isOverHardLimit.</p>
+     *
+     * @return true while the pending events are at the hard limit, reading stops whatever is awaited
+     */
+    public boolean isOverHardLimit() {
+        return highWatermark > 0 && pending.get() >= hardLimit;
+    }
+
+    /**
+     * <p>isReadSuspended.</p>
+     *
+     * @return true while the listeners are over the high watermark
+     */
+    public boolean isReadSuspended() {
+        return readSuspended.get();
+    }
+
+    private boolean isSheddable(EslEvent event) {
+        return sheddableEvents.contains(event.getEventName());
+    }
+
+    /**
+     * <p>lagMillis.</p>
+     *
+     * @param event a {@link link.thingscloud.freeswitch.esl.transport.event.EslEvent} object.
+     * @return milliseconds since FreeSWITCH fired the event, 0 if unknown
+     */
+    static long lagMillis(EslEvent event) {
+        String timestamp = event.getEventHeader(EslEventHeaderNames.EVENT_DATE_TIMESTAMP);
+        if (timestamp == null) {
+            return 0L;
+        }
+        try {
+            // microseconds
+            return Math.max(0L, System.currentTimeMillis() - Long.parseLong(timestamp) / 1000);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.inbound.handler;
+
+import io.netty.util.concurrent.DefaultEventExecutor;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.PromiseCombiner;
+import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
+import link.thingscloud.freeswitch.esl.transport.event.EslEventHeaderNames;
+import link.thingscloud.freeswitch.esl.util.EslEventUtil;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <p>EventLanes class.</p>
+ * <p>
+ * Single threaded executors the events are dispatched on, the lane of an event is picked from the
+ * hash of its {@code Unique-ID}, or {@code Job-UUID} for BACKGROUND_JOB. The events of a call always
+ * run on the same lane, in the order they were read, while different calls run in parallel on the
+ * other lanes. Events without either header, eg HEARTBEAT, are ordered per event name.
+ *
+ * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
+ * @version 1.0.0
+ */
+public class EventLanes {
+
+    private final EventExecutor[] lanes;
+
+    /**
+     * <p>Constructor for EventLanes.</p>
+     *
+     * @param size          number of lanes
+     * @param threadFactory a {@link java.util.concurrent.ThreadFactory} object.
+     */
+    public EventLanes(int size, ThreadFactory threadFactory) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive : " + size);
+        }
+        lanes = new EventExecutor[size];
+        for (int i = 0; i < size; i++) {
+            lanes[i] = new DefaultEventExecutor(threadFactory);
+        }
+    }
+
+    /**
+     * <p>size.</p>
+     *
+     * @return number of lanes
+     */
+    public int size() {
+        return lanes.length;
+    }
+
+    /**
+     * <p>lane.</p>
+     *
+     * @param event a {@link link.thingscloud.freeswitch.esl.transport.event.EslEvent} object.
+     * @return the lane the event runs on
+     */
+    public Executor lane(EslEvent event) {
+        return lanes[index(orderingKey(event), lanes.length)];
+    }
+
+    /**
+     * Shutdown every lane, the events already queued still run.
+     *
+     * @return future completed once every lane is terminated
+     */
+    public Future<Void> shutdownGracefully() {
+        Promise<Void> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+        PromiseCombiner combiner = new PromiseCombiner(ImmediateEventExecutor.INSTANCE);
+        for (EventExecutor lane : lanes) {
+            combiner.add(lane.shutdownGracefully());
+        }
+        combiner.finish(promise);
+        return promise;
+    }
+
+    static String orderingKey(EslEvent event) {
+        String key = event.getEventHeader(EslEventUtil.UNIQUE_ID);
+        if (key == null) {
+            key = event.getEventHeader(EslEventHeaderNames.JOB_UUID);
+        }
+        return key == null ? event.getEventName() : key;
+    }
+
+    static int index(String key, int size) {
+        if (key == null) {
+            return 0;
+        }
+        int h = key.hashCode();
+        // spread the high bits into the low ones
+        h ^= h >>> 16;
+        return (h & Integer.MAX_VALUE) % size;
+    }
+}
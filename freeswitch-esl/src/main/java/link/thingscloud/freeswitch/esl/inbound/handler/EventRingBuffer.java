@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.inbound.handler;
+
+import link.thingscloud.freeswitch.esl.inbound.option.WaitStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>EventRingBuffer class.</p>
+ * <p>
+ * A pre-allocated multi producer / multi consumer ring between the IO threads of a client and its
+ * listeners. The producers claim a slot without any allocation or lock, the consumers compete for
+ * the published slots, see {@link WaitStrategy} for how they wait when the ring is empty. Each slot
+ * carries a sequence telling whether it is free for the lap of the producers or published for the
+ * lap of the consumers, so the slots are reused lap after lap. A slot carries the element and its
+ * source, eg the connection it was read from, so the consumer needs no per element task.
+ * <p>
+ * {@link #offer(Object, Object)} never blocks : a full ring is reported to the caller, who may ask to
+ * be woken by {@link #whenNotFull(Runnable)} once a consumer frees a slot.
+ *
+ * @param <S> source type
+ * @param <E> element type
+ * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
+ * @version 1.0.0
+ */
+@Slf4j
+public class EventRingBuffer<S, E> {
+
+    private static final int SPIN_TRIES = 100;
+
+    private final Object[] slots;
+    private final Object[] sources;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final BiConsumer<S, E> consumer;
+    private final Thread[] threads;
+    /**
+     * next sequence to consume
+     */
+    private final AtomicLong head = new AtomicLong();
+    /**
+     * next sequence to publish
+     */
+    private final AtomicLong tail = new AtomicLong();
+    private volatile boolean running = true;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+    /**
+     * producers waiting for a free slot
+     */
+    private final Queue<Runnable> notFull = new ConcurrentLinkedQueue<>();
+
+    /**
+     * <p>Constructor for EventRingBuffer.</p>
+     *
+     * @param capacity      slots of the ring, rounded up to a power of two
+     * @param consumers     number of consumer threads
+     * @param waitStrategy  a {@link link.thingscloud.freeswitch.esl.inbound.option.WaitStrategy} object.
+     * @param threadFactory a {@link java.util.concurrent.ThreadFactory} object.
+     * @param consumer      called on a consumer thread for every element, with its source
+     */
+    public EventRingBuffer(int capacity, int consumers, WaitStrategy waitStrategy, ThreadFactory threadFactory, BiConsumer<S, E> consumer) {
+        if (capacity <= 0 || consumers <= 0) {
+            throw new IllegalArgumentException("capacity and consumers must be positive : " + capacity + ", " + consumers);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Object[size];
+        this.sources = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+        this.consumer = consumer;
+        this.threads = new Thread[consumers];
+        for (int i = 0; i < consumers; i++) {
+            threads[i] = threadFactory.newThread(this::consume);
+            threads[i].start();
+        }
+    }
+
+    /**
+     * <p>capacity.</p>
+     *
+     * @return slots of the ring
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Publish an element.
+     *
+     * @param source  source of the element, handed to the consumer with it
+     * @param element a E object.
+     * @return false if the ring is full or shutdown, the element is not published
+     */
+    public boolean offer(S source, E element) {
+        while (running) {
+            long sequence = tail.get();
+            int index = (int) sequence & mask;
+            long free = sequences.get(index);
+            if (free < sequence) {
+                // the consumers are a lap behind
+                return false;
+            }
+            if (free == sequence && tail.compareAndSet(sequence, sequence + 1)) {
+                sources[index] = source;
+                slots[index] = element;
+                sequences.set(index, sequence + 1);
+                if (waiters.get() > 0) {
+                    lock.lock();
+                    try {
+                        notEmpty.signal();
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                return true;
+            }
+            // another producer claimed the slot, try the next one
+        }
+        return false;
+    }
+
+    /**
+     * Run a task on the consumer thread that frees the next slot, once. The ring may be full again when
+     * it runs, and a slot may be freed between a failed offer and this call : offer again after it.
+     *
+     * @param task a {@link java.lang.Runnable} object.
+     */
+    public void whenNotFull(Runnable task) {
+        notFull.add(task);
+    }
+
+    /**
+     * <p>isShutdown.</p>
+     *
+     * @return true once {@link #shutdown()} is called, nothing is published anymore
+     */
+    public boolean isShutdown() {
+        return !running;
+    }
+
+    /**
+     * Stop the consumers once the published elements are consumed.
+     */
+    public void shutdown() {
+        running = false;
+        lock.lock();
+        try {
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        // the waiting producers find the ring shutdown
+        wakeProducers();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void consume() {
+        int idle = 0;
+        while (true) {
+            long sequence = head.get();
+            int index = (int) sequence & mask;
+            long published = sequences.get(index);
+            if (published == sequence + 1) {
+                if (head.compareAndSet(sequence, sequence + 1)) {
+                    S source = (S) sources[index];
+                    E element = (E) slots[index];
+                    sources[index] = null;
+                    slots[index] = null;
+                    // free for the next lap of the producers
+                    sequences.set(index, sequence + slots.length);
+                    idle = 0;
+                    if (!notFull.isEmpty()) {
+                        wakeProducers();
+                    }
+                    try {
+                        consumer.accept(source, element);
+                    } catch (Throwable t) {
+                        log.error("consume ring buffer element failed, cause : ", t);
+                    }
+                }
+            } else if (published < sequence + 1) {
+                if (!running) {
+                    return;
+                }
+                if (!await(++idle)) {
+                    return;
+                }
+            }
+            // otherwise another consumer took the slot, try the next one
+        }
+    }
+
+    private void wakeProducers() {
+        Runnable task;
+        while ((task = notFull.poll()) != null) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.error("wake ring buffer producer failed, cause : ", t);
+            }
+        }
+    }
+
+    private boolean await(int idle) {
+        switch (waitStrategy) {
+            case BUSY_SPIN:
+                return true;
+            case YIELD:
+                if (idle > SPIN_TRIES) {
+                    Thread.yield();
+                }
+                return true;
+            default:
+                if (idle <= SPIN_TRIES) {
+                    return true;
+                }
+                lock.lock();
+                waiters.incrementAndGet();
+                try {
+                    while (isEmpty() && running) {
+                        notEmpty.await();
+                    }
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                } finally {
+                    waiters.decrementAndGet();
+                    lock.unlock();
+                }
+        }
+    }
+
+    private boolean isEmpty() {
+        long sequence = head.get();
+        return sequences.get((int) sequence & mask) < sequence + 1;
+    }
+}
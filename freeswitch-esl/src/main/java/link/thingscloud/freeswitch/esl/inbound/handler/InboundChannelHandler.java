@@ -23,25 +23,52 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.timeout.IdleState;
 import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.AttributeKey;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import link.thingscloud.freeswitch.esl.constant.EslConstant;
+import link.thingscloud.freeswitch.esl.exception.InboundClientException;
+import link.thingscloud.freeswitch.esl.exception.InboundClosedException;
+import link.thingscloud.freeswitch.esl.exception.InboundTimeoutExcetion;
 import link.thingscloud.freeswitch.esl.helper.EslHelper;
 import link.thingscloud.freeswitch.esl.inbound.listener.ChannelEventListener;
+import link.thingscloud.freeswitch.esl.inbound.option.ConnectionRole;
+import link.thingscloud.freeswitch.esl.inbound.option.InFlightPolicy;
+import link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption;
+import link.thingscloud.freeswitch.esl.inbound.option.WaitStrategy;
+import link.thingscloud.freeswitch.esl.transport.BackgroundJobTable;
+import link.thingscloud.freeswitch.esl.transport.EslCommand;
 import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
 import link.thingscloud.freeswitch.esl.transport.message.EslHeaders;
 import link.thingscloud.freeswitch.esl.transport.message.EslMessage;
 import link.thingscloud.freeswitch.esl.util.RemotingUtil;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * <p>InboundChannelHandler class.</p>
+ * <p>
+ * Commands are written and their futures queued on the channel's event loop, so the FIFO order of the
+ * queue is the order of the replies, without any lock. Replies complete the futures straight from the
+ * read path. Many commands are pipelined on the socket, up to the in-flight window, beyond it the
+ * {@link InFlightPolicy} either fails the command or queues it until a reply frees the window.
+ * <p>
+ * Command deadlines and bgapi job deadlines run on the client's shared {@link Timer} wheel, no thread
+ * waits for them. When the connection closes or breaks, every pending command and job fails at once
+ * with an {@link InboundClosedException}.
  *
  * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
  * @version 1.0.0
@@ -49,17 +76,48 @@ import java.util.concurrent.locks.ReentrantLock;
 @Slf4j
 public class InboundChannelHandler extends SimpleChannelInboundHandler<EslMessage> {
 
-    private static final String MESSAGE_TERMINATOR = "\n\n";
-    private static final String LINE_TERMINATOR = "\n";
+    /**
+     * role of the connection, set on the bootstrap of the command connections
+     */
+    public static final AttributeKey<ConnectionRole> CONNECTION_ROLE = AttributeKey.valueOf("eslConnectionRole");
 
-    private final Lock syncLock = new ReentrantLock();
-    private final Queue<SyncCallback> syncCallbacks = new ConcurrentLinkedQueue<>();
+    /**
+     * only touched on the event loop
+     */
+    private final Queue<CompletableFuture<EslMessage>> pendingCommands = new ArrayDeque<>();
+    /**
+     * commands waiting for the in-flight window, only touched on the event loop
+     */
+    private final Queue<QueuedCommand> queuedCommands = new ArrayDeque<>();
     private final ChannelEventListener listener;
     private final ExecutorService publicExecutor;
     private final boolean disablePublicExecutor;
+    private final EventLanes eventLanes;
+    private final EventRingBuffer<InboundChannelHandler, EslEvent> eventRing;
+    /**
+     * events waiting for room in the ring, in order, only touched on the event loop, bounded by the ring capacity
+     */
+    private final Queue<EslEvent> ringOverflow = new ArrayDeque<>();
+    private final AtomicBoolean ringDrainWaiting = new AtomicBoolean();
+    private final Runnable ringDrain = () -> {
+        ringDrainWaiting.set(false);
+        this.channel.eventLoop().execute(this::drainRingOverflow);
+    };
+    private final EventBackpressure backpressure;
+    private final int maxInFlightCommands;
+    private final InFlightPolicy inFlightPolicy;
+    private final long inFlightQueueTimeoutMillis;
+    private final long commandTimeoutMillis;
+    private final Timer timer;
+    private final BackgroundJobTable backgroundJobs;
+    /**
+     * commands sent and not completed yet, read by the routing of the command connections
+     */
+    private final AtomicInteger inFlightCommands = new AtomicInteger();
     private final boolean isTraceEnabled = log.isTraceEnabled();
     private Channel channel;
     private String remoteAddr;
+    private ConnectionRole role = ConnectionRole.EVENT;
 
     /**
      * <p>Constructor for InboundChannelHandler.</p>
@@ -69,9 +127,48 @@ public class InboundChannelHandler extends SimpleChannelInboundHandler<EslMessag
      * @param disablePublicExecutor a boolean.
      */
     public InboundChannelHandler(ChannelEventListener listener, ExecutorService publicExecutor, boolean disablePublicExecutor) {
+        this(listener, publicExecutor, new InboundClientOption().disablePublicExecutor(disablePublicExecutor), null);
+    }
+
+    /**
+     * <p>Constructor for InboundChannelHandler.</p>
+     *
+     * @param listener       a {@link link.thingscloud.freeswitch.esl.inbound.listener.ChannelEventListener} object.
+     * @param publicExecutor a {@link java.util.concurrent.ExecutorService} object.
+     * @param option         a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     * @param timer          timer wheel shared by the connections of the client, null for no deadlines
+     */
+    public InboundChannelHandler(ChannelEventListener listener, ExecutorService publicExecutor, InboundClientOption option, Timer timer) {
+        this(listener, publicExecutor, null, null, option, timer);
+    }
+
+    /**
+     * <p>Constructor for InboundChannelHandler.</p>
+     *
+     * @param listener       a {@link link.thingscloud.freeswitch.esl.inbound.listener.ChannelEventListener} object.
+     * @param publicExecutor a {@link java.util.concurrent.ExecutorService} object.
+     * @param eventLanes     ordered lanes the events are dispatched on, null to dispatch them on the public executor
+     * @param eventRing      ring of the client the events are dispatched through, see {@link #newEventRing}, null to use the lanes or the public executor
+     * @param option         a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     * @param timer          timer wheel shared by the connections of the client, null for no deadlines
+     */
+    public InboundChannelHandler(ChannelEventListener listener, ExecutorService publicExecutor, EventLanes eventLanes,
+                                 EventRingBuffer<InboundChannelHandler, EslEvent> eventRing, InboundClientOption option, Timer timer) {
+        if (eventLanes != null && eventRing != null) {
+            throw new IllegalArgumentException("events are dispatched either on lanes or through a ring buffer, not both");
+        }
         this.listener = listener;
         this.publicExecutor = publicExecutor;
-        this.disablePublicExecutor = disablePublicExecutor;
+        this.eventLanes = eventLanes;
+        this.eventRing = eventRing;
+        this.backpressure = new EventBackpressure(option);
+        this.disablePublicExecutor = option.disablePublicExecutor();
+        this.maxInFlightCommands = option.maxInFlightCommands();
+        this.inFlightPolicy = option.inFlightPolicy();
+        this.inFlightQueueTimeoutMillis = timer == null ? 0L : option.inFlightQueueTimeoutMillis();
+        this.commandTimeoutMillis = TimeUnit.SECONDS.toMillis(option.commandTimeoutSeconds());
+        this.timer = timer;
+        this.backgroundJobs = new BackgroundJobTable(timer, TimeUnit.SECONDS.toMillis(option.backgroundJobTimeoutSeconds()));
     }
 
     /**
@@ -82,7 +179,10 @@ public class InboundChannelHandler extends SimpleChannelInboundHandler<EslMessag
         super.channelActive(ctx);
         this.channel = ctx.channel();
         this.remoteAddr = RemotingUtil.socketAddress2String(channel.remoteAddress());
-        log.debug("channelActive remoteAddr : {}", remoteAddr);
+        if (channel.hasAttr(CONNECTION_ROLE)) {
+            this.role = channel.attr(CONNECTION_ROLE).get();
+        }
+        log.debug("channelActive remoteAddr : {}, role : {}", remoteAddr, role);
         listener.onChannelActive(remoteAddr, this);
     }
 
@@ -93,7 +193,8 @@ public class InboundChannelHandler extends SimpleChannelInboundHandler<EslMessag
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
         super.channelInactive(ctx);
         log.debug("channelInactive remoteAddr : {}", remoteAddr);
-        listener.onChannelClosed(remoteAddr);
+        failPending(new InboundClosedException("inbound channel is closed, remoteAddr : " + remoteAddr));
+        listener.onChannelClosed(remoteAddr, this);
     }
 
     /**
@@ -104,7 +205,7 @@ public class InboundChannelHandler extends SimpleChannelInboundHandler<EslMessag
         if (evt instanceof IdleStateEvent) {
             if (((IdleStateEvent) evt).state() == IdleState.READER_IDLE) {
                 log.debug("userEventTriggered remoteAddr : {}, evt state : {} ", remoteAddr, ((IdleStateEvent) evt).state());
-                publicExecutor.execute(() -> sendAsyncCommand("bgapi status"));
+                sendBackgroundCommand(EslCommand.bgapi("status", null));
             }
         }
     }
@@ -115,6 +216,9 @@ public class InboundChannelHandler extends SimpleChannelInboundHandler<EslMessag
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
         log.error("exceptionCaught remoteAddr : {}, cause : ", remoteAddr, cause);
+        // replies can no longer be matched to their commands
+        failPending(new InboundClosedException("inbound channel is broken, remoteAddr : " + remoteAddr, cause));
+        ctx.close();
     }
 
     /**
@@ -127,12 +231,20 @@ public class InboundChannelHandler extends SimpleChannelInboundHandler<EslMessag
         }
         String contentType = msg.getContentType();
         if (contentType.equals(EslHeaders.Value.TEXT_EVENT_PLAIN) ||
-                contentType.equals(EslHeaders.Value.TEXT_EVENT_XML)) {
+                contentType.equals(EslHeaders.Value.TEXT_EVENT_XML) ||
+                contentType.equals(EslHeaders.Value.TEXT_EVENT_JSON)) {
             //  transform into an event
-            EslEvent eslEvent = new EslEvent(msg);
+            EslEvent eslEvent;
+            try {
+                eslEvent = EslEvent.valueOf(msg);
+            } finally {
+                // a pooled event holds its own reference to the message
+                msg.release();
+            }
             handleEslEvent(eslEvent);
         } else {
-            handleEslMessage(msg);
+            // replies are handed over to the command callers, which do not release them
+            handleEslMessage(msg.detach());
         }
     }
 
@@ -142,11 +254,11 @@ public class InboundChannelHandler extends SimpleChannelInboundHandler<EslMessag
         switch (contentType) {
             case EslHeaders.Value.API_RESPONSE:
                 log.debug("Api response received [{}]", message);
-                Objects.requireNonNull(syncCallbacks.poll()).handle(message);
+                completeCommand(message);
                 break;
             case EslHeaders.Value.COMMAND_REPLY:
                 log.debug("Command reply received [{}]", message);
-                Objects.requireNonNull(syncCallbacks.poll()).handle(message);
+                completeCommand(message);
                 break;
             case EslHeaders.Value.AUTH_REQUEST:
                 log.debug("Auth request received [{}]", message);
@@ -162,94 +274,464 @@ public class InboundChannelHandler extends SimpleChannelInboundHandler<EslMessag
         }
     }
 
+    private void completeCommand(EslMessage message) {
+        CompletableFuture<EslMessage> future = pendingCommands.poll();
+        if (future == null) {
+            log.warn("Unexpected reply without pending command, remoteAddr : {}, message : [{}]", remoteAddr, message);
+            return;
+        }
+        future.complete(message);
+        drainQueuedCommands();
+        if (isReadThrottled()) {
+            updateAutoRead();
+        }
+    }
+
     private void handleEslEvent(EslEvent event) {
+        if (EslConstant.BACKGROUND_JOB.equals(event.getEventName())) {
+            // bgapi futures take a detached event, the listeners still see it
+            backgroundJobs.complete(event);
+        }
         if (disablePublicExecutor) {
-            listener.handleEslEvent(remoteAddr, event);
+            dispatchEslEvent(event);
+            return;
+        }
+        if (!backpressure.admit(event, remoteAddr)) {
+            event.release();
+            return;
+        }
+        if (backpressure.isReadSuspended()) {
+            updateAutoRead();
+        }
+        if (eventRing != null) {
+            publish(event);
+            return;
+        }
+        if (eventLanes != null) {
+            // the events of a call keep their order
+            eventLanes.lane(event).execute(() -> dispatchQueuedEslEvent(event));
         } else {
-            publicExecutor.execute(() -> listener.handleEslEvent(remoteAddr, event));
+            publicExecutor.execute(() -> dispatchQueuedEslEvent(event));
         }
     }
 
     /**
-     * Synthesise a synchronous command/response by creating a callback object which is placed in
-     * queue and blocks waiting for another IO thread to process an incoming {@link link.thingscloud.freeswitch.esl.transport.message.EslMessage} and
-     * attach it to the callback.
+     * The ring shared by the connections of a client, its slots carry the events and the handler they
+     * are dispatched by.
      *
-     * @param command single string to send
-     * @return the {@link link.thingscloud.freeswitch.esl.transport.message.EslMessage} attached to this command's callback
+     * @param capacity      slots of the ring
+     * @param consumers     number of consumer threads
+     * @param waitStrategy  a {@link link.thingscloud.freeswitch.esl.inbound.option.WaitStrategy} object.
+     * @param threadFactory a {@link java.util.concurrent.ThreadFactory} object.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.handler.EventRingBuffer} object.
      */
-    public EslMessage sendSyncSingleLineCommand(final String command) {
-        if (isTraceEnabled) {
-            log.trace("sendSyncSingleLineCommand command : {}", command);
+    public static EventRingBuffer<InboundChannelHandler, EslEvent> newEventRing(int capacity, int consumers, WaitStrategy waitStrategy,
+                                                                               ThreadFactory threadFactory) {
+        return new EventRingBuffer<>(capacity, consumers, waitStrategy, threadFactory, InboundChannelHandler::dispatchRingEvent);
+    }
+
+    /**
+     * A full ring never blocks the io thread, listeners may wait for replies read by it : the event waits
+     * in order with the ones read after it and reading stops, the consumer freeing a slot wakes the drain.
+     * Once a ring capacity of events waits, the events still read are dropped.
+     */
+    private void publish(EslEvent event) {
+        if (ringOverflow.isEmpty() && eventRing.offer(this, event)) {
+            return;
         }
-        SyncCallback callback = new SyncCallback();
-        syncLock.lock();
+        if (ringOverflow.size() >= eventRing.capacity()) {
+            log.error("event ring overflow of {} events, drop [{}] read from [{}]", ringOverflow.size(), event.getEventName(), remoteAddr);
+            event.release();
+            backpressure.afterDrop(remoteAddr);
+            return;
+        }
+        ringOverflow.add(event);
+        if (ringOverflow.size() == 1) {
+            updateAutoRead();
+            drainRingOverflow();
+        } else if (ringOverflow.size() == eventRing.capacity()) {
+            updateAutoRead();
+        }
+    }
+
+    private void drainRingOverflow() {
+        EslEvent event;
+        while ((event = ringOverflow.peek()) != null) {
+            if (!eventRing.offer(this, event)) {
+                if (eventRing.isShutdown()) {
+                    // the client is shutting down
+                    event.release();
+                    backpressure.afterDrop(remoteAddr);
+                    ringOverflow.poll();
+                    continue;
+                }
+                if (ringDrainWaiting.compareAndSet(false, true)) {
+                    eventRing.whenNotFull(ringDrain);
+                }
+                // a slot freed before the wake up was registered
+                if (!eventRing.offer(this, event)) {
+                    return;
+                }
+            }
+            ringOverflow.poll();
+        }
+        updateAutoRead();
+    }
+
+    private static void dispatchRingEvent(InboundChannelHandler handler, EslEvent event) {
+        handler.dispatchQueuedEslEvent(event);
+    }
+
+    private void dispatchQueuedEslEvent(EslEvent event) {
         try {
-            syncCallbacks.add(callback);
-            channel.writeAndFlush(command + MESSAGE_TERMINATOR);
+            if (backpressure.beforeDispatch(event)) {
+                dispatchEslEvent(event);
+            } else {
+                event.release();
+            }
         } finally {
-            syncLock.unlock();
+            if (backpressure.afterDispatch(remoteAddr)) {
+                // applied on the io thread, so that the last toggle always matches the state
+                channel.eventLoop().execute(this::updateAutoRead);
+            }
         }
+    }
 
-        //  Block until the response is available
-        return callback.get();
+    private boolean isReadThrottled() {
+        return backpressure.isReadSuspended() || !ringOverflow.isEmpty();
     }
 
     /**
-     * Synthesise a synchronous command/response by creating a callback object which is placed in
-     * queue and blocks waiting for another IO thread to process an incoming {@link link.thingscloud.freeswitch.esl.transport.message.EslMessage} and
-     * attach it to the callback.
-     *
-     * @param commandLines List of command lines to send
-     * @return the {@link link.thingscloud.freeswitch.esl.transport.message.EslMessage} attached to this command's callback
+     * Stop reading while the listeners are over the high watermark or the ring is full, unless replies are
+     * awaited on this connection : a listener may be blocked on one of them, it would never be read. At the
+     * hard limit, or with a ring capacity of events waiting for the ring, reading stops whatever is awaited.
      */
-    public EslMessage sendSyncMultiLineCommand(final List<String> commandLines) {
-        SyncCallback callback = new SyncCallback();
-        //  Build command with double line terminator at the end
-        StringBuilder sb = new StringBuilder();
-        for (String line : commandLines) {
-            sb.append(line);
-            sb.append(LINE_TERMINATOR);
-        }
-        sb.append(LINE_TERMINATOR);
-        if (isTraceEnabled) {
-            log.trace("sendSyncMultiLineCommand command : {}", sb.toString());
+    private void updateAutoRead() {
+        boolean autoRead = !isReadThrottled()
+                || (inFlightCommands.get() > 0 || backgroundJobs.size() > 0) && !backpressure.isOverHardLimit()
+                && (eventRing == null || ringOverflow.size() < eventRing.capacity());
+        if (channel.config().isAutoRead() != autoRead) {
+            channel.config().setAutoRead(autoRead);
         }
-        syncLock.lock();
+    }
+
+    private void dispatchEslEvent(EslEvent event) {
         try {
-            syncCallbacks.add(callback);
-            channel.writeAndFlush(sb.toString());
+            listener.handleEslEvent(remoteAddr, event);
         } finally {
-            syncLock.unlock();
+            // listeners keeping a pooled event have retained it
+            event.release();
         }
+    }
 
-        //  Block until the response is available
-        return callback.get();
+    /**
+     * Send a command without holding the calling thread, the returned future is completed from the
+     * IO thread when FreeSWITCH replies. Dependent stages should use the {@code *Async} variants for
+     * any work heavier than a hand-off.
+     *
+     * @param command an {@link EslCommand}, {@link link.thingscloud.freeswitch.esl.transport.SendMsg}, {@link link.thingscloud.freeswitch.esl.transport.SendEvent} or command lines
+     * @return the future {@link link.thingscloud.freeswitch.esl.transport.message.EslMessage} replied to this command
+     */
+    public CompletableFuture<EslMessage> sendCommand(final Object command) {
+        return sendCommand(command, commandTimeoutMillis);
     }
 
     /**
-     * Returns the Job UUID of that the response event will have.
+     * Send a command without holding the calling thread, failing it with an
+     * {@link InboundTimeoutExcetion} if FreeSWITCH does not reply within the deadline. A late reply
+     * still takes the command's place in the reply order and is dropped.
      *
-     * @param command cmd
-     * @return Job-UUID as a string
+     * @param command       an {@link EslCommand}, {@link link.thingscloud.freeswitch.esl.transport.SendMsg}, {@link link.thingscloud.freeswitch.esl.transport.SendEvent} or command lines
+     * @param timeoutMillis deadline of the reply, 0 for none
+     * @return the future {@link link.thingscloud.freeswitch.esl.transport.message.EslMessage} replied to this command
      */
-    public String sendAsyncCommand(final String command) {
-        /*
-         * Send synchronously to get the Job-UUID to return, the results of the actual
-         * job request will be returned by the server as an async event.
-         */
-        EslMessage response = sendSyncSingleLineCommand(command);
+    public CompletableFuture<EslMessage> sendCommand(final Object command, final long timeoutMillis) {
+        if (isTraceEnabled) {
+            log.trace("sendCommand command : {}, timeoutMillis : {}", command, timeoutMillis);
+        }
+        CompletableFuture<EslMessage> future = newCommandFuture(command, timeoutMillis);
+        submitCommand(command, future);
+        return future;
+    }
+
+    // stages attached to the future before this call run on the IO thread completing the reply
+    private void submitCommand(Object command, CompletableFuture<EslMessage> future) {
+        if (channel.eventLoop().inEventLoop()) {
+            writeCommand(command, future, true);
+        } else {
+            try {
+                channel.eventLoop().execute(() -> writeCommand(command, future, true));
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(new InboundClosedException("inbound channel is shutting down, remoteAddr : " + remoteAddr, e));
+            }
+        }
+    }
+
+    /**
+     * Send several commands in one event loop task and one flush, their replies complete the
+     * returned futures in the order of the commands. Each command gets its own future, so one failed
+     * or timed out command does not fail the others.
+     *
+     * @param commands {@link EslCommand}, {@link link.thingscloud.freeswitch.esl.transport.SendMsg}, {@link link.thingscloud.freeswitch.esl.transport.SendEvent} or command lines
+     * @return the future replies, in the order of the commands
+     */
+    public List<CompletableFuture<EslMessage>> sendCommands(final List<?> commands) {
+        if (isTraceEnabled) {
+            log.trace("sendCommands commands : {}", commands);
+        }
+        List<CompletableFuture<EslMessage>> futures = new ArrayList<>(commands.size());
+        for (Object command : commands) {
+            futures.add(newCommandFuture(command, commandTimeoutMillis));
+        }
+        if (channel.eventLoop().inEventLoop()) {
+            writeCommands(commands, futures);
+        } else {
+            try {
+                channel.eventLoop().execute(() -> writeCommands(commands, futures));
+            } catch (RejectedExecutionException e) {
+                InboundClosedException cause = new InboundClosedException("inbound channel is shutting down, remoteAddr : " + remoteAddr, e);
+                futures.forEach(future -> future.completeExceptionally(cause));
+            }
+        }
+        return futures;
+    }
+
+    private CompletableFuture<EslMessage> newCommandFuture(Object command, long timeoutMillis) {
+        CompletableFuture<EslMessage> future = new CompletableFuture<>();
+        inFlightCommands.incrementAndGet();
+        future.whenComplete((response, cause) -> inFlightCommands.decrementAndGet());
+        if (timeoutMillis > 0 && timer != null) {
+            deadline(future, timeoutMillis, () -> new InboundTimeoutExcetion("no reply to [" + command + "] within "
+                    + timeoutMillis + "ms, remoteAddr : " + remoteAddr));
+        }
+        return future;
+    }
+
+    private void writeCommands(List<?> commands, List<CompletableFuture<EslMessage>> futures) {
+        boolean written = false;
+        for (int i = 0; i < commands.size(); i++) {
+            written |= writeCommand(commands.get(i), futures.get(i), false);
+        }
+        if (written) {
+            channel.flush();
+        }
+    }
+
+    // true if the command went to the channel, false if it failed or waits for the in-flight window
+    private boolean writeCommand(Object command, CompletableFuture<EslMessage> future, boolean flush) {
+        if (!channel.isActive()) {
+            future.completeExceptionally(new InboundClosedException("inbound channel is inactive, remoteAddr : " + remoteAddr));
+            return false;
+        }
+        if (isReadThrottled()) {
+            // the reply must be read
+            updateAutoRead();
+        }
+        if (maxInFlightCommands > 0 && (pendingCommands.size() >= maxInFlightCommands || !queuedCommands.isEmpty())) {
+            if (inFlightPolicy == InFlightPolicy.FAIL_FAST) {
+                future.completeExceptionally(new InboundClientException("in-flight window of " + maxInFlightCommands
+                        + " commands is full, remoteAddr : " + remoteAddr));
+            } else {
+                queueCommand(command, future);
+            }
+            return false;
+        }
+        doWriteCommand(command, future, flush);
+        return true;
+    }
+
+    private void doWriteCommand(Object command, CompletableFuture<EslMessage> future, boolean flush) {
+        pendingCommands.add(future);
+        (flush ? channel.writeAndFlush(command) : channel.write(command)).addListener(f -> {
+            if (!f.isSuccess()) {
+                // no reply will ever come for it
+                pendingCommands.remove(future);
+                future.completeExceptionally(f.cause());
+                drainQueuedCommands();
+            }
+        });
+    }
+
+    private void queueCommand(Object command, CompletableFuture<EslMessage> future) {
+        QueuedCommand queued = new QueuedCommand(command, future);
+        queuedCommands.add(queued);
+        if (inFlightQueueTimeoutMillis > 0) {
+            // fails the future only, the drain skips it
+            queued.timeout = timer.newTimeout(timeout -> future.completeExceptionally(new InboundTimeoutExcetion("command waited "
+                    + inFlightQueueTimeoutMillis + "ms for the in-flight window, remoteAddr : " + remoteAddr)),
+                    inFlightQueueTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drainQueuedCommands() {
+        boolean written = false;
+        while (!queuedCommands.isEmpty() && pendingCommands.size() < maxInFlightCommands) {
+            QueuedCommand queued = queuedCommands.poll();
+            if (queued.timeout != null) {
+                queued.timeout.cancel();
+            }
+            // skip commands timed out or cancelled by their caller while queued
+            if (!queued.future.isDone()) {
+                doWriteCommand(queued.command, queued.future, false);
+                written = true;
+            }
+        }
+        if (written) {
+            channel.flush();
+        }
+    }
+
+    private void failPending(InboundClientException cause) {
+        CompletableFuture<EslMessage> future;
+        while ((future = pendingCommands.poll()) != null) {
+            future.completeExceptionally(cause);
+        }
+        QueuedCommand queued;
+        while ((queued = queuedCommands.poll()) != null) {
+            if (queued.timeout != null) {
+                queued.timeout.cancel();
+            }
+            queued.future.completeExceptionally(cause);
+        }
+        backgroundJobs.failAll(cause);
+    }
+
+    private void deadline(CompletableFuture<?> future, long timeoutMillis, Supplier<InboundClientException> cause) {
+        Timeout timeout = timer.newTimeout(t -> future.completeExceptionally(cause.get()), timeoutMillis, TimeUnit.MILLISECONDS);
+        future.whenComplete((result, throwable) -> timeout.cancel());
+    }
+
+    /**
+     * Send a bgapi command without holding the calling thread.
+     *
+     * @param command a bgapi {@link EslCommand}
+     * @return the future Job-UUID of the command
+     */
+    public CompletableFuture<String> sendBackgroundCommand(final EslCommand command) {
+        return sendCommand(command).thenApply(response -> jobUuid(command, response));
+    }
+
+    /**
+     * Send a bgapi command without holding the calling thread, the future is completed with the
+     * BACKGROUND_JOB event of the job. The job is registered by the IO thread completing the reply,
+     * before its event can be read on this connection.
+     *
+     * @param command a bgapi {@link EslCommand}
+     * @return the future BACKGROUND_JOB event
+     */
+    public CompletableFuture<EslEvent> sendBackgroundJobCommand(final EslCommand command) {
+        CompletableFuture<EslMessage> future = newCommandFuture(command, commandTimeoutMillis);
+        // attached before the write, a stage attached to a completed future would run on this thread
+        CompletableFuture<EslEvent> job = future.thenApply(response -> jobUuid(command, response))
+                .thenCompose(backgroundJobs::register);
+        submitCommand(command, future);
+        return job;
+    }
+
+    private String jobUuid(EslCommand command, EslMessage response) {
         if (isTraceEnabled) {
-            log.trace("sendAsyncCommand command : {}, response : {}", command, response);
+            log.trace("sendBackgroundCommand command : {}, response : {}", command, response);
         }
         if (response.hasHeader(EslHeaders.Name.JOB_UUID)) {
             return response.getHeaderValue(EslHeaders.Name.JOB_UUID);
         } else {
-            log.warn("sendAsyncCommand command : {}, response : {}", command, EslHelper.formatEslMessage(response));
+            log.warn("sendBackgroundCommand command : {}, response : {}", command, EslHelper.formatEslMessage(response));
             throw new IllegalStateException("Missing Job-UUID header in bgapi response");
         }
     }
 
+    /**
+     * Send a single line command and block until FreeSWITCH replies.
+     *
+     * @param command single string to send
+     * @return the {@link link.thingscloud.freeswitch.esl.transport.message.EslMessage} replied to this command
+     */
+    public EslMessage sendSyncSingleLineCommand(final String command) {
+        return sendSyncCommand(EslCommand.line(command));
+    }
+
+    /**
+     * Send a command and block until FreeSWITCH replies.
+     *
+     * @param command an {@link EslCommand}, {@link link.thingscloud.freeswitch.esl.transport.SendMsg} or {@link link.thingscloud.freeswitch.esl.transport.SendEvent}
+     * @return the {@link link.thingscloud.freeswitch.esl.transport.message.EslMessage} replied to this command
+     */
+    public EslMessage sendSyncCommand(final Object command) {
+        return await(sendCommand(command));
+    }
+
+    /**
+     * Send a multi line command and block until FreeSWITCH replies.
+     *
+     * @param commandLines List of command lines to send
+     * @return the {@link link.thingscloud.freeswitch.esl.transport.message.EslMessage} replied to this command
+     */
+    public EslMessage sendSyncMultiLineCommand(final List<String> commandLines) {
+        // the encoder terminates every line and appends the blank line
+        return sendSyncCommand(commandLines);
+    }
+
+    /**
+     * Returns the Job UUID of that the response event will have.
+     *
+     * @param command cmd
+     * @return Job-UUID as a string
+     */
+    public String sendAsyncCommand(final String command) {
+        return sendAsyncCommand(EslCommand.line(command));
+    }
+
+    /**
+     * Returns the Job UUID of that the response event will have.
+     *
+     * @param command a bgapi {@link EslCommand}
+     * @return Job-UUID as a string
+     */
+    public String sendAsyncCommand(final EslCommand command) {
+        /*
+         * Wait for the Job-UUID to return, the results of the actual
+         * job request will be returned by the server as an async event.
+         */
+        return await(sendBackgroundCommand(command));
+    }
+
+    /**
+     * <p>channel.</p>
+     *
+     * @return a {@link io.netty.channel.Channel} object, null before the channel is active
+     */
+    public Channel channel() {
+        return channel;
+    }
+
+    /**
+     * <p>role.</p>
+     *
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.ConnectionRole} object.
+     */
+    public ConnectionRole role() {
+        return role;
+    }
+
+    /**
+     * <p>backpressure.</p>
+     *
+     * @return the pending, shed and lag figures of the events of this connection
+     */
+    public EventBackpressure backpressure() {
+        return backpressure;
+    }
+
+    /**
+     * Commands sent on this connection and not completed yet, including the ones waiting for the
+     * in-flight window.
+     *
+     * @return a int.
+     */
+    public int inFlightCommands() {
+        return inFlightCommands.get();
+    }
+
     /**
      * <p>close.</p>
      *
@@ -259,39 +741,28 @@ public class InboundChannelHandler extends SimpleChannelInboundHandler<EslMessag
         return channel.close();
     }
 
-    class SyncCallback {
-        private final CountDownLatch latch = new CountDownLatch(1);
-        private EslMessage response;
-
-        /**
-         * Block waiting for the countdown latch to be released, then return the
-         * associated response object.
-         *
-         * @return msg
-         */
-        EslMessage get() {
-            try {
-                log.trace("awaiting latch ... ");
-                latch.await();
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+    private static class QueuedCommand {
+        private final Object command;
+        private final CompletableFuture<EslMessage> future;
+        private Timeout timeout;
 
-            log.trace("returning response [{}]", response);
-            return response;
+        QueuedCommand(Object command, CompletableFuture<EslMessage> future) {
+            this.command = command;
+            this.future = future;
         }
+    }
 
-        /**
-         * Attach this response to the callback and release the countdown latch.
-         *
-         * @param response res
-         */
-        void handle(EslMessage response) {
-            this.response = response;
-            log.trace("releasing latch for response [{}]", response);
-            latch.countDown();
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InboundClientException("interrupted while waiting for reply, remoteAddr : " + remoteAddr, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new InboundClientException(e.getCause());
         }
     }
-
-
 }
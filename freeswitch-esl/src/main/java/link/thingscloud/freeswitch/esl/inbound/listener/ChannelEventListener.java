@@ -39,9 +39,10 @@ public interface ChannelEventListener {
     /**
      * <p>onChannelClosed.</p>
      *
-     * @param remoteAddr a {@link java.lang.String} object.
+     * @param remoteAddr            a {@link java.lang.String} object.
+     * @param inboundChannelHandler a {@link link.thingscloud.freeswitch.esl.inbound.handler.InboundChannelHandler} object.
      */
-    void onChannelClosed(String remoteAddr);
+    void onChannelClosed(String remoteAddr, InboundChannelHandler inboundChannelHandler);
 
     /**
      * <p>handleAuthRequest.</p>
@@ -19,13 +19,19 @@ package link.thingscloud.freeswitch.esl.inbound.option;
 
 import link.thingscloud.freeswitch.esl.IEslEventListener;
 import link.thingscloud.freeswitch.esl.ServerConnectionListener;
+import link.thingscloud.freeswitch.esl.constant.EslConstant;
+import link.thingscloud.freeswitch.esl.constant.EventNames;
 import link.thingscloud.freeswitch.esl.inbound.listener.EventListener;
 import link.thingscloud.freeswitch.esl.inbound.listener.ServerOptionListener;
+import link.thingscloud.freeswitch.esl.transport.event.EventHeaderProjection;
 import link.thingscloud.freeswitch.esl.util.StringUtils;
 import lombok.ToString;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * <p>InboundClientOption class.</p>
@@ -40,6 +46,9 @@ public class InboundClientOption {
     private final ServerAddrOption serverAddrOption = new ServerAddrOption(serverOptions);
     private final List<IEslEventListener> listeners = new ArrayList<>();
     private final List<String> events = new ArrayList<>();
+    private final Set<String> sheddableEvents = new LinkedHashSet<>(Arrays.asList(
+            EventNames.HEARTBEAT, EventNames.RE_SCHEDULE, EventNames.PRESENCE_IN));
+    private final EventHeaderProjection headerProjection = new EventHeaderProjection();
     private int sndBufSize = 65535;
     private int rcvBufSize = 65535;
     private int workerGroupThread = Runtime.getRuntime().availableProcessors() * 2;
@@ -50,6 +59,31 @@ public class InboundClientOption {
     private int readTimeoutSeconds = 30;
     private int readerIdleTimeSeconds = 25;
     private boolean disablePublicExecutor = false;
+    private boolean virtualThreads = false;
+    private int eventDispatchLanes = 0;
+    private int eventRingBufferSize = 0;
+    private int eventRingBufferConsumers = 1;
+    private WaitStrategy eventRingBufferWaitStrategy = WaitStrategy.BLOCKING;
+    private int eventQueueHighWatermark = 0;
+    private int eventQueueLowWatermark = 0;
+    private int eventQueueHardLimit = 0;
+    private long eventMaxLagMillis = 0;
+    private boolean zeroCopyDecoder = false;
+    private boolean pooledMessages = false;
+    private int backgroundJobTimeoutSeconds = 300;
+    private int commandTimeoutSeconds = 0;
+    private int commandConnections = 0;
+    private long reconnectBackoffBaseMillis = 1000;
+    private long reconnectBackoffMaxMillis = 0;
+    private int maxConcurrentConnects = 0;
+    private long startStaggerMillis = 0;
+    private int maxInFlightCommands = 0;
+    private InFlightPolicy inFlightPolicy = InFlightPolicy.QUEUE;
+    private long inFlightQueueTimeoutMillis = 5000;
+    private boolean nativeTransport = false;
+    private boolean edgeTriggered = true;
+    private boolean tcpQuickAck = false;
+    private String eventFormat = EslConstant.PLAIN;
     private boolean performance = false;
     private long performanceCostTime = 200;
     private boolean eventPerformance = false;
@@ -268,6 +302,636 @@ public class InboundClientOption {
         return this;
     }
 
+    /**
+     * <p>virtualThreads.</p>
+     *
+     * @return a boolean.
+     */
+    public boolean virtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * <p>
+     * run the listeners and the consumer callbacks of the commands on virtual threads, requires Java 21, ignored before.
+     * 监听器与命令回调使用虚拟线程执行，需要 Java 21 及以上，低版本忽略
+     * </p>
+     *
+     * @param virtualThreads a boolean.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption virtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+
+    /**
+     * <p>eventDispatchLanes.</p>
+     *
+     * @return a int.
+     */
+    public int eventDispatchLanes() {
+        return eventDispatchLanes;
+    }
+
+    /**
+     * <p>
+     * single threaded lanes the events are dispatched on by Unique-ID / Job-UUID, the events of a call keep their order, 0 uses the public executor.
+     * 按 Unique-ID / Job-UUID 分配事件的有序线程数，同一通话的事件按序处理，0 表示使用公共线程池
+     * </p>
+     *
+     * @param eventDispatchLanes a int.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption eventDispatchLanes(int eventDispatchLanes) {
+        this.eventDispatchLanes = eventDispatchLanes;
+        return this;
+    }
+
+    /**
+     * <p>eventRingBufferSize.</p>
+     *
+     * @return a int.
+     */
+    public int eventRingBufferSize() {
+        return eventRingBufferSize;
+    }
+
+    /**
+     * <p>
+     * slots of the ring buffer shared by the io threads of the client and the listeners, 0 disables the ring buffer,
+     * it can not be used with eventDispatchLanes, a full ring stops reading until it has room.
+     * 客户端所有连接与监听器之间共享的环形缓冲区大小，0 表示不使用，不能与 eventDispatchLanes 同时使用，缓冲区满时暂停读取
+     * </p>
+     *
+     * @param eventRingBufferSize a int.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption eventRingBufferSize(int eventRingBufferSize) {
+        this.eventRingBufferSize = eventRingBufferSize;
+        return this;
+    }
+
+    /**
+     * <p>eventRingBufferConsumers.</p>
+     *
+     * @return a int.
+     */
+    public int eventRingBufferConsumers() {
+        return eventRingBufferConsumers;
+    }
+
+    /**
+     * <p>
+     * consumer threads of the ring buffer, more than one does not keep the event order.
+     * 环形缓冲区的消费线程数，大于 1 时不保证事件顺序
+     * </p>
+     *
+     * @param eventRingBufferConsumers a int.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption eventRingBufferConsumers(int eventRingBufferConsumers) {
+        this.eventRingBufferConsumers = eventRingBufferConsumers;
+        return this;
+    }
+
+    /**
+     * <p>eventRingBufferWaitStrategy.</p>
+     *
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.WaitStrategy} object.
+     */
+    public WaitStrategy eventRingBufferWaitStrategy() {
+        return eventRingBufferWaitStrategy;
+    }
+
+    /**
+     * <p>
+     * how the ring buffer consumers wait for events, busy spin and yield trade cpu for latency.
+     * 环形缓冲区消费线程的等待策略，忙等与让出以 CPU 换取更低的延迟
+     * </p>
+     *
+     * @param eventRingBufferWaitStrategy a {@link link.thingscloud.freeswitch.esl.inbound.option.WaitStrategy} object.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption eventRingBufferWaitStrategy(WaitStrategy eventRingBufferWaitStrategy) {
+        this.eventRingBufferWaitStrategy = eventRingBufferWaitStrategy;
+        return this;
+    }
+
+    /**
+     * <p>eventQueueHighWatermark.</p>
+     *
+     * @return a int.
+     */
+    public int eventQueueHighWatermark() {
+        return eventQueueHighWatermark;
+    }
+
+    /**
+     * <p>
+     * events of a connection waiting for the listeners before it stops reading and sheds the sheddable events, 0 means unbounded.
+     * 单连接等待处理的事件数上限，达到后暂停读取并丢弃可丢弃事件，0 为不限制
+     * </p>
+     *
+     * @param eventQueueHighWatermark a int.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption eventQueueHighWatermark(int eventQueueHighWatermark) {
+        this.eventQueueHighWatermark = eventQueueHighWatermark;
+        return this;
+    }
+
+    /**
+     * <p>eventQueueLowWatermark.</p>
+     *
+     * @return a int.
+     */
+    public int eventQueueLowWatermark() {
+        return eventQueueLowWatermark;
+    }
+
+    /**
+     * <p>
+     * events of a connection waiting for the listeners under which it reads again, 0 means half the high watermark.
+     * 等待处理的事件数低于该值时恢复读取，0 表示高水位的一半
+     * </p>
+     *
+     * @param eventQueueLowWatermark a int.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption eventQueueLowWatermark(int eventQueueLowWatermark) {
+        this.eventQueueLowWatermark = eventQueueLowWatermark;
+        return this;
+    }
+
+    /**
+     * <p>eventQueueHardLimit.</p>
+     *
+     * @return a int.
+     */
+    public int eventQueueHardLimit() {
+        return eventQueueHardLimit;
+    }
+
+    /**
+     * <p>
+     * events of a connection waiting for the listeners at which it stops reading even while replies are awaited, 0 means twice the high watermark.
+     * 单连接等待处理的事件数硬上限，达到后即使有待回复的命令也暂停读取，0 表示高水位的两倍
+     * </p>
+     *
+     * @param eventQueueHardLimit a int.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption eventQueueHardLimit(int eventQueueHardLimit) {
+        this.eventQueueHardLimit = eventQueueHardLimit;
+        return this;
+    }
+
+    /**
+     * <p>eventMaxLagMillis.</p>
+     *
+     * @return a long.
+     */
+    public long eventMaxLagMillis() {
+        return eventMaxLagMillis;
+    }
+
+    /**
+     * <p>
+     * sheddable events dispatched later than this after their Event-Date-Timestamp are dropped, 0 never drops late events.
+     * 可丢弃事件的最大延迟，按 Event-Date-Timestamp 计算，超过则丢弃，0 表示不丢弃
+     * </p>
+     *
+     * @param eventMaxLagMillis a long.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption eventMaxLagMillis(long eventMaxLagMillis) {
+        this.eventMaxLagMillis = eventMaxLagMillis;
+        return this;
+    }
+
+    /**
+     * <p>sheddableEvents.</p>
+     *
+     * @return a {@link java.util.Set} object.
+     */
+    public Set<String> sheddableEvents() {
+        return sheddableEvents;
+    }
+
+    /**
+     * <p>
+     * events dropped first when the listeners fall behind, BACKGROUND_JOB and CHANNEL_HANGUP_COMPLETE are never dropped.
+     * 监听器处理不过来时优先丢弃的事件，BACKGROUND_JOB 与 CHANNEL_HANGUP_COMPLETE 不会被丢弃
+     * </p>
+     *
+     * @param sheddableEvents event names, replace the default HEARTBEAT, RE_SCHEDULE and PRESENCE_IN
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption sheddableEvents(String... sheddableEvents) {
+        this.sheddableEvents.clear();
+        if (sheddableEvents != null) {
+            this.sheddableEvents.addAll(Arrays.asList(sheddableEvents));
+        }
+        return this;
+    }
+
+    /**
+     * <p>
+     * decode esl frames with {@link link.thingscloud.freeswitch.esl.transport.message.EslZeroCopyFrameDecoder} instead of the replaying one.
+     * 使用零拷贝的帧解码器替代 ReplayingDecoder 实现
+     * </p>
+     *
+     * @return a boolean.
+     */
+    public boolean zeroCopyDecoder() {
+        return zeroCopyDecoder;
+    }
+
+    /**
+     * <p>
+     * decode esl frames with {@link link.thingscloud.freeswitch.esl.transport.message.EslZeroCopyFrameDecoder} instead of the replaying one.
+     * 使用零拷贝的帧解码器替代 ReplayingDecoder 实现
+     * </p>
+     *
+     * @param zeroCopyDecoder a boolean.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption zeroCopyDecoder(boolean zeroCopyDecoder) {
+        this.zeroCopyDecoder = zeroCopyDecoder;
+        return this;
+    }
+
+    /**
+     * <p>pooledMessages.</p>
+     *
+     * @return a boolean.
+     */
+    public boolean pooledMessages() {
+        return pooledMessages;
+    }
+
+    /**
+     * <p>
+     * reuse pooled EslMessage/EslEvent instances, requires the zeroCopyDecoder. Listeners keeping an
+     * event beyond the callback must retain and later release it.
+     * 复用消息与事件对象，需开启 zeroCopyDecoder
+     * </p>
+     *
+     * @param pooledMessages a boolean.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption pooledMessages(boolean pooledMessages) {
+        this.pooledMessages = pooledMessages;
+        return this;
+    }
+
+    /**
+     * <p>maxInFlightCommands.</p>
+     *
+     * @return a int.
+     */
+    public int maxInFlightCommands() {
+        return maxInFlightCommands;
+    }
+
+    /**
+     * <p>
+     * commands pipelined on one connection before the inFlightPolicy applies, 0 means unbounded.
+     * 单连接最大在途命令数，0 为不限制
+     * </p>
+     *
+     * @param maxInFlightCommands a int.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption maxInFlightCommands(int maxInFlightCommands) {
+        this.maxInFlightCommands = maxInFlightCommands;
+        return this;
+    }
+
+    /**
+     * <p>inFlightPolicy.</p>
+     *
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InFlightPolicy} object.
+     */
+    public InFlightPolicy inFlightPolicy() {
+        return inFlightPolicy;
+    }
+
+    /**
+     * <p>
+     * fail fast or queue the command when the in-flight window is full.
+     * 在途窗口已满时立即失败或排队等待
+     * </p>
+     *
+     * @param inFlightPolicy a {@link link.thingscloud.freeswitch.esl.inbound.option.InFlightPolicy} object.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption inFlightPolicy(InFlightPolicy inFlightPolicy) {
+        this.inFlightPolicy = inFlightPolicy;
+        return this;
+    }
+
+    /**
+     * <p>inFlightQueueTimeoutMillis.</p>
+     *
+     * @return a long.
+     */
+    public long inFlightQueueTimeoutMillis() {
+        return inFlightQueueTimeoutMillis;
+    }
+
+    /**
+     * <p>
+     * how long a queued command waits for the in-flight window before it fails.
+     * 排队命令等待在途窗口的最长时间
+     * </p>
+     *
+     * @param inFlightQueueTimeoutMillis a long.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption inFlightQueueTimeoutMillis(long inFlightQueueTimeoutMillis) {
+        this.inFlightQueueTimeoutMillis = inFlightQueueTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * <p>headerProjection.</p>
+     *
+     * @return a {@link link.thingscloud.freeswitch.esl.transport.event.EventHeaderProjection} object.
+     */
+    public EventHeaderProjection headerProjection() {
+        return headerProjection;
+    }
+
+    /**
+     * <p>
+     * keep only these headers of the plain events with this name, requires the zeroCopyDecoder.
+     * 按事件名声明需要的事件头，其余事件头在解码时跳过，需开启 zeroCopyDecoder
+     * </p>
+     *
+     * @param eventName event name, eg CHANNEL_CREATE
+     * @param headers   header names
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption headerProjection(String eventName, String... headers) {
+        headerProjection.add(eventName, headers);
+        return this;
+    }
+
+    /**
+     * <p>eventFormat.</p>
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String eventFormat() {
+        return eventFormat;
+    }
+
+    /**
+     * <p>
+     * format of the event subscriptions, { plain | json | xml }.
+     * 事件订阅格式
+     * </p>
+     *
+     * @param eventFormat a {@link java.lang.String} object.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption eventFormat(String eventFormat) {
+        this.eventFormat = eventFormat;
+        return this;
+    }
+
+    /**
+     * <p>backgroundJobTimeoutSeconds.</p>
+     *
+     * @return a int.
+     */
+    public int backgroundJobTimeoutSeconds() {
+        return backgroundJobTimeoutSeconds;
+    }
+
+    /**
+     * <p>
+     * how long a bgapi future waits for its BACKGROUND_JOB event before it fails.
+     * 后台任务等待 BACKGROUND_JOB 事件的超时时长
+     * </p>
+     *
+     * @param backgroundJobTimeoutSeconds a int.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption backgroundJobTimeoutSeconds(int backgroundJobTimeoutSeconds) {
+        this.backgroundJobTimeoutSeconds = backgroundJobTimeoutSeconds;
+        return this;
+    }
+
+    /**
+     * <p>commandTimeoutSeconds.</p>
+     *
+     * @return a int.
+     */
+    public int commandTimeoutSeconds() {
+        return commandTimeoutSeconds;
+    }
+
+    /**
+     * <p>
+     * how long a command waits for its reply before it fails, 0 for no deadline.
+     * 命令等待回复的超时时长，0 表示不超时
+     * </p>
+     *
+     * @param commandTimeoutSeconds a int.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption commandTimeoutSeconds(int commandTimeoutSeconds) {
+        this.commandTimeoutSeconds = commandTimeoutSeconds;
+        return this;
+    }
+
+    /**
+     * <p>commandConnections.</p>
+     *
+     * @return a int.
+     */
+    public int commandConnections() {
+        return commandConnections;
+    }
+
+    /**
+     * <p>
+     * command-only connections opened per server next to its event connection, 0 sends the commands on the event connection.
+     * 每个服务端的命令连接数，0 表示命令与事件共用一个连接
+     * </p>
+     *
+     * @param commandConnections a int.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption commandConnections(int commandConnections) {
+        this.commandConnections = commandConnections;
+        return this;
+    }
+
+    /**
+     * <p>reconnectBackoffBaseMillis.</p>
+     *
+     * @return a long.
+     */
+    public long reconnectBackoffBaseMillis() {
+        return reconnectBackoffBaseMillis;
+    }
+
+    /**
+     * <p>
+     * first reconnect delay ceiling, doubled on each consecutive failure up to reconnectBackoffMaxMillis.
+     * 重连退避基数
+     * </p>
+     *
+     * @param reconnectBackoffBaseMillis a long.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption reconnectBackoffBaseMillis(long reconnectBackoffBaseMillis) {
+        this.reconnectBackoffBaseMillis = reconnectBackoffBaseMillis;
+        return this;
+    }
+
+    /**
+     * <p>reconnectBackoffMaxMillis.</p>
+     *
+     * @return a long.
+     */
+    public long reconnectBackoffMaxMillis() {
+        return reconnectBackoffMaxMillis;
+    }
+
+    /**
+     * <p>
+     * reconnect delay ceiling of the exponential backoff with full jitter, 0 keeps the fixed timeoutSeconds delay.
+     * 重连退避上限，0 表示按 timeoutSeconds 固定间隔重连
+     * </p>
+     *
+     * @param reconnectBackoffMaxMillis a long.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption reconnectBackoffMaxMillis(long reconnectBackoffMaxMillis) {
+        this.reconnectBackoffMaxMillis = reconnectBackoffMaxMillis;
+        return this;
+    }
+
+    /**
+     * <p>maxConcurrentConnects.</p>
+     *
+     * @return a int.
+     */
+    public int maxConcurrentConnects() {
+        return maxConcurrentConnects;
+    }
+
+    /**
+     * <p>
+     * connects in progress at once, from the TCP connect to the end of the auth, 0 means unbounded.
+     * 同时进行的最大连接数，0 为不限制
+     * </p>
+     *
+     * @param maxConcurrentConnects a int.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption maxConcurrentConnects(int maxConcurrentConnects) {
+        this.maxConcurrentConnects = maxConcurrentConnects;
+        return this;
+    }
+
+    /**
+     * <p>startStaggerMillis.</p>
+     *
+     * @return a long.
+     */
+    public long startStaggerMillis() {
+        return startStaggerMillis;
+    }
+
+    /**
+     * <p>
+     * window the initial connects are spread over at random on start, 0 connects at once.
+     * 启动时初始连接随机错开的时间窗口
+     * </p>
+     *
+     * @param startStaggerMillis a long.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption startStaggerMillis(long startStaggerMillis) {
+        this.startStaggerMillis = startStaggerMillis;
+        return this;
+    }
+
+    /**
+     * <p>nativeTransport.</p>
+     *
+     * @return a boolean.
+     */
+    public boolean nativeTransport() {
+        return nativeTransport;
+    }
+
+    /**
+     * <p>
+     * use the epoll native transport when it is available, otherwise fall back to NIO.
+     * 优先使用 epoll 本地传输，不可用时回退到 NIO
+     * </p>
+     *
+     * @param nativeTransport a boolean.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption nativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+        return this;
+    }
+
+    /**
+     * <p>edgeTriggered.</p>
+     *
+     * @return a boolean.
+     */
+    public boolean edgeTriggered() {
+        return edgeTriggered;
+    }
+
+    /**
+     * <p>
+     * edge-triggered (default) or level-triggered epoll mode, epoll transport only.
+     * epoll 边缘触发模式，关闭则为水平触发，仅 epoll 传输有效
+     * </p>
+     *
+     * @param edgeTriggered a boolean.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption edgeTriggered(boolean edgeTriggered) {
+        this.edgeTriggered = edgeTriggered;
+        return this;
+    }
+
+    /**
+     * <p>tcpQuickAck.</p>
+     *
+     * @return a boolean.
+     */
+    public boolean tcpQuickAck() {
+        return tcpQuickAck;
+    }
+
+    /**
+     * <p>
+     * disable delayed acks (TCP_QUICKACK) so command replies are acknowledged at once, epoll transport only.
+     * 关闭延迟确认，仅 epoll 传输有效
+     * </p>
+     *
+     * @param tcpQuickAck a boolean.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption} object.
+     */
+    public InboundClientOption tcpQuickAck(boolean tcpQuickAck) {
+        this.tcpQuickAck = tcpQuickAck;
+        return this;
+    }
+
     /**
      * <p>performance.</p>
      *
@@ -21,6 +21,7 @@ package link.thingscloud.freeswitch.esl.inbound.option;
 import link.thingscloud.freeswitch.esl.util.RandomUtils;
 import link.thingscloud.freeswitch.esl.util.Validate;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -31,6 +32,7 @@ import java.util.List;
  */
 public class ServerAddrOption {
     private static final String VALIDATE_MESSAGE_1 = "serverOptions must be not empty!";
+    private static final String VALIDATE_MESSAGE_2 = "no AUTHED server in serverOptions!";
     private final List<ServerOption> serverOptions;
 
     ServerAddrOption(List<ServerOption> serverOptions) {
@@ -67,5 +69,42 @@ public class ServerAddrOption {
         return serverOptions.get(RandomUtils.nextInt(0, serverOptions.size())).address();
     }
 
+    /**
+     * <p>
+     * The less loaded of two AUTHED servers picked at random (power of two choices), by the
+     * {@link ServerLoad} of their last HEARTBEAT event, requires the HEARTBEAT subscription.
+     * Two random candidates keep the callers from all rushing to the same least loaded server
+     * between two heartbeats. A load that is unknown or stale, see {@link ServerLoad#isFresh(long)},
+     * tells nothing : the first candidate is kept, as with a random pick.
+     * 两个随机已认证服务中负载较低者
+     * </p>
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String leastLoad() {
+        List<ServerOption> authed = new ArrayList<>(serverOptions.size());
+        for (ServerOption serverOption : serverOptions) {
+            if (serverOption.state() == ConnectState.AUTHED) {
+                authed.add(serverOption);
+            }
+        }
+        Validate.notEmpty(authed, VALIDATE_MESSAGE_2);
+        if (authed.size() == 1) {
+            return authed.get(0).address();
+        }
+        int first = RandomUtils.nextInt(0, authed.size());
+        int second = RandomUtils.nextInt(0, authed.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServerOption a = authed.get(first);
+        ServerOption b = authed.get(second);
+        long now = System.currentTimeMillis();
+        if (!a.load().isFresh(now) || !b.load().isFresh(now)) {
+            return a.address();
+        }
+        return a.load().load() <= b.load().load() ? a.address() : b.address();
+    }
+
 
 }
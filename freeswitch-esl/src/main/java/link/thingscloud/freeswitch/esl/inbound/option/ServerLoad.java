@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.inbound.option;
+
+import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
+import lombok.ToString;
+
+/**
+ * <p>ServerLoad class.</p>
+ * <p>
+ * Load of a FreeSWITCH server as reported by its last HEARTBEAT event. Instances are immutable, the
+ * client publishes a new one on each heartbeat so readers never lock.
+ *
+ * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
+ * @version 1.0.0
+ */
+@ToString
+public class ServerLoad {
+
+    /**
+     * load of a server without heartbeat yet
+     */
+    public static final ServerLoad UNKNOWN = new ServerLoad(0, 0, 100D, 0, 0L);
+
+    /**
+     * age beyond which a load is stale, three default heartbeat intervals of 20 seconds
+     */
+    public static final long MAX_AGE_MILLIS = 60000L;
+
+    private final int sessionCount;
+    private final int sessionPerSec;
+    private final double idleCpu;
+    private final int maxSessions;
+    private final long timestamp;
+    private final double load;
+
+    /**
+     * <p>Constructor for ServerLoad.</p>
+     *
+     * @param sessionCount  Session-Count
+     * @param sessionPerSec Session-Per-Sec
+     * @param idleCpu       Idle-CPU, in percent
+     * @param maxSessions   Max-Sessions, 0 if unlimited
+     * @param timestamp     Event-Date-Timestamp, in microseconds
+     */
+    public ServerLoad(int sessionCount, int sessionPerSec, double idleCpu, int maxSessions, long timestamp) {
+        this.sessionCount = sessionCount;
+        this.sessionPerSec = sessionPerSec;
+        this.idleCpu = idleCpu;
+        this.maxSessions = maxSessions;
+        this.timestamp = timestamp;
+        // the busier of the session slots and the cpu
+        double sessions = maxSessions > 0 ? (double) sessionCount / maxSessions : 0D;
+        double cpu = Math.max(0D, 100D - idleCpu) / 100D;
+        this.load = Math.max(sessions, cpu);
+    }
+
+    /**
+     * <p>valueOf.</p>
+     *
+     * @param heartbeat a HEARTBEAT {@link EslEvent}
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.ServerLoad} object.
+     */
+    public static ServerLoad valueOf(EslEvent heartbeat) {
+        return new ServerLoad(
+                (int) parse(heartbeat.getEventHeader("Session-Count"), 0D),
+                (int) parse(heartbeat.getEventHeader("Session-Per-Sec"), 0D),
+                parse(heartbeat.getEventHeader("Idle-CPU"), 100D),
+                (int) parse(heartbeat.getEventHeader("Max-Sessions"), 0D),
+                heartbeat.getEventDateTimestamp());
+    }
+
+    private static double parse(String value, double defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * <p>sessionCount.</p>
+     *
+     * @return a int.
+     */
+    public int sessionCount() {
+        return sessionCount;
+    }
+
+    /**
+     * <p>sessionPerSec.</p>
+     *
+     * @return a int.
+     */
+    public int sessionPerSec() {
+        return sessionPerSec;
+    }
+
+    /**
+     * <p>idleCpu.</p>
+     *
+     * @return a double.
+     */
+    public double idleCpu() {
+        return idleCpu;
+    }
+
+    /**
+     * <p>maxSessions.</p>
+     *
+     * @return a int.
+     */
+    public int maxSessions() {
+        return maxSessions;
+    }
+
+    /**
+     * <p>timestamp.</p>
+     *
+     * @return Event-Date-Timestamp of the heartbeat, in microseconds
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * <p>isFresh.</p>
+     *
+     * @param nowMillis current time, in milliseconds
+     * @return false for {@link #UNKNOWN} or a heartbeat older than {@link #MAX_AGE_MILLIS}
+     */
+    public boolean isFresh(long nowMillis) {
+        return this != UNKNOWN && nowMillis - timestamp / 1000L <= MAX_AGE_MILLIS;
+    }
+
+    /**
+     * The busier of the session slots used and the cpu used, from 0 for idle to 1 for saturated.
+     *
+     * @return a double.
+     */
+    public double load() {
+        return load;
+    }
+}
@@ -18,6 +18,8 @@
 package link.thingscloud.freeswitch.esl.inbound.option;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.experimental.Accessors;
 
 /**
@@ -35,10 +37,17 @@ public class ServerOption {
     private int timeoutSeconds;
     private String password;
 
-    private ConnectState state = ConnectState.INIT;
+    private volatile ConnectState state = ConnectState.INIT;
 
     private int connectTimes = 0;
 
+    /**
+     * load reported by the last HEARTBEAT event of the server
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile ServerLoad load = ServerLoad.UNKNOWN;
+
     /**
      * <p>address.</p>
      *
@@ -48,6 +57,21 @@ public class ServerOption {
         return host + ":" + port;
     }
 
+    /**
+     * <p>state.</p>
+     *
+     * @param state a {@link link.thingscloud.freeswitch.esl.inbound.option.ConnectState} object.
+     * @return a {@link link.thingscloud.freeswitch.esl.inbound.option.ServerOption} object.
+     */
+    public ServerOption state(ConnectState state) {
+        this.state = state;
+        if (state != ConnectState.AUTHED) {
+            // the heartbeats of a former session do not tell the load of the next one
+            this.load = ServerLoad.UNKNOWN;
+        }
+        return this;
+    }
+
     /**
      * <p>addConnectTimes.</p>
      */
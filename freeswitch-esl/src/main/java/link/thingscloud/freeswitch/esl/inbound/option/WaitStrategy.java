@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.inbound.option;
+
+/**
+ * <p>WaitStrategy class.</p>
+ * <p>
+ * How the consumers of the event ring buffer wait for the next event.
+ *
+ * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
+ * @version 1.0.0
+ */
+public enum WaitStrategy {
+    /**
+     * 忙等，延迟最低，每个消费线程占满一个核
+     */
+    BUSY_SPIN,
+    /**
+     * 短暂自旋后让出 CPU
+     */
+    YIELD,
+    /**
+     * 阻塞等待唤醒，CPU 占用最低
+     */
+    BLOCKING
+}
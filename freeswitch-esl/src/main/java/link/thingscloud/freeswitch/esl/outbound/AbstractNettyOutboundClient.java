@@ -24,22 +24,31 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.codec.string.StringEncoder;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.HashedWheelTimer;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import link.thingscloud.freeswitch.esl.OutboundClientService;
 import link.thingscloud.freeswitch.esl.outbound.handler.OutboundChannelHandler;
 import link.thingscloud.freeswitch.esl.outbound.listener.ChannelEventListener;
 import link.thingscloud.freeswitch.esl.outbound.option.OutboundClientOption;
+import link.thingscloud.freeswitch.esl.transport.EslCommandEncoder;
 import link.thingscloud.freeswitch.esl.transport.message.EslFrameDecoder;
+import link.thingscloud.freeswitch.esl.transport.message.EslZeroCopyFrameDecoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
@@ -52,7 +61,12 @@ abstract class AbstractNettyOutboundClient extends AbstractService implements Ch
     final EventLoopGroup workerGroup;
     final EventLoopGroup parentGroup;
     final ExecutorService publicExecutor;
+    final HashedWheelTimer timer;
     final OutboundClientOption option;
+    /**
+     * number of listening sockets bound on the server port, more than one with epoll and SO_REUSEPORT
+     */
+    final int acceptors;
 
     final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -63,11 +77,31 @@ abstract class AbstractNettyOutboundClient extends AbstractService implements Ch
 
         publicExecutor = new ScheduledThreadPoolExecutor(option.publicExecutorThread(),
                 new DefaultThreadFactory("Outbound-Executor", true));
-        parentGroup = new NioEventLoopGroup(option.parentGroupThread(), new DefaultThreadFactory("outbound-parent", true));
-        workerGroup = new NioEventLoopGroup(option.workerGroupThread(), new DefaultThreadFactory("outbound-worker", true));
-        bootstrap.group(parentGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
-                .option(ChannelOption.SO_BACKLOG, 128)
+        timer = new HashedWheelTimer(new DefaultThreadFactory("outbound-timer", true), 100, TimeUnit.MILLISECONDS);
+        boolean epoll = option.nativeTransport() && Epoll.isAvailable();
+        if (option.nativeTransport() && !epoll) {
+            log.warn("epoll native transport is unavailable, fall back to nio : {}", Epoll.unavailabilityCause().toString());
+        }
+        if (epoll) {
+            EpollMode epollMode = option.edgeTriggered() ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED;
+            parentGroup = new EpollEventLoopGroup(option.parentGroupThread(), new DefaultThreadFactory("outbound-parent", true));
+            workerGroup = new EpollEventLoopGroup(option.workerGroupThread(), new DefaultThreadFactory("outbound-worker", true));
+            // with SO_REUSEPORT every parent thread gets its own listening socket and the kernel spreads the accepts
+            acceptors = option.reusePort() ? Math.max(1, option.parentGroupThread()) : 1;
+            bootstrap.group(parentGroup, workerGroup)
+                    .channel(EpollServerSocketChannel.class)
+                    .option(EpollChannelOption.EPOLL_MODE, epollMode)
+                    .option(EpollChannelOption.SO_REUSEPORT, option.reusePort())
+                    .childOption(EpollChannelOption.EPOLL_MODE, epollMode)
+                    .childOption(EpollChannelOption.TCP_QUICKACK, option.tcpQuickAck());
+        } else {
+            parentGroup = new NioEventLoopGroup(option.parentGroupThread(), new DefaultThreadFactory("outbound-parent", true));
+            workerGroup = new NioEventLoopGroup(option.workerGroupThread(), new DefaultThreadFactory("outbound-worker", true));
+            acceptors = 1;
+            bootstrap.group(parentGroup, workerGroup)
+                    .channel(NioServerSocketChannel.class);
+        }
+        bootstrap.option(ChannelOption.SO_BACKLOG, 128)
                 .option(ChannelOption.SO_REUSEADDR, Boolean.TRUE)
                 .childOption(ChannelOption.SO_KEEPALIVE, true)
                 .childOption(ChannelOption.TCP_NODELAY, true)
@@ -78,11 +112,19 @@ abstract class AbstractNettyOutboundClient extends AbstractService implements Ch
                     @Override
                     protected void initChannel(SocketChannel ch) throws Exception {
                         ChannelPipeline pipeline = ch.pipeline();
-                        pipeline.addLast("encoder", new StringEncoder());
-                        pipeline.addLast("decoder", new EslFrameDecoder(8192, true));
+                        // consolidate the flushes of commands issued in bursts
+                        pipeline.addLast("flushConsolidation", new FlushConsolidationHandler(
+                                FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES, true));
+                        pipeline.addLast("encoder", new EslCommandEncoder());
+                        if (option.zeroCopyDecoder()) {
+                            pipeline.addLast("decoder", new EslZeroCopyFrameDecoder(8192, true, option.pooledMessages()));
+                        } else {
+                            pipeline.addLast("decoder", new EslFrameDecoder(8192, true));
+                        }
                         pipeline.addLast("server-idle-handler", new IdleStateHandler(0, 0, option.readerIdleTimeSeconds(), MILLISECONDS));
                         // now the inbound client logic
-                        pipeline.addLast("clientHandler", new OutboundChannelHandler(AbstractNettyOutboundClient.this, publicExecutor));
+                        pipeline.addLast("clientHandler", new OutboundChannelHandler(AbstractNettyOutboundClient.this, publicExecutor,
+                                timer, TimeUnit.SECONDS.toMillis(option.backgroundJobTimeoutSeconds())));
                     }
                 });
     }
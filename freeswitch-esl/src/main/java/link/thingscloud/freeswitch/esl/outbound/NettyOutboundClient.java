@@ -24,6 +24,8 @@ import link.thingscloud.freeswitch.esl.outbound.option.OutboundClientOption;
 import link.thingscloud.freeswitch.esl.outbound.option.ServerOption;
 import link.thingscloud.freeswitch.esl.util.StringUtils;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * <p>NettyInboundClient class.</p>
@@ -33,7 +35,7 @@ import link.thingscloud.freeswitch.esl.util.StringUtils;
  */
 public class NettyOutboundClient extends AbstractOutboundClientCommand {
 
-    private Channel channel;
+    private final List<Channel> channels = new CopyOnWriteArrayList<>();
 
     /**
      * <p>Constructor for NettyInboundClient.</p>
@@ -49,23 +51,46 @@ public class NettyOutboundClient extends AbstractOutboundClientCommand {
         serverOption.addConnectTimes();
         serverOption.state(ConnectState.CONNECTING);
 
-        ChannelFuture channelFuture;
-        if (StringUtils.isBlank(serverOption.host())) {
-            channelFuture = bootstrap.bind(serverOption.port()).syncUninterruptibly();
-        } else {
-            channelFuture = bootstrap.bind(serverOption.host(), serverOption.port()).syncUninterruptibly();
+        ChannelFuture channelFuture = null;
+        try {
+            for (int i = 0; i < acceptors; i++) {
+                channelFuture = bind(serverOption);
+                if (!channelFuture.isSuccess()) {
+                    break;
+                }
+                //获取通道
+                channels.add(channelFuture.channel());
+            }
+        } catch (RuntimeException e) {
+            closeChannels();
+            throw e;
         }
         if (channelFuture != null && channelFuture.isSuccess()) {
-            //获取通道
-            channel = channelFuture.channel();
             notifyStarted();
-            log.info("outbound client server start success, listen port on {}", serverOption.port());
+            log.info("outbound client server start success, listen port on {} with {} acceptor(s)", serverOption.port(), channels.size());
         } else {
+            // the acceptors already bound would keep the port
+            closeChannels();
             log.info("outbound client server start fail");
         }
         return channelFuture;
     }
 
+    private void closeChannels() {
+        for (Channel channel : channels) {
+            channel.close();
+        }
+        channels.clear();
+    }
+
+    private ChannelFuture bind(final ServerOption serverOption) {
+        if (StringUtils.isBlank(serverOption.host())) {
+            return bootstrap.bind(serverOption.port()).syncUninterruptibly();
+        } else {
+            return bootstrap.bind(serverOption.host(), serverOption.port()).syncUninterruptibly();
+        }
+    }
+
     @Override
     protected void doStart() {
         log.info("outbound client will start ...");
@@ -81,9 +106,10 @@ public class NettyOutboundClient extends AbstractOutboundClientCommand {
     @Override
     protected void doStop() {
         log.info("outbound client will shutdown ...");
-        channel.close();
+        closeChannels();
         workerGroup.shutdownGracefully();
         parentGroup.shutdownGracefully();
+        timer.stop();
         notifyStopped();
     }
 }
@@ -2,6 +2,7 @@ package link.thingscloud.freeswitch.esl.outbound.handler;
 
 import io.netty.channel.Channel;
 import link.thingscloud.freeswitch.esl.transport.CommandResponse;
+import link.thingscloud.freeswitch.esl.transport.EslCommand;
 import link.thingscloud.freeswitch.esl.transport.SendMsg;
 import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
 import link.thingscloud.freeswitch.esl.transport.message.EslMessage;
@@ -76,13 +77,7 @@ public class Context implements IModEslApi {
 
         try {
 
-            final StringBuilder sb = new StringBuilder();
-            sb.append("api ").append(command);
-            if (!isNullOrEmpty(arg)) {
-                sb.append(' ').append(arg);
-            }
-
-            return getUnchecked(handler.sendApiSingleLineCommand(channel, sb.toString()));
+            return getUnchecked(handler.sendApiCommand(channel, EslCommand.api(command, arg)));
 
         } catch (Throwable t) {
             throw propagate(t);
@@ -105,12 +100,7 @@ public class Context implements IModEslApi {
 
         checkArgument(!isNullOrEmpty(command), "command cannot be null or empty");
 
-        final StringBuilder sb = new StringBuilder();
-        sb.append("bgapi ").append(command);
-        if (!isNullOrEmpty(arg)) {
-            sb.append(' ').append(arg);
-        }
-        return handler.sendBackgroundApiCommand(channel, sb.toString());
+        return handler.sendBackgroundApiCommand(channel, EslCommand.bgapi(command, arg));
     }
 
     /**
@@ -124,18 +114,13 @@ public class Context implements IModEslApi {
      * </pre>
      * Subsequent calls to this method replaces any previous subscriptions that were set.
      * </p>
-     * Note: current implementation can only process 'plain' events.
      *
-     * @param format can be { plain | xml }
+     * @param format can be { plain | json | xml }
      * @param events { all | space separated list of events }
      * @return a {@link CommandResponse} with the server's response.
      */
     @Override
     public CommandResponse setEventSubscriptions(EventFormat format, String events) {
-
-        // temporary hack
-        checkState(format.equals(EventFormat.PLAIN), "Only 'plain' event format is supported at present");
-
         try {
 
             final StringBuilder sb = new StringBuilder();
@@ -250,7 +235,7 @@ public class Context implements IModEslApi {
         checkNotNull(sendMsg, "sendMsg cannot be null");
 
         try {
-            final EslMessage response = getUnchecked(handler.sendApiMultiLineCommand(channel, sendMsg.getMsgLines()));
+            final EslMessage response = getUnchecked(handler.sendApiCommand(channel, sendMsg));
             return new CommandResponse(sendMsg.toString(), response);
         } catch (Throwable t) {
             throw propagate(t);
@@ -23,11 +23,12 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.timeout.IdleState;
 import io.netty.handler.timeout.IdleStateEvent;
-import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.Timer;
 import link.thingscloud.freeswitch.esl.helper.EslHelper;
 import link.thingscloud.freeswitch.esl.outbound.listener.ChannelEventListener;
+import link.thingscloud.freeswitch.esl.transport.BackgroundJobTable;
+import link.thingscloud.freeswitch.esl.transport.EslCommand;
 import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
-import link.thingscloud.freeswitch.esl.transport.event.EslEventHeaderNames;
 import link.thingscloud.freeswitch.esl.transport.message.EslHeaders;
 import link.thingscloud.freeswitch.esl.transport.message.EslMessage;
 import link.thingscloud.freeswitch.esl.util.RemotingUtil;
@@ -48,18 +49,11 @@ import java.util.concurrent.locks.ReentrantLock;
 @Slf4j
 public class OutboundChannelHandler extends SimpleChannelInboundHandler<EslMessage> {
 
-    private static final String MESSAGE_TERMINATOR = "\n\n";
-    private static final String LINE_TERMINATOR = "\n";
-
     private final Lock syncLock = new ReentrantLock();
     private final Queue<SyncCallback> syncCallbacks = new ConcurrentLinkedQueue<>();
     private final ChannelEventListener listener;
     private final ExecutorService publicExecutor;
-    private final ConcurrentHashMap<String, CompletableFuture<EslEvent>> backgroundJobs =
-            new ConcurrentHashMap<>();
-
-    private final ExecutorService backgroundJobExecutor = new ScheduledThreadPoolExecutor(8,
-            new DefaultThreadFactory("Outbound-BackgroundJob-Executor", true));
+    private final BackgroundJobTable backgroundJobs;
 
     private final boolean isTraceEnabled = log.isTraceEnabled();
     private final ConcurrentLinkedQueue<CompletableFuture<EslMessage>> apiCalls =
@@ -70,12 +64,15 @@ public class OutboundChannelHandler extends SimpleChannelInboundHandler<EslMessa
     /**
      * <p>Constructor for OutboundChannelHandler.</p>
      *
-     * @param listener              a {@link ChannelEventListener} object.
-     * @param publicExecutor        a {@link ExecutorService} object.
+     * @param listener                   a {@link ChannelEventListener} object.
+     * @param publicExecutor             a {@link ExecutorService} object.
+     * @param timer                      timer wheel of the bgapi deadlines
+     * @param backgroundJobTimeoutMillis how long a bgapi future waits for its BACKGROUND_JOB event
      */
-    public OutboundChannelHandler(ChannelEventListener listener, ExecutorService publicExecutor) {
+    public OutboundChannelHandler(ChannelEventListener listener, ExecutorService publicExecutor, Timer timer, long backgroundJobTimeoutMillis) {
         this.listener = listener;
         this.publicExecutor = publicExecutor;
+        this.backgroundJobs = new BackgroundJobTable(timer, backgroundJobTimeoutMillis);
     }
 
     /**
@@ -109,6 +106,7 @@ public class OutboundChannelHandler extends SimpleChannelInboundHandler<EslMessa
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
         super.channelInactive(ctx);
         log.debug("channelInactive remoteAddr : {}", remoteAddr);
+        backgroundJobs.failAll(new IllegalStateException("outbound channel is closed, remoteAddr : " + remoteAddr));
 //        listener.onChannelClosed(remoteAddr);
     }
 
@@ -120,7 +118,7 @@ public class OutboundChannelHandler extends SimpleChannelInboundHandler<EslMessa
         if (evt instanceof IdleStateEvent) {
             if (((IdleStateEvent) evt).state() == IdleState.READER_IDLE) {
                 log.debug("userEventTriggered remoteAddr : {}, evt state : {} ", remoteAddr, ((IdleStateEvent) evt).state());
-                publicExecutor.execute(() -> sendAsyncCommand("bgapi status"));
+                publicExecutor.execute(() -> sendAsyncCommand(EslCommand.bgapi("status", null)));
             }
         }
     }
@@ -137,9 +135,7 @@ public class OutboundChannelHandler extends SimpleChannelInboundHandler<EslMessa
             apiCall.completeExceptionally(cause.getCause());
         }
 
-        for (final CompletableFuture<EslEvent> backgroundJob : backgroundJobs.values()) {
-            backgroundJob.completeExceptionally(cause.getCause());
-        }
+        backgroundJobs.failAll(cause);
         ctx.channel().close();
 
         ctx.close();
@@ -156,21 +152,31 @@ public class OutboundChannelHandler extends SimpleChannelInboundHandler<EslMessa
         final String contentType = message.getContentType();
         log.info("contentType : {}", contentType);
         if (contentType.equals(EslHeaders.Value.TEXT_EVENT_PLAIN) ||
-                contentType.equals(EslHeaders.Value.TEXT_EVENT_XML)
+                contentType.equals(EslHeaders.Value.TEXT_EVENT_XML) ||
+                contentType.equals(EslHeaders.Value.TEXT_EVENT_JSON)
         ) {
             //  transform into an event
-            final EslEvent eslEvent = new EslEvent(message);
+            final EslEvent eslEvent;
+            try {
+                eslEvent = EslEvent.valueOf(message);
+            } finally {
+                // a pooled event holds its own reference to the message
+                message.release();
+            }
             if (eslEvent.getEventName().equals("BACKGROUND_JOB")) {
-                final String backgroundUuid = eslEvent.getEventHeaders().get(EslEventHeaderNames.JOB_UUID);
-                final CompletableFuture<EslEvent> future = backgroundJobs.remove(backgroundUuid);
-                if (null != future) {
-                    future.complete(eslEvent);
+                if (!backgroundJobs.complete(eslEvent)) {
+                    eslEvent.release();
                 }
             } else {
-                listener.handleEslEvent(new Context(ctx.channel(), OutboundChannelHandler.this), eslEvent);
+                try {
+                    listener.handleEslEvent(new Context(ctx.channel(), OutboundChannelHandler.this), eslEvent);
+                } finally {
+                    eslEvent.release();
+                }
             }
         } else {
-            handleEslMessage(ctx, message);
+            // replies are handed over to the command callers, which do not release them
+            handleEslMessage(ctx, message.detach());
         }
     }
 
@@ -219,14 +225,26 @@ public class OutboundChannelHandler extends SimpleChannelInboundHandler<EslMessa
      * @return the {@link EslMessage} attached to this command's callback
      */
     public EslMessage sendSyncSingleLineCommand(final String command) {
+        return sendSyncCommand(EslCommand.line(command));
+    }
+
+    /**
+     * Synthesise a synchronous command/response by creating a callback object which is placed in
+     * queue and blocks waiting for another IO thread to process an incoming {@link EslMessage} and
+     * attach it to the callback.
+     *
+     * @param command an {@link EslCommand}, {@link link.thingscloud.freeswitch.esl.transport.SendMsg} or command lines
+     * @return the {@link EslMessage} attached to this command's callback
+     */
+    public EslMessage sendSyncCommand(final Object command) {
         if (isTraceEnabled) {
-            log.trace("sendSyncSingleLineCommand command : {}", command);
+            log.trace("sendSyncCommand command : {}", command);
         }
         SyncCallback callback = new SyncCallback();
         syncLock.lock();
         try {
             syncCallbacks.add(callback);
-            channel.writeAndFlush(command + MESSAGE_TERMINATOR);
+            channel.writeAndFlush(command);
         } finally {
             syncLock.unlock();
         }
@@ -243,27 +261,8 @@ public class OutboundChannelHandler extends SimpleChannelInboundHandler<EslMessa
      * @return the {@link EslMessage} attached to this command's callback
      */
     public EslMessage sendSyncMultiLineCommand(final List<String> commandLines) {
-        SyncCallback callback = new SyncCallback();
-        //  Build command with double line terminator at the end
-        StringBuilder sb = new StringBuilder();
-        for (String line : commandLines) {
-            sb.append(line);
-            sb.append(LINE_TERMINATOR);
-        }
-        sb.append(LINE_TERMINATOR);
-        if (isTraceEnabled) {
-            log.trace("sendSyncMultiLineCommand command : {}", sb);
-        }
-        syncLock.lock();
-        try {
-            syncCallbacks.add(callback);
-            channel.writeAndFlush(sb.toString());
-        } finally {
-            syncLock.unlock();
-        }
-
-        //  Block until the response is available
-        return callback.get();
+        // the encoder terminates every line and appends the blank line
+        return sendSyncCommand(commandLines);
     }
 
     /**
@@ -277,18 +276,10 @@ public class OutboundChannelHandler extends SimpleChannelInboundHandler<EslMessa
      */
     public EslMessage sendSyncMultiLineCommand(Channel channel, final List<String> commandLines) {
         SyncCallback callback = new SyncCallback();
-        //  Build command with double line terminator at the end
-        StringBuilder sb = new StringBuilder();
-        for (String line : commandLines) {
-            sb.append(line);
-            sb.append(LINE_TERMINATOR);
-        }
-        sb.append(LINE_TERMINATOR);
-
         syncLock.lock();
         try {
             syncCallbacks.add(callback);
-            channel.write(sb.toString());
+            channel.write(commandLines);
         } finally {
             syncLock.unlock();
         }
@@ -299,63 +290,78 @@ public class OutboundChannelHandler extends SimpleChannelInboundHandler<EslMessa
 
     public void sendAsyncMultiLineCommand(Channel channel, final List<String> commandLines) {
         SyncCallback callback = new SyncCallback();
-        //  Build command with double line terminator at the end
-        StringBuilder sb = new StringBuilder();
-        for (String line : commandLines) {
-            sb.append(line);
-            sb.append(LINE_TERMINATOR);
-        }
-        sb.append(LINE_TERMINATOR);
         syncLock.lock();
         try {
             syncCallbacks.add(callback);
-            channel.write(sb.toString());
+            channel.write(commandLines);
         } finally {
             syncLock.unlock();
         }
     }
 
     public CompletableFuture<EslMessage> sendApiSingleLineCommand(Channel channel, final String command) {
+        return sendApiCommand(channel, EslCommand.line(command));
+    }
+
+    /**
+     * <p>sendApiCommand.</p>
+     *
+     * @param channel a {@link Channel} object.
+     * @param command an {@link EslCommand}, {@link link.thingscloud.freeswitch.esl.transport.SendMsg} or command lines
+     * @return the future reply
+     */
+    public CompletableFuture<EslMessage> sendApiCommand(Channel channel, final Object command) {
         final CompletableFuture<EslMessage> future = new CompletableFuture<>();
+        sendApiCommand(channel, command, future);
+        return future;
+    }
+
+    // queued before the write, so the IO thread always finds the future of the reply
+    private void sendApiCommand(Channel channel, Object command, CompletableFuture<EslMessage> future) {
         syncLock.lock();
         try {
-            channel.writeAndFlush(command + MESSAGE_TERMINATOR);
             apiCalls.add(future);
+            channel.writeAndFlush(command);
         } finally {
             syncLock.unlock();
         }
-        return future;
     }
 
     public CompletableFuture<EslEvent> sendBackgroundApiCommand(Channel channel, final String command) {
-        return sendApiSingleLineCommand(channel, command)
-                .thenComposeAsync(result -> {
+        return sendBackgroundApiCommand(channel, EslCommand.line(command));
+    }
+
+    /**
+     * <p>sendBackgroundApiCommand.</p>
+     *
+     * @param channel a {@link Channel} object.
+     * @param command a bgapi {@link EslCommand}
+     * @return the future BACKGROUND_JOB event
+     */
+    public CompletableFuture<EslEvent> sendBackgroundApiCommand(Channel channel, final EslCommand command) {
+        final CompletableFuture<EslMessage> future = new CompletableFuture<>();
+        // attached before the write, so the job is registered by the IO thread completing the reply,
+        // before the BACKGROUND_JOB event can be read
+        final CompletableFuture<EslEvent> job = future
+                .thenCompose(result -> {
                     if (result.hasHeader(EslHeaders.Name.JOB_UUID)) {
-                        final String jobId = result.getHeaderValue(EslHeaders.Name.JOB_UUID);
-                        final CompletableFuture<EslEvent> resultFuture = new CompletableFuture<>();
-                        backgroundJobs.put(jobId, resultFuture);
-                        return resultFuture;
+                        return backgroundJobs.register(result.getHeaderValue(EslHeaders.Name.JOB_UUID));
                     } else {
                         final CompletableFuture<EslEvent> resultFuture = new CompletableFuture<>();
                         resultFuture.completeExceptionally(new IllegalStateException("Missing Job-UUID header in bgapi response"));
                         return resultFuture;
                     }
-                }, backgroundJobExecutor);
+                });
+        sendApiCommand(channel, command, future);
+        return job;
     }
 
     public CompletableFuture<EslMessage> sendApiMultiLineCommand(Channel channel, final List<String> commandLines) {
-        //  Build command with double line terminator at the end
-        final StringBuilder sb = new StringBuilder();
-        for (final String line : commandLines) {
-            sb.append(line);
-            sb.append(LINE_TERMINATOR);
-        }
-        sb.append(LINE_TERMINATOR);
         syncLock.lock();
         try {
             final CompletableFuture<EslMessage> future = new CompletableFuture<>();
-            channel.write(sb.toString());
-            channel.flush();
+            channel.writeAndFlush(commandLines);
+            apiCalls.add(future);
             return future;
         } finally {
             syncLock.unlock();
@@ -369,11 +375,21 @@ public class OutboundChannelHandler extends SimpleChannelInboundHandler<EslMessa
      * @return Job-UUID as a string
      */
     public String sendAsyncCommand(final String command) {
+        return sendAsyncCommand(EslCommand.line(command));
+    }
+
+    /**
+     * Returns the Job UUID of that the response event will have.
+     *
+     * @param command a bgapi {@link EslCommand}
+     * @return Job-UUID as a string
+     */
+    public String sendAsyncCommand(final EslCommand command) {
         /*
          * Send synchronously to get the Job-UUID to return, the results of the actual
          * job request will be returned by the server as an async event.
          */
-        EslMessage response = sendSyncSingleLineCommand(command);
+        EslMessage response = sendSyncCommand(command);
         if (isTraceEnabled) {
             log.trace("sendAsyncCommand command : {}, response : {}", command, response);
         }
@@ -47,6 +47,13 @@ public class OutboundClientOption {
     private int readTimeoutSeconds = 120;
     private int readerIdleTimeSeconds = 120;
     private boolean disablePublicExecutor = false;
+    private boolean zeroCopyDecoder = false;
+    private boolean pooledMessages = false;
+    private int backgroundJobTimeoutSeconds = 300;
+    private boolean nativeTransport = false;
+    private boolean edgeTriggered = true;
+    private boolean reusePort = false;
+    private boolean tcpQuickAck = false;
     private boolean performance = false;
     private long performanceCostTime = 200;
     private boolean eventPerformance = false;
@@ -271,6 +278,171 @@ public class OutboundClientOption {
         return this;
     }
 
+    /**
+     * <p>
+     * decode esl frames with {@link link.thingscloud.freeswitch.esl.transport.message.EslZeroCopyFrameDecoder} instead of the replaying one.
+     * 使用零拷贝的帧解码器替代 ReplayingDecoder 实现
+     * </p>
+     *
+     * @return a boolean.
+     */
+    public boolean zeroCopyDecoder() {
+        return zeroCopyDecoder;
+    }
+
+    /**
+     * <p>
+     * decode esl frames with {@link link.thingscloud.freeswitch.esl.transport.message.EslZeroCopyFrameDecoder} instead of the replaying one.
+     * 使用零拷贝的帧解码器替代 ReplayingDecoder 实现
+     * </p>
+     *
+     * @param zeroCopyDecoder a boolean.
+     * @return a {@link OutboundClientOption} object.
+     */
+    public OutboundClientOption zeroCopyDecoder(boolean zeroCopyDecoder) {
+        this.zeroCopyDecoder = zeroCopyDecoder;
+        return this;
+    }
+
+    /**
+     * <p>pooledMessages.</p>
+     *
+     * @return a boolean.
+     */
+    public boolean pooledMessages() {
+        return pooledMessages;
+    }
+
+    /**
+     * <p>
+     * reuse pooled EslMessage/EslEvent instances, requires the zeroCopyDecoder. Listeners keeping an
+     * event beyond the callback must retain and later release it.
+     * 复用消息与事件对象，需开启 zeroCopyDecoder
+     * </p>
+     *
+     * @param pooledMessages a boolean.
+     * @return a {@link link.thingscloud.freeswitch.esl.outbound.option.OutboundClientOption} object.
+     */
+    public OutboundClientOption pooledMessages(boolean pooledMessages) {
+        this.pooledMessages = pooledMessages;
+        return this;
+    }
+
+    /**
+     * <p>backgroundJobTimeoutSeconds.</p>
+     *
+     * @return a int.
+     */
+    public int backgroundJobTimeoutSeconds() {
+        return backgroundJobTimeoutSeconds;
+    }
+
+    /**
+     * <p>
+     * how long a bgapi future waits for its BACKGROUND_JOB event before it fails.
+     * 后台任务等待 BACKGROUND_JOB 事件的超时时长
+     * </p>
+     *
+     * @param backgroundJobTimeoutSeconds a int.
+     * @return a {@link link.thingscloud.freeswitch.esl.outbound.option.OutboundClientOption} object.
+     */
+    public OutboundClientOption backgroundJobTimeoutSeconds(int backgroundJobTimeoutSeconds) {
+        this.backgroundJobTimeoutSeconds = backgroundJobTimeoutSeconds;
+        return this;
+    }
+
+    /**
+     * <p>nativeTransport.</p>
+     *
+     * @return a boolean.
+     */
+    public boolean nativeTransport() {
+        return nativeTransport;
+    }
+
+    /**
+     * <p>
+     * use the epoll native transport when it is available, otherwise fall back to NIO.
+     * 优先使用 epoll 本地传输，不可用时回退到 NIO
+     * </p>
+     *
+     * @param nativeTransport a boolean.
+     * @return a {@link link.thingscloud.freeswitch.esl.outbound.option.OutboundClientOption} object.
+     */
+    public OutboundClientOption nativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+        return this;
+    }
+
+    /**
+     * <p>edgeTriggered.</p>
+     *
+     * @return a boolean.
+     */
+    public boolean edgeTriggered() {
+        return edgeTriggered;
+    }
+
+    /**
+     * <p>
+     * edge-triggered (default) or level-triggered epoll mode, epoll transport only.
+     * epoll 边缘触发模式，关闭则为水平触发，仅 epoll 传输有效
+     * </p>
+     *
+     * @param edgeTriggered a boolean.
+     * @return a {@link link.thingscloud.freeswitch.esl.outbound.option.OutboundClientOption} object.
+     */
+    public OutboundClientOption edgeTriggered(boolean edgeTriggered) {
+        this.edgeTriggered = edgeTriggered;
+        return this;
+    }
+
+    /**
+     * <p>reusePort.</p>
+     *
+     * @return a boolean.
+     */
+    public boolean reusePort() {
+        return reusePort;
+    }
+
+    /**
+     * <p>
+     * bind one listening socket per parent thread on the same port (SO_REUSEPORT) so the kernel spreads accept bursts, epoll transport only.
+     * 每个 parent 线程绑定一个监听套接字，由内核分摊连接建立，仅 epoll 传输有效
+     * </p>
+     *
+     * @param reusePort a boolean.
+     * @return a {@link link.thingscloud.freeswitch.esl.outbound.option.OutboundClientOption} object.
+     */
+    public OutboundClientOption reusePort(boolean reusePort) {
+        this.reusePort = reusePort;
+        return this;
+    }
+
+    /**
+     * <p>tcpQuickAck.</p>
+     *
+     * @return a boolean.
+     */
+    public boolean tcpQuickAck() {
+        return tcpQuickAck;
+    }
+
+    /**
+     * <p>
+     * disable delayed acks (TCP_QUICKACK) so command replies are acknowledged at once, epoll transport only.
+     * 关闭延迟确认，仅 epoll 传输有效
+     * </p>
+     *
+     * @param tcpQuickAck a boolean.
+     * @return a {@link link.thingscloud.freeswitch.esl.outbound.option.OutboundClientOption} object.
+     */
+    public OutboundClientOption tcpQuickAck(boolean tcpQuickAck) {
+        this.tcpQuickAck = tcpQuickAck;
+        return this;
+    }
+
     /**
      * <p>performance.</p>
      *
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package link.thingscloud.freeswitch.esl.transport;
+
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
+import link.thingscloud.freeswitch.esl.transport.event.EslEventHeaderNames;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>BackgroundJobTable class.</p>
+ * <p>
+ * The pending bgapi jobs, by Job-UUID, completed from their BACKGROUND_JOB event. Every job gets a
+ * deadline on a {@link Timer} wheel, a job whose event never comes fails with a
+ * {@link TimeoutException} and leaves the table, so lost jobs do not pile up over the uptime.
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class BackgroundJobTable {
+
+    private final ConcurrentMap<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Timer timer;
+    private final long timeoutMillis;
+
+    /**
+     * <p>Constructor for BackgroundJobTable.</p>
+     *
+     * @param timer         timer wheel of the deadlines, null for none
+     * @param timeoutMillis how long a job waits for its BACKGROUND_JOB event, 0 for ever
+     */
+    public BackgroundJobTable(Timer timer, long timeoutMillis) {
+        this.timer = timer;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Register a job, to be called as soon as the Job-UUID is known, before its event can be read.
+     *
+     * @param jobUuid Job-UUID of the bgapi reply
+     * @return the future BACKGROUND_JOB event
+     */
+    public CompletableFuture<EslEvent> register(String jobUuid) {
+        Job job = new Job();
+        Job previous = jobs.putIfAbsent(jobUuid, job);
+        if (previous != null) {
+            return previous.future;
+        }
+        if (timer == null || timeoutMillis <= 0) {
+            return job.future;
+        }
+        job.timeout = timer.newTimeout(timeout -> {
+            if (jobs.remove(jobUuid, job)) {
+                job.future.completeExceptionally(new TimeoutException("no BACKGROUND_JOB event for Job-UUID "
+                        + jobUuid + " within " + timeoutMillis + "ms"));
+            }
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        return job.future;
+    }
+
+    /**
+     * Complete the job of a BACKGROUND_JOB event, the event is detached from the pool when a job takes it.
+     *
+     * @param event a BACKGROUND_JOB event
+     * @return true if a pending job took the event
+     */
+    public boolean complete(EslEvent event) {
+        String jobUuid = event.getEventHeader(EslEventHeaderNames.JOB_UUID);
+        Job job = jobUuid == null ? null : jobs.remove(jobUuid);
+        if (job == null) {
+            return false;
+        }
+        if (job.timeout != null) {
+            job.timeout.cancel();
+        }
+        job.future.complete(event.detach());
+        return true;
+    }
+
+    /**
+     * Fail every pending job.
+     *
+     * @param cause a {@link java.lang.Throwable} object.
+     */
+    public void failAll(Throwable cause) {
+        for (String jobUuid : jobs.keySet()) {
+            Job job = jobs.remove(jobUuid);
+            if (job != null) {
+                if (job.timeout != null) {
+                    job.timeout.cancel();
+                }
+                job.future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    /**
+     * <p>size.</p>
+     *
+     * @return number of pending jobs
+     */
+    public int size() {
+        return jobs.size();
+    }
+
+    private static class Job {
+        private final CompletableFuture<EslEvent> future = new CompletableFuture<>();
+        private volatile Timeout timeout;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport;
+
+import link.thingscloud.freeswitch.esl.transport.message.EslHeaders;
+import link.thingscloud.freeswitch.esl.transport.message.EslMessage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * <p>BatchResponse class.</p>
+ * <p>
+ * The replies of a batch of commands, in the order the commands were submitted. A command either has
+ * a response, which may still be a {@code -ERR} reply of FreeSWITCH, or a failure when no reply came,
+ * eg the connection closed or the command timed out.
+ *
+ * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
+ * @version 1.0.0
+ */
+public class BatchResponse {
+
+    private final List<EslCommand> commands;
+    private final List<EslMessage> responses;
+    private final List<Throwable> failures;
+
+    private BatchResponse(List<EslCommand> commands, List<EslMessage> responses, List<Throwable> failures) {
+        this.commands = commands;
+        this.responses = responses;
+        this.failures = failures;
+    }
+
+    /**
+     * Collect the replies of a batch once every command completed.
+     *
+     * @param commands the commands, in submission order
+     * @param futures  their future replies, in the same order
+     * @return the future {@link BatchResponse}, never completed exceptionally
+     */
+    public static CompletableFuture<BatchResponse> collect(List<EslCommand> commands, List<CompletableFuture<EslMessage>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).handle((ignored, cause) -> {
+            List<EslMessage> responses = new ArrayList<>(futures.size());
+            List<Throwable> failures = new ArrayList<>(futures.size());
+            for (CompletableFuture<EslMessage> future : futures) {
+                try {
+                    responses.add(future.join());
+                    failures.add(null);
+                } catch (CompletionException e) {
+                    responses.add(null);
+                    failures.add(e.getCause() == null ? e : e.getCause());
+                } catch (RuntimeException e) {
+                    responses.add(null);
+                    failures.add(e);
+                }
+            }
+            return new BatchResponse(Collections.unmodifiableList(new ArrayList<>(commands)),
+                    Collections.unmodifiableList(responses), Collections.unmodifiableList(failures));
+        });
+    }
+
+    /**
+     * <p>size.</p>
+     *
+     * @return the number of commands
+     */
+    public int size() {
+        return commands.size();
+    }
+
+    /**
+     * <p>getCommands.</p>
+     *
+     * @return the commands, in submission order
+     */
+    public List<EslCommand> getCommands() {
+        return commands;
+    }
+
+    /**
+     * <p>getResponse.</p>
+     *
+     * @param index index of the command
+     * @return the reply of the command, null if it failed
+     */
+    public EslMessage getResponse(int index) {
+        return responses.get(index);
+    }
+
+    /**
+     * <p>getFailure.</p>
+     *
+     * @param index index of the command
+     * @return why the command got no reply, null if it got one
+     */
+    public Throwable getFailure(int index) {
+        return failures.get(index);
+    }
+
+    /**
+     * <p>isOk.</p>
+     *
+     * @param index index of the command
+     * @return true if the command got a reply which is not a -ERR
+     */
+    public boolean isOk(int index) {
+        EslMessage response = responses.get(index);
+        return response != null && !isError(response);
+    }
+
+    /**
+     * <p>isOk.</p>
+     *
+     * @return true if every command got a reply which is not a -ERR
+     */
+    public boolean isOk() {
+        return getFailedIndexes().isEmpty();
+    }
+
+    /**
+     * <p>getFailedIndexes.</p>
+     *
+     * @return the indexes of the commands without a reply or with a -ERR reply
+     */
+    public List<Integer> getFailedIndexes() {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < commands.size(); i++) {
+            if (!isOk(i)) {
+                indexes.add(i);
+            }
+        }
+        return indexes;
+    }
+
+    private static boolean isError(EslMessage response) {
+        // command/reply carries the result in Reply-Text, api/response in its body
+        String replyText = response.getHeaderValue(EslHeaders.Name.REPLY_TEXT);
+        if (replyText != null) {
+            return replyText.startsWith("-ERR");
+        }
+        List<String> bodyLines = response.getBodyLines();
+        return !bodyLines.isEmpty() && bodyLines.get(0).startsWith("-ERR");
+    }
+}
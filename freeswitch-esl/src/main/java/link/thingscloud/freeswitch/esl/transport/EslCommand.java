@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>EslCommand class.</p>
+ * <p>
+ * A single line ESL command, kept as its parts so that {@link EslCommandEncoder} writes the
+ * pre-encoded prefix, the command and its argument straight into the outbound buffer instead of
+ * concatenating them into a String first.
+ *
+ * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
+ * @version 1.0.0
+ */
+public class EslCommand {
+
+    private final Type type;
+    private final String command;
+    private final String arg;
+
+    private EslCommand(Type type, String command, String arg) {
+        this.type = type;
+        this.command = command;
+        this.arg = arg;
+    }
+
+    /**
+     * {@code api <command> <arg>}
+     *
+     * @param command a {@link java.lang.String} object.
+     * @param arg     a {@link java.lang.String} object, may be null.
+     * @return a {@link link.thingscloud.freeswitch.esl.transport.EslCommand} object.
+     */
+    public static EslCommand api(String command, String arg) {
+        return new EslCommand(Type.API, command, arg);
+    }
+
+    /**
+     * {@code bgapi <command> <arg>}
+     *
+     * @param command a {@link java.lang.String} object.
+     * @param arg     a {@link java.lang.String} object, may be null.
+     * @return a {@link link.thingscloud.freeswitch.esl.transport.EslCommand} object.
+     */
+    public static EslCommand bgapi(String command, String arg) {
+        return new EslCommand(Type.BGAPI, command, arg);
+    }
+
+    /**
+     * A raw command line, eg {@code event plain ALL}.
+     *
+     * @param command a {@link java.lang.String} object.
+     * @return a {@link link.thingscloud.freeswitch.esl.transport.EslCommand} object.
+     */
+    public static EslCommand line(String command) {
+        return new EslCommand(Type.LINE, command, null);
+    }
+
+    /**
+     * <p>type.</p>
+     *
+     * @return a {@link link.thingscloud.freeswitch.esl.transport.EslCommand.Type} object.
+     */
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * <p>command.</p>
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String command() {
+        return command;
+    }
+
+    /**
+     * <p>arg.</p>
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String arg() {
+        return arg;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The command line as sent, without the terminating blank line.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (command != null && !command.isEmpty()) {
+            sb.append(type.prefix).append(command);
+        }
+        if (arg != null && !arg.isEmpty()) {
+            sb.append(' ').append(arg);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Command prefixes.
+     */
+    public enum Type {
+        /**
+         * raw command line
+         */
+        LINE(""),
+        /**
+         * {@code "api "}
+         */
+        API("api "),
+        /**
+         * {@code "bgapi "}
+         */
+        BGAPI("bgapi ");
+
+        private final String prefix;
+        private final byte[] bytes;
+
+        Type(String prefix) {
+            this.prefix = prefix;
+            this.bytes = prefix.getBytes(StandardCharsets.US_ASCII);
+        }
+
+        /**
+         * <p>prefix.</p>
+         *
+         * @return a {@link java.lang.String} object.
+         */
+        public String prefix() {
+            return prefix;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+    }
+}
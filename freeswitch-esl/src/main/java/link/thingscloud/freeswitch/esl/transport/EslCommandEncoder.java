@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+import java.util.List;
+
+/**
+ * <p>EslCommandEncoder class.</p>
+ * <p>
+ * Writes ESL commands straight into a pooled {@link ByteBuf}, replacing the
+ * {@link io.netty.handler.codec.string.StringEncoder}:
+ * <ul>
+ * <li>{@link EslCommand}: pre-encoded {@code api }/{@code bgapi } prefix, command and argument, then a blank line</li>
+ * <li>{@link SendMsg}, {@link SendEvent} and {@code List<String>}: one line each, then a blank line</li>
+ * <li>{@link CharSequence}: written as is, the caller provides the terminating blank line</li>
+ * </ul>
+ *
+ * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
+ * @version 1.0.0
+ */
+@ChannelHandler.Sharable
+public class EslCommandEncoder extends MessageToByteEncoder<Object> {
+
+    private static final byte LF = '\n';
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean acceptOutboundMessage(Object msg) {
+        return msg instanceof EslCommand || msg instanceof SendMsg || msg instanceof SendEvent
+                || msg instanceof List || msg instanceof CharSequence;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, Object msg, boolean preferDirect) {
+        return ctx.alloc().ioBuffer(estimateSize(msg));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) {
+        if (msg instanceof EslCommand) {
+            writeCommand((EslCommand) msg, out);
+        } else if (msg instanceof SendMsg) {
+            writeLines(((SendMsg) msg).getMsgLines(), out);
+        } else if (msg instanceof SendEvent) {
+            writeLines(((SendEvent) msg).getMsgLines(), out);
+        } else if (msg instanceof List) {
+            writeLines((List<String>) msg, out);
+        } else {
+            ByteBufUtil.writeUtf8(out, (CharSequence) msg);
+        }
+    }
+
+    private static void writeCommand(EslCommand command, ByteBuf out) {
+        if (command.command() != null && !command.command().isEmpty()) {
+            out.writeBytes(command.type().bytes());
+            ByteBufUtil.writeUtf8(out, command.command());
+        }
+        if (command.arg() != null && !command.arg().isEmpty()) {
+            out.writeByte(' ');
+            ByteBufUtil.writeUtf8(out, command.arg());
+        }
+        out.writeByte(LF);
+        out.writeByte(LF);
+    }
+
+    private static void writeLines(List<String> lines, ByteBuf out) {
+        for (String line : lines) {
+            ByteBufUtil.writeUtf8(out, line);
+            out.writeByte(LF);
+        }
+        out.writeByte(LF);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int estimateSize(Object msg) {
+        if (msg instanceof EslCommand) {
+            EslCommand command = (EslCommand) msg;
+            return 8 + utf8Length(command.command()) + utf8Length(command.arg());
+        }
+        List<String> lines;
+        if (msg instanceof SendMsg) {
+            lines = ((SendMsg) msg).getMsgLines();
+        } else if (msg instanceof SendEvent) {
+            lines = ((SendEvent) msg).getMsgLines();
+        } else if (msg instanceof List) {
+            lines = (List<String>) msg;
+        } else {
+            return utf8Length((CharSequence) msg);
+        }
+        int size = 1;
+        for (String line : lines) {
+            size += utf8Length(line) + 1;
+        }
+        return size;
+    }
+
+    private static int utf8Length(CharSequence value) {
+        return value == null ? 0 : ByteBufUtil.utf8MaxBytes(value);
+    }
+}
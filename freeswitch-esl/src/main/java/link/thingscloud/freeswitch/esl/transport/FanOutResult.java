@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>FanOutResult class.</p>
+ * <p>
+ * The outcome of one command sent to several FreeSWITCH servers, by server address: either its
+ * result or why it has none, eg the server did not answer before the deadline of the sweep. The
+ * reducers combine the results, for example the total of {@code show calls count} :
+ * <pre>
+ *   long calls = result.sum(response -&gt; Long.parseLong(response.getBodyLines().get(0).split(" ")[0]));
+ * </pre>
+ *
+ * @param <T> result type
+ * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
+ * @version 1.0.0
+ */
+public class FanOutResult<T> {
+
+    private final Map<String, T> results;
+    private final Map<String, Throwable> failures;
+
+    private FanOutResult(Map<String, T> results, Map<String, Throwable> failures) {
+        this.results = results;
+        this.failures = failures;
+    }
+
+    /**
+     * Collect the futures of a sweep, the ones not completed yet fail with the given cause.
+     *
+     * @param futures    future results by server address
+     * @param unfinished cause of the futures not completed yet
+     * @param <T>        result type
+     * @return a {@link FanOutResult} object.
+     */
+    public static <T> FanOutResult<T> collect(Map<String, CompletableFuture<T>> futures, Supplier<? extends Throwable> unfinished) {
+        Map<String, T> results = new LinkedHashMap<>(futures.size() * 2);
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        futures.forEach((address, future) -> {
+            if (!future.isDone()) {
+                failures.put(address, unfinished.get());
+                return;
+            }
+            try {
+                results.put(address, future.join());
+            } catch (CompletionException e) {
+                failures.put(address, e.getCause() == null ? e : e.getCause());
+            } catch (RuntimeException e) {
+                failures.put(address, e);
+            }
+        });
+        return new FanOutResult<>(Collections.unmodifiableMap(results), Collections.unmodifiableMap(failures));
+    }
+
+    /**
+     * <p>getResults.</p>
+     *
+     * @return results by server address
+     */
+    public Map<String, T> getResults() {
+        return results;
+    }
+
+    /**
+     * <p>getFailures.</p>
+     *
+     * @return failures by server address
+     */
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * <p>isOk.</p>
+     *
+     * @return true if every server returned a result
+     */
+    public boolean isOk() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * <p>size.</p>
+     *
+     * @return the number of servers the command was sent to
+     */
+    public int size() {
+        return results.size() + failures.size();
+    }
+
+    /**
+     * Fold the results, the failed servers are skipped.
+     *
+     * @param identity    initial value
+     * @param accumulator combines the value so far with the result of a server
+     * @param <R>         reduced type
+     * @return the reduced value
+     */
+    public <R> R reduce(R identity, BiFunction<R, ? super T, R> accumulator) {
+        R value = identity;
+        for (T result : results.values()) {
+            value = accumulator.apply(value, result);
+        }
+        return value;
+    }
+
+    /**
+     * Sum a number extracted from each result, the failed servers are skipped.
+     *
+     * @param mapper extracts the number of a result
+     * @return the sum
+     */
+    public long sum(ToLongFunction<? super T> mapper) {
+        long sum = 0L;
+        for (T result : results.values()) {
+            sum += mapper.applyAsLong(result);
+        }
+        return sum;
+    }
+}
@@ -17,17 +17,26 @@
 
 package link.thingscloud.freeswitch.esl.transport.event;
 
+import io.netty.util.IllegalReferenceCountException;
+import io.netty.util.Recycler;
+import io.netty.util.ResourceLeakDetector;
+import io.netty.util.ResourceLeakDetectorFactory;
+import io.netty.util.ResourceLeakTracker;
 import link.thingscloud.freeswitch.esl.transport.message.EslHeaders;
 import link.thingscloud.freeswitch.esl.transport.message.EslMessage;
 import link.thingscloud.freeswitch.esl.transport.util.HeaderParser;
+import link.thingscloud.freeswitch.esl.transport.util.PercentDecoder;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.BiConsumer;
 
 /**
  * FreeSWITCH Event Socket <strong>events</strong> are decoded into this data object.
@@ -36,13 +45,29 @@ import java.util.Map;
  * lines, and optionally may have some eventBody lines.  In addition the messageHeaders of the
  * original containing {@link link.thingscloud.freeswitch.esl.transport.message.EslMessage} which carried the event are also available.
  * <p>
+ * {@code text/event-json} and {@code text/event-xml} events are parsed by {@link EslEventJsonParser}
+ * and {@link EslEventXmlParser}, their body member providing the eventBody lines.
+ * <p>
  * The eventHeader lines are parsed and cached in a map keyed by the eventHeader name string. An event
  * is always expected to have an "Event-Name" eventHeader. Commonly used eventHeader names are coded
  * in {@link link.thingscloud.freeswitch.esl.transport.event.EslEventHeaderNames}
  * <p>
  * Any eventBody lines are cached in a list.
  * <p>
+ * When the message still carries its raw body bytes (see {@link EslMessage#getRawBody()}), the event
+ * only records the offsets of each eventHeader line. "Event-Name" is decoded eagerly, every other
+ * eventHeader is decoded the first time it is read through {@link #getEventHeader(String)}, and the
+ * full map is only built if {@link #getEventHeaders()} is called.
+ * <p>
+ * Header names are the canonical instances of {@link EslEventHeaderTable}, and the values of low
+ * cardinality headers are shared through {@link EslEventValueCache}.
+ * <p>
  * The messageHeader lines from the original message are cached in a map keyed by {@link link.thingscloud.freeswitch.esl.transport.message.EslHeaders.Name}.
+ * <p>
+ * {@link #valueOf(EslMessage)} builds a pooled event out of a pooled message: the event is taken
+ * from a {@link Recycler}, retains the message until it is released itself, and reuses its index,
+ * value, header map and body list arrays. Listeners keeping such an event beyond their callback call
+ * {@link #retain()} and later {@link #release()}, or {@link #detach()} it from the pool.
  *
  * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
  * @version 1.0.0
@@ -51,10 +76,42 @@ import java.util.Map;
 @Slf4j
 public class EslEvent {
 
-    private final Map<EslHeaders.Name, String> messageHeaders;
-    private final Map<String, String> eventHeaders;
-    private final List<String> eventBody;
+    private static final byte LF = 10;
+    /**
+     * nameStart, nameEnd, valueStart, valueEnd
+     */
+    private static final int SLOT = 4;
+
+    private static final Recycler<EslEvent> RECYCLER = new Recycler<EslEvent>() {
+        @Override
+        protected EslEvent newObject(Handle<EslEvent> handle) {
+            return new EslEvent(handle);
+        }
+    };
+    private static final ResourceLeakDetector<EslEvent> LEAK_DETECTOR =
+            ResourceLeakDetectorFactory.instance().newResourceLeakDetector(EslEvent.class);
+    private static final AtomicIntegerFieldUpdater<EslEvent> REF_CNT_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(EslEvent.class, "refCnt");
+
     private final boolean decodeEventHeaders = true;
+    private Map<EslHeaders.Name, String> messageHeaders;
+    private volatile Map<String, String> eventHeaders;
+    private List<String> eventBody;
+
+    private byte[] raw;
+    private int rawLength;
+    private int[] index;
+    private String[] values;
+    private int headerCount;
+    private int bodyOffset = -1;
+    private String eventName;
+
+    private Recycler.Handle<EslEvent> handle;
+    private ResourceLeakTracker<EslEvent> leak;
+    private volatile int refCnt = 1;
+    private EslMessage message;
+    private Map<String, String> spareHeaders;
+    private List<String> spareBody;
 
     /**
      * <p>Constructor for EslEvent.</p>
@@ -72,14 +129,50 @@ public class EslEvent {
      * @param parseCommandReply a boolean.
      */
     public EslEvent(EslMessage rawMessage, boolean parseCommandReply) {
+        init(rawMessage, parseCommandReply);
+    }
+
+    private EslEvent(Recycler.Handle<EslEvent> handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * An event decoded from the message, pooled if the message is pooled. The message is retained by
+     * a pooled event, the caller keeps its own reference and still has to release it.
+     *
+     * @param rawMessage a {@link link.thingscloud.freeswitch.esl.transport.message.EslMessage} object.
+     * @return a {@link link.thingscloud.freeswitch.esl.transport.event.EslEvent} object.
+     */
+    public static EslEvent valueOf(EslMessage rawMessage) {
+        if (!rawMessage.isPooled()) {
+            return new EslEvent(rawMessage);
+        }
+        EslEvent event = RECYCLER.get();
+        event.refCnt = 1;
+        event.leak = LEAK_DETECTOR.track(event);
+        event.message = rawMessage.retain();
+        try {
+            event.init(rawMessage, false);
+        } catch (RuntimeException e) {
+            event.release();
+            throw e;
+        }
+        return event;
+    }
+
+    private void init(EslMessage rawMessage, boolean parseCommandReply) {
         messageHeaders = rawMessage.getHeaders();
-        eventHeaders = new HashMap<>(rawMessage.getBodyLines().size());
-        eventBody = new ArrayList<>();
-        // plain or xml body
+        // plain, json or xml body
         if (rawMessage.getContentType().equals(EslHeaders.Value.TEXT_EVENT_PLAIN)) {
-            parsePlainBody(rawMessage.getBodyLines());
+            if (rawMessage.hasRawBody()) {
+                indexPlainBody(rawMessage.getRawBody(), rawMessage.getRawBodyLength());
+            } else {
+                parsePlainBody(rawMessage.getBodyLines());
+            }
+        } else if (rawMessage.getContentType().equals(EslHeaders.Value.TEXT_EVENT_JSON)) {
+            parseStructuredBody(rawMessage, EslEventJsonParser::parse, EslEventJsonParser.BODY);
         } else if (rawMessage.getContentType().equals(EslHeaders.Value.TEXT_EVENT_XML)) {
-            throw new IllegalStateException("XML events are not yet supported");
+            parseStructuredBody(rawMessage, EslEventXmlParser::parse, EslEventXmlParser.BODY);
         } else if (rawMessage.getContentType().equals(EslHeaders.Value.COMMAND_REPLY) && parseCommandReply) {
             parsePlainBody(rawMessage.getBodyLines());
         } else {
@@ -88,6 +181,124 @@ public class EslEvent {
         }
     }
 
+    /**
+     * <p>isPooled.</p>
+     *
+     * @return true if this event was taken from the pool and is not detached
+     */
+    public boolean isPooled() {
+        return handle != null;
+    }
+
+    /**
+     * <p>refCnt.</p>
+     *
+     * @return the reference count of a pooled event, always 1 for other events
+     */
+    public int refCnt() {
+        return refCnt;
+    }
+
+    /**
+     * Increase the reference count of a pooled event by one, for listeners keeping the event beyond
+     * their callback.
+     *
+     * @return this event
+     */
+    public EslEvent retain() {
+        if (handle != null) {
+            int count = REF_CNT_UPDATER.getAndIncrement(this);
+            if (count <= 0) {
+                REF_CNT_UPDATER.getAndDecrement(this);
+                throw new IllegalReferenceCountException(count, 1);
+            }
+            if (leak != null) {
+                leak.record();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Decrease the reference count of a pooled event by one. When it reaches zero the event releases
+     * its message and goes back to the pool, it must not be read anymore.
+     *
+     * @return true if the event went back to the pool
+     */
+    public boolean release() {
+        Recycler.Handle<EslEvent> recyclerHandle = handle;
+        if (recyclerHandle == null) {
+            return false;
+        }
+        int count = REF_CNT_UPDATER.decrementAndGet(this);
+        if (count > 0) {
+            if (leak != null) {
+                leak.record();
+            }
+            return false;
+        }
+        if (count < 0) {
+            REF_CNT_UPDATER.incrementAndGet(this);
+            throw new IllegalReferenceCountException(0, -1);
+        }
+        recycle();
+        if (leak != null) {
+            leak.close(this);
+            leak = null;
+        }
+        recyclerHandle.recycle(this);
+        return true;
+    }
+
+    /**
+     * Take a pooled event, and its message, out of the pool: both are left to the garbage collector
+     * and {@link #release()} becomes a no-op. Used for events handed over to code that does not release
+     * them, such as background job futures.
+     *
+     * @return this event
+     */
+    public EslEvent detach() {
+        if (handle != null) {
+            handle = null;
+            if (message != null) {
+                message.detach();
+                message = null;
+            }
+            if (leak != null) {
+                leak.close(this);
+                leak = null;
+            }
+        }
+        return this;
+    }
+
+    private void recycle() {
+        Map<String, String> headers = eventHeaders;
+        if (headers instanceof HashMap) {
+            headers.clear();
+            spareHeaders = headers;
+        }
+        if (eventBody instanceof ArrayList) {
+            eventBody.clear();
+            spareBody = eventBody;
+        }
+        if (values != null) {
+            Arrays.fill(values, null);
+        }
+        messageHeaders = null;
+        eventHeaders = null;
+        eventBody = null;
+        raw = null;
+        rawLength = 0;
+        headerCount = 0;
+        bodyOffset = -1;
+        eventName = null;
+        if (message != null) {
+            message.release();
+            message = null;
+        }
+    }
+
     /**
      * The message headers of the original ESL message from which this event was decoded.
      * The message headers are stored in a map keyed by {@link link.thingscloud.freeswitch.esl.transport.message.EslHeaders.Name}. The string mapped value
@@ -103,11 +314,42 @@ public class EslEvent {
      * The event headers of this event. The headers are parsed and stored in a map keyed by the string
      * name of the header, and the string mapped value is the parsed content of the event header line
      * (ie, it does not include the header name).
+     * <p>
+     * Prefer {@link #getEventHeader(String)} when only a few headers are needed, this method decodes
+     * every header of a lazily indexed event.
      *
      * @return map of event header values
      */
     public Map<String, String> getEventHeaders() {
-        return eventHeaders;
+        Map<String, String> headers = eventHeaders;
+        if (headers == null) {
+            headers = newHeaderMap(headerCount * 4 / 3 + 1);
+            for (int i = 0; i < headerCount; i++) {
+                headers.put(headerName(i), headerValue(i));
+            }
+            eventHeaders = headers;
+        }
+        return headers;
+    }
+
+    /**
+     * A single event header, decoded on first access.
+     *
+     * @param name header name, eg {@link EslEventHeaderNames#EVENT_NAME}
+     * @return the decoded header value, or null if the event has no such header
+     */
+    public String getEventHeader(String name) {
+        Map<String, String> headers = eventHeaders;
+        if (headers != null) {
+            return headers.get(name);
+        }
+        // the last occurrence wins, same as the map
+        for (int i = headerCount - 1; i >= 0; i--) {
+            if (nameEquals(i, name)) {
+                return headerValue(i);
+            }
+        }
+        return null;
     }
 
     /**
@@ -116,6 +358,9 @@ public class EslEvent {
      * @return list of decoded event body lines, may be an empty list.
      */
     public List<String> getEventBodyLines() {
+        if (eventBody == null) {
+            eventBody = splitBody();
+        }
         return eventBody;
     }
 
@@ -125,7 +370,10 @@ public class EslEvent {
      * @return the string value of the event header "Event-Name"
      */
     public String getEventName() {
-        return getEventHeaders().get(EslEventHeaderNames.EVENT_NAME);
+        if (eventName == null) {
+            eventName = getEventHeader(EslEventHeaderNames.EVENT_NAME);
+        }
+        return eventName;
     }
 
     /**
@@ -134,7 +382,7 @@ public class EslEvent {
      * @return long value of the event header "Event-Date-Timestamp"
      */
     public long getEventDateTimestamp() {
-        return Long.valueOf(getEventHeaders().get(EslEventHeaderNames.EVENT_DATE_TIMESTAMP));
+        return Long.valueOf(getEventHeader(EslEventHeaderNames.EVENT_DATE_TIMESTAMP));
     }
 
     /**
@@ -143,7 +391,7 @@ public class EslEvent {
      * @return long value of the event header "Event-Date-Local"
      */
     public String getEventDateLocal() {
-        return getEventHeaders().get(EslEventHeaderNames.EVENT_DATE_LOCAL);
+        return getEventHeader(EslEventHeaderNames.EVENT_DATE_LOCAL);
     }
 
     /**
@@ -152,7 +400,7 @@ public class EslEvent {
      * @return long value of the event header "Event-Date-GMT"
      */
     public String getEventDateGmt() {
-        return getEventHeaders().get(EslEventHeaderNames.EVENT_DATE_GMT);
+        return getEventHeader(EslEventHeaderNames.EVENT_DATE_GMT);
     }
 
     /**
@@ -161,40 +409,239 @@ public class EslEvent {
      * @return true if the eventBody list is not empty.
      */
     public boolean hasEventBody() {
-        return !eventBody.isEmpty();
+        return !getEventBodyLines().isEmpty();
     }
 
     private void parsePlainBody(final List<String> rawBodyLines) {
+        Map<String, String> headers = newHeaderMap(rawBodyLines.size());
+        List<String> body = newBodyList();
         boolean isEventBody = false;
         for (String rawLine : rawBodyLines) {
             if (!isEventBody) {
                 // split the line
                 String[] headerParts = HeaderParser.splitHeader(rawLine);
+                String name = EslEventHeaderTable.canonical(headerParts[0]);
                 if (decodeEventHeaders) {
-                    try {
-                        String decodedValue = URLDecoder.decode(headerParts[1], "UTF-8");
-                        log.trace("decoded from: [{}]", headerParts[1]);
-                        log.trace("decoded   to: [{}]", decodedValue);
-                        eventHeaders.put(headerParts[0], decodedValue);
-                    } catch (UnsupportedEncodingException e) {
-                        log.warn("Could not URL decode [{}]", headerParts[1]);
-                        eventHeaders.put(headerParts[0], headerParts[1]);
-                    }
+                    headers.put(name, EslEventValueCache.intern(name, PercentDecoder.decode(headerParts[1])));
                 } else {
-                    eventHeaders.put(headerParts[0], headerParts[1]);
+                    headers.put(name, EslEventValueCache.intern(name, headerParts[1]));
                 }
-                if (headerParts[0].equals(EslEventHeaderNames.CONTENT_LENGTH)) {
+                if (name.equals(EslEventHeaderNames.CONTENT_LENGTH)) {
                     // the remaining lines will be considered body lines
                     isEventBody = true;
                 }
             } else {
                 // ignore blank line (always is one following the content-length
                 if (rawLine.length() > 0) {
-                    eventBody.add(rawLine);
+                    body.add(rawLine);
+                }
+            }
+        }
+        headerCount = headers.size();
+        eventHeaders = headers;
+        eventBody = body;
+    }
+
+    private void parseStructuredBody(EslMessage rawMessage, BodyParser parser, String bodyName) {
+        byte[] bytes;
+        int length;
+        if (rawMessage.hasRawBody()) {
+            bytes = rawMessage.getRawBody();
+            length = rawMessage.getRawBodyLength();
+        } else {
+            bytes = String.join("\n", rawMessage.getBodyLines()).getBytes(StandardCharsets.UTF_8);
+            length = bytes.length;
+        }
+        Map<String, String> headers = newHeaderMap(128);
+        List<String> body = newBodyList();
+        parser.parse(bytes, 0, length, (name, value) -> {
+            if (bodyName.equals(name)) {
+                splitLines(value, body);
+            } else {
+                headers.put(name, EslEventValueCache.intern(name, value));
+            }
+        });
+        headerCount = headers.size();
+        eventHeaders = headers;
+        eventBody = body;
+    }
+
+    private static void splitLines(String value, List<String> lines) {
+        if (value == null) {
+            return;
+        }
+        int pos = 0;
+        while (pos < value.length()) {
+            int eol = value.indexOf('\n', pos);
+            if (eol < 0) {
+                eol = value.length();
+            }
+            // same as plain events, blank lines are not body lines
+            if (eol > pos) {
+                lines.add(value.substring(pos, eol));
+            }
+            pos = eol + 1;
+        }
+    }
+
+    /**
+     * Record the offsets of every 'Header-Name: value' line without decoding anything but the
+     * Event-Name, stopping at the Content-Length header which announces an event body.
+     */
+    private void indexPlainBody(final byte[] bytes, final int length) {
+        raw = bytes;
+        rawLength = length;
+        if (index == null) {
+            index = new int[64 * SLOT];
+        }
+        int pos = 0;
+        while (pos < length) {
+            int eol = indexOf(bytes, pos, length, LF);
+            if (eol > pos) {
+                int nameStart = skipWhitespace(bytes, pos, eol);
+                int nameEnd = nameStart;
+                while (nameEnd < eol && bytes[nameEnd] != ':' && !isWhitespace(bytes[nameEnd])) {
+                    nameEnd++;
+                }
+                int colonEnd = nameEnd;
+                while (colonEnd < eol && bytes[colonEnd] != ':') {
+                    colonEnd++;
+                }
+                int valueStart = skipWhitespace(bytes, Math.min(colonEnd + 1, eol), eol);
+                int valueEnd = eol;
+                while (valueEnd > valueStart && isWhitespace(bytes[valueEnd - 1])) {
+                    valueEnd--;
+                }
+                addIndex(nameStart, nameEnd, valueStart, valueEnd);
+                if (nameEquals(headerCount - 1, EslEventHeaderNames.CONTENT_LENGTH)) {
+                    // the remaining lines will be considered body lines
+                    bodyOffset = eol + 1;
+                    break;
                 }
             }
+            pos = eol + 1;
+        }
+        if (values == null || values.length < headerCount) {
+            values = new String[headerCount];
+        }
+        eventName = getEventHeader(EslEventHeaderNames.EVENT_NAME);
+    }
+
+    private void addIndex(int nameStart, int nameEnd, int valueStart, int valueEnd) {
+        int offset = headerCount * SLOT;
+        if (offset + SLOT > index.length) {
+            int[] newIndex = new int[index.length * 2];
+            System.arraycopy(index, 0, newIndex, 0, index.length);
+            index = newIndex;
+        }
+        index[offset] = nameStart;
+        index[offset + 1] = nameEnd;
+        index[offset + 2] = valueStart;
+        index[offset + 3] = valueEnd;
+        headerCount++;
+    }
+
+    private boolean nameEquals(int i, String name) {
+        int start = index[i * SLOT];
+        int length = index[i * SLOT + 1] - start;
+        if (length != name.length()) {
+            return false;
+        }
+        for (int j = 0; j < length; j++) {
+            if (raw[start + j] != name.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String headerName(int i) {
+        int start = index[i * SLOT];
+        return EslEventHeaderTable.name(raw, start, index[i * SLOT + 1] - start);
+    }
+
+    private String headerValue(int i) {
+        String value = values[i];
+        if (value == null) {
+            int start = index[i * SLOT + 2];
+            int length = index[i * SLOT + 3] - start;
+            if (decodeEventHeaders) {
+                value = PercentDecoder.decode(raw, start, length);
+            } else {
+                value = new String(raw, start, length, StandardCharsets.UTF_8);
+            }
+            // interned headers all have a canonical name, an unknown one is not decoded for the check
+            int nameStart = index[i * SLOT];
+            String name = EslEventHeaderTable.find(raw, nameStart, index[i * SLOT + 1] - nameStart);
+            if (name != null) {
+                value = EslEventValueCache.intern(name, value);
+            }
+            values[i] = value;
+        }
+        return value;
+    }
+
+    private List<String> splitBody() {
+        if (bodyOffset < 0 || raw == null) {
+            return Collections.emptyList();
+        }
+        List<String> body = newBodyList();
+        int pos = bodyOffset;
+        while (pos < rawLength) {
+            int eol = indexOf(raw, pos, rawLength, LF);
+            // ignore blank line (always is one following the content-length
+            if (eol > pos) {
+                body.add(new String(raw, pos, eol - pos, StandardCharsets.UTF_8));
+            }
+            pos = eol + 1;
         }
+        return body;
+    }
+
+    private Map<String, String> newHeaderMap(int capacity) {
+        Map<String, String> headers = spareHeaders;
+        if (headers == null) {
+            return new HashMap<>(capacity);
+        }
+        spareHeaders = null;
+        return headers;
+    }
+
+    private List<String> newBodyList() {
+        List<String> body = spareBody;
+        if (body == null) {
+            return new ArrayList<>();
+        }
+        spareBody = null;
+        return body;
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static int skipWhitespace(byte[] bytes, int from, int to) {
+        while (from < to && isWhitespace(bytes[from])) {
+            from++;
+        }
+        return from;
+    }
 
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Streaming parser of a structured (json or xml) event body.
+     */
+    @FunctionalInterface
+    private interface BodyParser {
+        void parse(byte[] bytes, int offset, int length, BiConsumer<String, String> consumer);
     }
 
     /**
@@ -207,9 +654,9 @@ public class EslEvent {
         sb.append("] headers=");
         sb.append(messageHeaders.size());
         sb.append(", eventHeaders=");
-        sb.append(eventHeaders.size());
+        sb.append(headerCount);
         sb.append(", eventBody=");
-        sb.append(eventBody.size());
+        sb.append(getEventBodyLines().size());
         sb.append(" lines.");
         return sb.toString();
     }
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport.event;
+
+import link.thingscloud.freeswitch.esl.util.EslEventUtil;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>EslEventHeaderTable class.</p>
+ * <p>
+ * Canonical event header names, so that every {@link EslEvent} shares one String instance per header
+ * name. The table is seeded with the constants of {@link EslEventHeaderNames} and {@link EslEventUtil}
+ * plus a few frequent channel headers, and names are matched straight from the raw event bytes.
+ * The table is immutable : unknown names, such as channel variables, are decoded per event and never
+ * cached, so a lookup neither locks nor grows the table on the io thread.
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class EslEventHeaderTable {
+
+    private static final String[] EXTRA_NAMES = {
+            "Event-Subclass", "Channel-State", "Channel-State-Number", "Channel-Call-State", "Channel-Name",
+            "Channel-Call-UUID", "Channel-Presence-ID", "Channel-HIT-Dialplan", "Call-Direction",
+            "Presence-Call-Direction", "Answer-State", "Hangup-Cause", "Other-Type", "Other-Leg-Unique-ID",
+            "Caller-Source", "Caller-RDNIS", "Caller-Screen-Bit", "Caller-Privacy-Hide-Name",
+            "Caller-Privacy-Hide-Number", "Caller-Transfer-Source", "Channel-Read-Codec-Name",
+            "Channel-Read-Codec-Rate", "Channel-Read-Codec-Bit-Rate", "Channel-Write-Codec-Name",
+            "Channel-Write-Codec-Rate", "Channel-Write-Codec-Bit-Rate", "Job-Command-Arg",
+            "Session-Count", "Max-Sessions", "Session-Per-Sec", "Idle-CPU", "Up-Time", "Heartbeat-Interval"
+    };
+
+    private static final Table TABLE = new Table(seedNames());
+
+    private EslEventHeaderTable() {
+    }
+
+    /**
+     * The canonical name for the given bytes, a new String if the name is unknown.
+     *
+     * @param bytes  raw event bytes
+     * @param offset start of the header name
+     * @param length length of the header name
+     * @return a {@link java.lang.String} object.
+     */
+    public static String name(byte[] bytes, int offset, int length) {
+        String name = TABLE.find(bytes, offset, length);
+        return name != null ? name : new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The canonical name for the given bytes, null if the name is unknown, without decoding it.
+     *
+     * @param bytes  raw event bytes
+     * @param offset start of the header name
+     * @param length length of the header name
+     * @return a {@link java.lang.String} object.
+     */
+    public static String find(byte[] bytes, int offset, int length) {
+        return TABLE.find(bytes, offset, length);
+    }
+
+    /**
+     * The canonical instance of an already decoded header name, the name itself if it is unknown.
+     *
+     * @param name a {@link java.lang.String} object.
+     * @return a {@link java.lang.String} object.
+     */
+    public static String canonical(String name) {
+        String canonical = TABLE.find(name);
+        return canonical != null ? canonical : name;
+    }
+
+    /**
+     * <p>size.</p>
+     *
+     * @return number of canonical names
+     */
+    public static int size() {
+        return TABLE.size();
+    }
+
+    private static List<String> seedNames() {
+        Set<String> names = new LinkedHashSet<>();
+        collectConstants(EslEventHeaderNames.class, names);
+        collectConstants(EslEventUtil.class, names);
+        names.addAll(Arrays.asList(EXTRA_NAMES));
+        return new ArrayList<>(names);
+    }
+
+    private static void collectConstants(Class<?> clazz, Set<String> names) {
+        for (Field field : clazz.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isPublic(modifiers) && Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers)
+                    && field.getType() == String.class) {
+                try {
+                    names.add((String) field.get(null));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Immutable open addressing table of ascii names.
+     */
+    private static class Table {
+        private final String[] slots;
+        private final byte[][] keys;
+        private final List<String> names;
+        private final Map<String, String> byString;
+        private final int mask;
+
+        Table(List<String> names) {
+            this.names = names;
+            int capacity = 16;
+            while (capacity < names.size() * 2) {
+                capacity <<= 1;
+            }
+            this.slots = new String[capacity];
+            this.keys = new byte[capacity][];
+            this.mask = capacity - 1;
+            this.byString = new HashMap<>(names.size() * 2);
+            for (String name : names) {
+                byte[] key = name.getBytes(StandardCharsets.US_ASCII);
+                int slot = hash(key, 0, key.length) & mask;
+                while (slots[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = name;
+                keys[slot] = key;
+                byString.put(name, name);
+            }
+        }
+
+        String find(byte[] bytes, int offset, int length) {
+            int slot = hash(bytes, offset, length) & mask;
+            while (slots[slot] != null) {
+                byte[] key = keys[slot];
+                if (key.length == length && regionEquals(key, bytes, offset)) {
+                    return slots[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        String find(String name) {
+            return byString.get(name);
+        }
+
+        int size() {
+            return names.size();
+        }
+
+        private static boolean regionEquals(byte[] key, byte[] bytes, int offset) {
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != bytes[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int hash(byte[] bytes, int offset, int length) {
+            int h = 0x811c9dc5;
+            for (int i = offset; i < offset + length; i++) {
+                h ^= bytes[i];
+                h *= 0x01000193;
+            }
+            return h ^ (h >>> 16);
+        }
+    }
+}
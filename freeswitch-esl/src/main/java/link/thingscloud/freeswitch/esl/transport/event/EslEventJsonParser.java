@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport.event;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>EslEventJsonParser class.</p>
+ * <p>
+ * Token level parser for {@code text/event-json} bodies. FreeSWITCH serializes an event as one flat
+ * JSON object of string members, the event body being carried by the {@code "_body"} member, so the
+ * parser walks the bytes once and hands every member to a consumer without building a tree. Names
+ * without escapes are resolved through {@link EslEventHeaderTable}, array values (multi valued
+ * headers) are joined in the {@code ARRAY::a|:b} form used by plain events, and numbers, booleans
+ * and null are passed as their literal text.
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class EslEventJsonParser {
+
+    /**
+     * name of the member carrying the event body
+     */
+    public static final String BODY = "_body";
+
+    private final byte[] bytes;
+    private final int end;
+    private int pos;
+
+    private EslEventJsonParser(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.pos = offset;
+        this.end = offset + length;
+    }
+
+    /**
+     * <p>parse.</p>
+     *
+     * @param bytes    utf-8 encoded json object
+     * @param offset   start of the object
+     * @param length   length of the object
+     * @param consumer receives every member as (name, value)
+     */
+    public static void parse(byte[] bytes, int offset, int length, BiConsumer<String, String> consumer) {
+        new EslEventJsonParser(bytes, offset, length).parseObject(consumer);
+    }
+
+    private void parseObject(BiConsumer<String, String> consumer) {
+        expect('{');
+        if (peek() == '}') {
+            pos++;
+            return;
+        }
+        while (true) {
+            String name = readName();
+            expect(':');
+            consumer.accept(name, readValue());
+            byte b = next();
+            if (b == '}') {
+                return;
+            }
+            if (b != ',') {
+                throw error("',' or '}' expected");
+            }
+        }
+    }
+
+    private String readName() {
+        expect('"');
+        int start = pos;
+        while (pos < end && bytes[pos] != '"' && bytes[pos] != '\\') {
+            pos++;
+        }
+        if (pos < end && bytes[pos] == '"') {
+            return EslEventHeaderTable.name(bytes, start, pos++ - start);
+        }
+        pos = start;
+        return EslEventHeaderTable.canonical(readString(start));
+    }
+
+    private String readValue() {
+        byte b = peek();
+        if (b == '"') {
+            pos++;
+            return readString(pos);
+        }
+        if (b == '[') {
+            pos++;
+            return readArray();
+        }
+        if (b == '{') {
+            throw error("nested objects are not supported");
+        }
+        int start = pos;
+        while (pos < end && bytes[pos] != ',' && bytes[pos] != '}' && bytes[pos] != ']' && !isWhitespace(bytes[pos])) {
+            pos++;
+        }
+        if (start == pos) {
+            throw error("value expected");
+        }
+        String literal = new String(bytes, start, pos - start, StandardCharsets.US_ASCII);
+        return "null".equals(literal) ? null : literal;
+    }
+
+    private String readArray() {
+        StringBuilder sb = new StringBuilder("ARRAY::");
+        if (peek() == ']') {
+            pos++;
+            return sb.toString();
+        }
+        boolean first = true;
+        while (true) {
+            if (!first) {
+                sb.append("|:");
+            }
+            first = false;
+            sb.append(readValue());
+            byte b = next();
+            if (b == ']') {
+                return sb.toString();
+            }
+            if (b != ',') {
+                throw error("',' or ']' expected");
+            }
+        }
+    }
+
+    /**
+     * Read a string whose opening quote has been consumed, raw utf-8 runs are decoded in one go.
+     */
+    private String readString(int start) {
+        int run = start;
+        while (pos < end && bytes[pos] != '"' && bytes[pos] != '\\') {
+            pos++;
+        }
+        if (pos >= end) {
+            throw error("unterminated string");
+        }
+        if (bytes[pos] == '"') {
+            return new String(bytes, start, pos++ - start, StandardCharsets.UTF_8);
+        }
+        StringBuilder sb = new StringBuilder(pos - start + 16);
+        while (true) {
+            if (pos >= end) {
+                throw error("unterminated string");
+            }
+            byte b = bytes[pos];
+            if (b == '"') {
+                sb.append(new String(bytes, run, pos++ - run, StandardCharsets.UTF_8));
+                return sb.toString();
+            }
+            if (b != '\\') {
+                pos++;
+                continue;
+            }
+            sb.append(new String(bytes, run, pos - run, StandardCharsets.UTF_8));
+            if (pos + 1 >= end) {
+                throw error("unterminated escape");
+            }
+            byte escaped = bytes[pos + 1];
+            pos += 2;
+            switch (escaped) {
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'u':
+                    sb.append(readUnicode());
+                    break;
+                default:
+                    // '"', '\\' and '/'
+                    sb.append((char) escaped);
+                    break;
+            }
+            run = pos;
+        }
+    }
+
+    private char readUnicode() {
+        if (pos + 4 > end) {
+            throw error("truncated unicode escape");
+        }
+        int c = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(bytes[pos++], 16);
+            if (digit < 0) {
+                throw error("invalid unicode escape");
+            }
+            c = (c << 4) | digit;
+        }
+        return (char) c;
+    }
+
+    private void expect(char c) {
+        if (next() != c) {
+            throw error("'" + c + "' expected");
+        }
+    }
+
+    private byte next() {
+        byte b = peek();
+        pos++;
+        return b;
+    }
+
+    private byte peek() {
+        while (pos < end && isWhitespace(bytes[pos])) {
+            pos++;
+        }
+        if (pos >= end) {
+            throw error("unexpected end of json event");
+        }
+        return bytes[pos];
+    }
+
+    private IllegalStateException error(String message) {
+        return new IllegalStateException("Malformed json event at " + pos + ": " + message);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+}
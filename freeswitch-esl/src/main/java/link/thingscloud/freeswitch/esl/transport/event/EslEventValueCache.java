@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport.event;
+
+import link.thingscloud.freeswitch.esl.util.EslEventUtil;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>EslEventValueCache class.</p>
+ * <p>
+ * Bounded intern cache for the values of low cardinality event headers (hostname, core uuid, calling
+ * file, channel state ...), which repeat across every event of a FreeSWITCH instance. Once
+ * {@link #MAX_VALUES} values are cached new values are returned as is, the cache never evicts.
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class EslEventValueCache {
+
+    /**
+     * upper bound of cached values
+     */
+    public static final int MAX_VALUES = 4096;
+
+    private static final Set<String> LOW_CARDINALITY_HEADERS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            EslEventUtil.CORE_UUID,
+            EslEventUtil.EVENT_NAME,
+            EslEventUtil.EVENT_CALLING_FILE,
+            EslEventUtil.EVENT_CALLING_FUNCTION,
+            EslEventUtil.EVENT_CALLING_LINE_NUMBER,
+            EslEventUtil.FREESWITCH_HOSTNAME,
+            EslEventUtil.FREESWITCH_SWITCHNAME,
+            EslEventUtil.FREESWITCH_IPV4,
+            EslEventUtil.FREESWITCH_IPV6,
+            EslEventUtil.CALLER_DIRECTION,
+            EslEventUtil.CALLER_LOGICAL_DIRECTION,
+            EslEventUtil.CALLER_CONTEXT,
+            EslEventUtil.CALLER_DIALPLAN,
+            "Caller-Source",
+            "Event-Subclass",
+            "Channel-State",
+            "Channel-State-Number",
+            "Channel-Call-State",
+            "Channel-HIT-Dialplan",
+            "Channel-Read-Codec-Name",
+            "Channel-Read-Codec-Rate",
+            "Channel-Write-Codec-Name",
+            "Channel-Write-Codec-Rate",
+            "Answer-State",
+            "Call-Direction",
+            "Presence-Call-Direction",
+            "Hangup-Cause"
+    )));
+
+    private static final ConcurrentMap<String, String> VALUES = new ConcurrentHashMap<>(256);
+
+    private EslEventValueCache() {
+    }
+
+    /**
+     * The shared instance of the value if the header is a low cardinality one.
+     *
+     * @param name  canonical header name
+     * @param value decoded header value
+     * @return a {@link java.lang.String} object.
+     */
+    public static String intern(String name, String value) {
+        if (value == null || !LOW_CARDINALITY_HEADERS.contains(name)) {
+            return value;
+        }
+        String cached = VALUES.get(value);
+        if (cached != null) {
+            return cached;
+        }
+        if (VALUES.size() >= MAX_VALUES) {
+            return value;
+        }
+        cached = VALUES.putIfAbsent(value, value);
+        return cached == null ? value : cached;
+    }
+
+    /**
+     * <p>isLowCardinality.</p>
+     *
+     * @param name header name
+     * @return true if the values of this header are interned
+     */
+    public static boolean isLowCardinality(String name) {
+        return LOW_CARDINALITY_HEADERS.contains(name);
+    }
+
+    /**
+     * <p>size.</p>
+     *
+     * @return number of cached values
+     */
+    public static int size() {
+        return VALUES.size();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport.event;
+
+import link.thingscloud.freeswitch.esl.transport.util.PercentDecoder;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>EslEventXmlParser class.</p>
+ * <p>
+ * StAX pull parser for {@code text/event-xml} bodies:
+ * <pre>
+ * &lt;event&gt;
+ *   &lt;headers&gt;
+ *     &lt;Event-Name&gt;CHANNEL_CREATE&lt;/Event-Name&gt;
+ *     ...
+ *   &lt;/headers&gt;
+ *   &lt;body&gt;...&lt;/body&gt;
+ * &lt;/event&gt;
+ * </pre>
+ * Every child of {@code headers} is handed to a consumer as soon as it is read, its url encoded text
+ * being decoded by {@link PercentDecoder}; the {@code body} text is handed over under {@link #BODY}.
+ * No tree is built, and DTDs and external entities are disabled.
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class EslEventXmlParser {
+
+    /**
+     * name under which the event body is handed to the consumer
+     */
+    public static final String BODY = "body";
+
+    private static final String HEADERS = "headers";
+
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newInstance();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        FACTORY.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+    }
+
+    private EslEventXmlParser() {
+    }
+
+    /**
+     * <p>parse.</p>
+     *
+     * @param bytes    utf-8 encoded xml event
+     * @param offset   start of the document
+     * @param length   length of the document
+     * @param consumer receives every header as (name, value), and the body as ({@link #BODY}, text)
+     */
+    public static void parse(byte[] bytes, int offset, int length, BiConsumer<String, String> consumer) {
+        XMLStreamReader reader = null;
+        try {
+            reader = FACTORY.createXMLStreamReader(new ByteArrayInputStream(bytes, offset, length),
+                    StandardCharsets.UTF_8.name());
+            int depth = 0;
+            boolean inHeaders = false;
+            while (reader.hasNext()) {
+                int type = reader.next();
+                if (type == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String name = reader.getLocalName();
+                    if (depth == 2 && HEADERS.equals(name)) {
+                        inHeaders = true;
+                    } else if (depth == 3 && inHeaders) {
+                        // getElementText consumes the end element
+                        consumer.accept(EslEventHeaderTable.canonical(name), PercentDecoder.decode(reader.getElementText()));
+                        depth--;
+                    } else if (depth == 2 && BODY.equals(name)) {
+                        consumer.accept(BODY, reader.getElementText());
+                        depth--;
+                    }
+                } else if (type == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == 2) {
+                        inHeaders = false;
+                    }
+                    depth--;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Malformed xml event: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // nothing to release, the source is a byte array
+                }
+            }
+        }
+    }
+}
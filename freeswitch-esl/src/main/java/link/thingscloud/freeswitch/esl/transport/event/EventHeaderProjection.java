@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport.event;
+
+import io.netty.buffer.ByteBuf;
+import link.thingscloud.freeswitch.esl.constant.EventNames;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>EventHeaderProjection class.</p>
+ * <p>
+ * The event headers an application reads, per event name. The
+ * {@link link.thingscloud.freeswitch.esl.transport.message.EslZeroCopyFrameDecoder} only keeps the
+ * projected header lines of a plain event, plus the {@link #MANDATORY_HEADERS} (and the
+ * {@link #HEARTBEAT_HEADERS} of HEARTBEAT) the client itself relies on, every other line is skipped without being decoded or stored. Events without a projection are
+ * kept whole. Projections can be added while the client runs, they are published copy-on-write.
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+@ToString
+public class EventHeaderProjection {
+
+    /**
+     * headers kept whatever the projection
+     */
+    public static final List<String> MANDATORY_HEADERS = Collections.unmodifiableList(Arrays.asList(
+            EslEventHeaderNames.EVENT_NAME,
+            "Event-Subclass",
+            EslEventHeaderNames.EVENT_DATE_TIMESTAMP,
+            EslEventHeaderNames.CONTENT_LENGTH,
+            EslEventHeaderNames.JOB_UUID,
+            "Unique-ID"
+    ));
+
+    /**
+     * headers of HEARTBEAT kept whatever its projection, the client reads the server load from them
+     */
+    public static final List<String> HEARTBEAT_HEADERS = Collections.unmodifiableList(Arrays.asList(
+            "Session-Count",
+            "Session-Per-Sec",
+            "Idle-CPU",
+            "Max-Sessions"
+    ));
+
+    private volatile Map<String, Set<String>> projections = Collections.emptyMap();
+    @ToString.Exclude
+    private volatile Map<String, byte[][]> compiled = Collections.emptyMap();
+
+    /**
+     * Add headers to the projection of an event, projections of the same event are merged.
+     *
+     * @param eventName event name, eg CHANNEL_CREATE
+     * @param headers   header names
+     * @return this projection
+     */
+    public synchronized EventHeaderProjection add(String eventName, Collection<String> headers) {
+        Map<String, Set<String>> newProjections = new HashMap<>(projections);
+        Set<String> names = new LinkedHashSet<>(MANDATORY_HEADERS);
+        if (EventNames.HEARTBEAT.equals(eventName)) {
+            names.addAll(HEARTBEAT_HEADERS);
+        }
+        Set<String> current = newProjections.get(eventName);
+        if (current != null) {
+            names.addAll(current);
+        }
+        names.addAll(headers);
+        newProjections.put(eventName, Collections.unmodifiableSet(names));
+
+        Map<String, byte[][]> newCompiled = new HashMap<>(newProjections.size() * 2);
+        for (Map.Entry<String, Set<String>> entry : newProjections.entrySet()) {
+            byte[][] literals = new byte[entry.getValue().size()][];
+            int i = 0;
+            for (String name : entry.getValue()) {
+                literals[i++] = name.getBytes(StandardCharsets.UTF_8);
+            }
+            newCompiled.put(entry.getKey(), literals);
+        }
+        projections = Collections.unmodifiableMap(newProjections);
+        compiled = newCompiled;
+        return this;
+    }
+
+    /**
+     * <p>add.</p>
+     *
+     * @param eventName event name, eg CHANNEL_CREATE
+     * @param headers   header names
+     * @return this projection
+     */
+    public EventHeaderProjection add(String eventName, String... headers) {
+        return add(eventName, Arrays.asList(headers));
+    }
+
+    /**
+     * <p>isEmpty.</p>
+     *
+     * @return true if no event is projected
+     */
+    public boolean isEmpty() {
+        return compiled.isEmpty();
+    }
+
+    /**
+     * <p>headers.</p>
+     *
+     * @param eventName event name
+     * @return the projected headers of the event, or null if the event is kept whole
+     */
+    public Set<String> headers(String eventName) {
+        return projections.get(eventName);
+    }
+
+    /**
+     * The compiled header names of an event, for the decoder.
+     *
+     * @param buffer buffer holding the event name
+     * @param index  start of the event name
+     * @param length length of the event name
+     * @return header names as utf-8 bytes, or null if the event is kept whole
+     */
+    public byte[][] literals(ByteBuf buffer, int index, int length) {
+        Map<String, byte[][]> current = compiled;
+        if (current.isEmpty()) {
+            return null;
+        }
+        return current.get(buffer.toString(index, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * <p>matches.</p>
+     *
+     * @param literals compiled header names, see {@link #literals(ByteBuf, int, int)}
+     * @param buffer   buffer holding the header name
+     * @param index    start of the header name
+     * @param length   length of the header name
+     * @return true if the header is projected
+     */
+    public static boolean matches(byte[][] literals, ByteBuf buffer, int index, int length) {
+        for (byte[] literal : literals) {
+            if (literal.length == length && regionEquals(literal, buffer, index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionEquals(byte[] literal, ByteBuf buffer, int index) {
+        for (int i = 0; i < literal.length; i++) {
+            if (literal[i] != buffer.getByte(index + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
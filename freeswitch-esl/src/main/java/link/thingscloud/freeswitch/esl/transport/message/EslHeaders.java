@@ -118,6 +118,10 @@ public class EslHeaders {
          * {@code "text/event-xml"}
          */
         public static final String TEXT_EVENT_XML = "text/event-xml";
+        /**
+         * {@code "text/event-json"}
+         */
+        public static final String TEXT_EVENT_JSON = "text/event-json";
         /**
          * {@code "text/disconnect-notice"}
          */
@@ -17,12 +17,20 @@
 
 package link.thingscloud.freeswitch.esl.transport.message;
 
+import io.netty.util.IllegalReferenceCountException;
+import io.netty.util.Recycler;
+import io.netty.util.ResourceLeakDetector;
+import io.netty.util.ResourceLeakDetectorFactory;
+import io.netty.util.ResourceLeakTracker;
 import lombok.extern.slf4j.Slf4j;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * Basic FreeSWITCH Event Socket messages from the server are decoded into this data object.
@@ -34,6 +42,13 @@ import java.util.Map;
  * is always expected to have a "Content-Type" header
  * <p>
  * Any Body lines are cached in a list.
+ * <p>
+ * Messages created by {@link #newPooledInstance()} are taken from a {@link Recycler} and go back to it,
+ * with their header map, body list and raw body array, once {@link #release()} drops the reference
+ * count to zero. Code that keeps a pooled message beyond the callback it was handed to must
+ * {@link #retain()} it, or {@link #detach()} it from the pool. Messages built with the constructor are
+ * not pooled and both methods are no-ops on them. Pooled messages are tracked by a Netty
+ * {@link ResourceLeakDetector}, so a missing release is reported like a leaked {@code ByteBuf}.
  *
  * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
  * @version 1.0.0
@@ -42,10 +57,56 @@ import java.util.Map;
 @Slf4j
 public class EslMessage {
 
+    /**
+     * raw body arrays larger than this are not kept when a pooled message is recycled
+     */
+    private static final int MAX_POOLED_RAW_BODY = 64 * 1024;
+
+    private static final Recycler<EslMessage> RECYCLER = new Recycler<EslMessage>() {
+        @Override
+        protected EslMessage newObject(Handle<EslMessage> handle) {
+            return new EslMessage(handle);
+        }
+    };
+    private static final ResourceLeakDetector<EslMessage> LEAK_DETECTOR =
+            ResourceLeakDetectorFactory.instance().newResourceLeakDetector(EslMessage.class);
+    private static final AtomicIntegerFieldUpdater<EslMessage> REF_CNT_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(EslMessage.class, "refCnt");
+
     private final Map<EslHeaders.Name, String> headers = new EnumMap<>(EslHeaders.Name.class);
     private final List<String> body = new ArrayList<>();
 
     private Integer contentLength = null;
+    private byte[] rawBody = null;
+    private int rawBodyLength = -1;
+    // split lazily by any reader thread, published whole
+    private volatile List<String> rawBodyLines = null;
+
+    private Recycler.Handle<EslMessage> handle;
+    private ResourceLeakTracker<EslMessage> leak;
+    private volatile int refCnt = 1;
+
+    /**
+     * <p>Constructor for EslMessage, the message is not pooled.</p>
+     */
+    public EslMessage() {
+    }
+
+    private EslMessage(Recycler.Handle<EslMessage> handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * A message taken from the pool, with a reference count of one.
+     *
+     * @return a {@link link.thingscloud.freeswitch.esl.transport.message.EslMessage} object.
+     */
+    public static EslMessage newPooledInstance() {
+        EslMessage message = RECYCLER.get();
+        message.refCnt = 1;
+        message.leak = LEAK_DETECTOR.track(message);
+        return message;
+    }
 
     /**
      * All the received message headers in a map keyed by {@link link.thingscloud.freeswitch.esl.transport.message.EslHeaders.Name}. The string mapped value
@@ -111,12 +172,144 @@ public class EslMessage {
     }
 
     /**
-     * Any received message body lines
+     * Any received message body lines, the lines of a raw body are split once and read-only.
      *
      * @return list with a string for each line received, may be an empty list
      */
     public List<String> getBodyLines() {
-        return body;
+        if (!hasRawBody()) {
+            return body;
+        }
+        List<String> lines = rawBodyLines;
+        if (lines == null) {
+            // racing readers split the same bytes, either list may be kept
+            lines = splitRawBody();
+            rawBodyLines = lines;
+        }
+        return lines;
+    }
+
+    /**
+     * The undecoded body bytes, only kept by {@link EslZeroCopyFrameDecoder} for event frames so that
+     * {@link link.thingscloud.freeswitch.esl.transport.event.EslEvent} can index the headers in place.
+     * The array of a pooled message is reused and may be longer than the body, only the first
+     * {@link #getRawBodyLength()} bytes are valid.
+     *
+     * @return raw body bytes, or null if the body was decoded into lines
+     */
+    public byte[] getRawBody() {
+        return hasRawBody() ? rawBody : null;
+    }
+
+    /**
+     * <p>getRawBodyLength.</p>
+     *
+     * @return number of valid bytes in {@link #getRawBody()}, -1 if the body was decoded into lines
+     */
+    public int getRawBodyLength() {
+        return rawBodyLength;
+    }
+
+    /**
+     * Convenience method
+     *
+     * @return true if and only if the body is kept as raw bytes
+     */
+    public boolean hasRawBody() {
+        return rawBodyLength >= 0;
+    }
+
+    /**
+     * <p>isPooled.</p>
+     *
+     * @return true if this message was taken from the pool and is not detached
+     */
+    public boolean isPooled() {
+        return handle != null;
+    }
+
+    /**
+     * <p>refCnt.</p>
+     *
+     * @return the reference count of a pooled message, always 1 for other messages
+     */
+    public int refCnt() {
+        return refCnt;
+    }
+
+    /**
+     * Increase the reference count of a pooled message by one.
+     *
+     * @return this message
+     */
+    public EslMessage retain() {
+        if (handle != null) {
+            int count = REF_CNT_UPDATER.getAndIncrement(this);
+            if (count <= 0) {
+                REF_CNT_UPDATER.getAndDecrement(this);
+                throw new IllegalReferenceCountException(count, 1);
+            }
+            if (leak != null) {
+                leak.record();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Decrease the reference count of a pooled message by one, and give it back to the pool when it
+     * reaches zero.
+     *
+     * @return true if the message went back to the pool
+     */
+    public boolean release() {
+        Recycler.Handle<EslMessage> recyclerHandle = handle;
+        if (recyclerHandle == null) {
+            return false;
+        }
+        int count = REF_CNT_UPDATER.decrementAndGet(this);
+        if (count > 0) {
+            if (leak != null) {
+                leak.record();
+            }
+            return false;
+        }
+        if (count < 0) {
+            REF_CNT_UPDATER.incrementAndGet(this);
+            throw new IllegalReferenceCountException(0, -1);
+        }
+        headers.clear();
+        body.clear();
+        contentLength = null;
+        rawBodyLength = -1;
+        rawBodyLines = null;
+        if (rawBody != null && rawBody.length > MAX_POOLED_RAW_BODY) {
+            rawBody = null;
+        }
+        if (leak != null) {
+            leak.close(this);
+            leak = null;
+        }
+        recyclerHandle.recycle(this);
+        return true;
+    }
+
+    /**
+     * Take a pooled message out of the pool, it is left to the garbage collector and
+     * {@link #release()} becomes a no-op. Used for messages handed over to code that does not
+     * release them, such as command replies.
+     *
+     * @return this message
+     */
+    public EslMessage detach() {
+        if (handle != null) {
+            handle = null;
+            if (leak != null) {
+                leak.close(this);
+                leak = null;
+            }
+        }
+        return this;
     }
 
     /**
@@ -145,6 +338,56 @@ public class EslMessage {
         body.add(line);
     }
 
+    /**
+     * Used by the {@link EslZeroCopyFrameDecoder}
+     *
+     * @param rawBody
+     */
+    void setRawBody(byte[] rawBody) {
+        this.rawBody = rawBody;
+        this.rawBodyLength = rawBody.length;
+        this.rawBodyLines = null;
+    }
+
+    /**
+     * Used by the {@link EslZeroCopyFrameDecoder}, the returned array is reused when the message is
+     * pooled and large enough.
+     *
+     * @param length body length
+     * @return array to copy the body into
+     */
+    byte[] rawBodyBuffer(int length) {
+        if (rawBody == null || rawBody.length < length) {
+            rawBody = new byte[length];
+        }
+        rawBodyLength = length;
+        rawBodyLines = null;
+        return rawBody;
+    }
+
+    /**
+     * Used by the {@link EslZeroCopyFrameDecoder} once a projected body has been compacted.
+     *
+     * @param rawBodyLength number of valid bytes
+     */
+    void rawBodyLength(int rawBodyLength) {
+        this.rawBodyLength = rawBodyLength;
+    }
+
+    private List<String> splitRawBody() {
+        List<String> lines = new ArrayList<>();
+        int index = 0;
+        while (index < rawBodyLength) {
+            int eol = index;
+            while (eol < rawBodyLength && rawBody[eol] != '\n') {
+                eol++;
+            }
+            lines.add(new String(rawBody, index, eol - index, StandardCharsets.UTF_8));
+            index = eol + 1;
+        }
+        return Collections.unmodifiableList(lines);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -154,9 +397,15 @@ public class EslMessage {
         sb.append(getContentType());
         sb.append("] headers=");
         sb.append(headers.size());
-        sb.append(", body=");
-        sb.append(body.size());
-        sb.append(" lines.");
+        if (hasRawBody()) {
+            sb.append(", body=");
+            sb.append(rawBodyLength);
+            sb.append(" bytes.");
+        } else {
+            sb.append(", body=");
+            sb.append(body.size());
+            sb.append(" lines.");
+        }
 
         return sb.toString();
     }
@@ -0,0 +1,369 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport.message;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.util.ByteProcessor;
+import link.thingscloud.freeswitch.esl.exception.EslDecoderException;
+import link.thingscloud.freeswitch.esl.transport.event.EslEventHeaderNames;
+import link.thingscloud.freeswitch.esl.transport.event.EventHeaderProjection;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * <p>EslZeroCopyFrameDecoder class.</p>
+ * <p>
+ * Same framing rules as {@link EslFrameDecoder}, but line and frame boundaries are located with
+ * {@link ByteBuf#forEachByte(int, int, ByteProcessor)} on the cumulated buffer instead of replaying
+ * it byte by byte. Header values and body lines are decoded straight from their region of the
+ * buffer, and the Content-Length body is never copied into an intermediate {@link ByteBuf}. Event
+ * bodies are copied once, into a raw byte array of the message, and only indexed when the event is
+ * built. The copy is deliberate : events outlive the frame and are read by listeners on other
+ * threads without any release, so a retained slice would pin the cumulation buffer until the event
+ * is collected. In pooled mode the messages, and their raw body arrays, come from the
+ * {@link EslMessage} pool, so the copy allocates nothing once the pool is warm. With an
+ * {@link EventHeaderProjection} only the projected header lines of plain events are copied.
+ *
+ * @author : <a href="mailto:ant.zhou@aliyun.com">zhouhailin</a>
+ * @version 1.0.0
+ */
+@Slf4j
+public class EslZeroCopyFrameDecoder extends ByteToMessageDecoder {
+
+    private static final byte[][] HEADER_LITERALS;
+    private static final byte[] EVENT_NAME = EslEventHeaderNames.EVENT_NAME.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONTENT_LENGTH = EslEventHeaderNames.CONTENT_LENGTH.getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        EslHeaders.Name[] names = EslHeaders.Name.values();
+        HEADER_LITERALS = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            HEADER_LITERALS[i] = names[i].literal().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final int maxHeaderSize;
+    private final boolean treatUnknownHeadersAsBody;
+    private final boolean pooled;
+    private final EventHeaderProjection projection;
+    private EslMessage currentMessage;
+    private int contentLength = -1;
+
+    /**
+     * <p>Constructor for EslZeroCopyFrameDecoder.</p>
+     *
+     * @param maxHeaderSize a int.
+     */
+    public EslZeroCopyFrameDecoder(int maxHeaderSize) {
+        this(maxHeaderSize, false);
+    }
+
+    /**
+     * <p>Constructor for EslZeroCopyFrameDecoder.</p>
+     *
+     * @param maxHeaderSize             a int.
+     * @param treatUnknownHeadersAsBody a boolean.
+     */
+    public EslZeroCopyFrameDecoder(int maxHeaderSize, boolean treatUnknownHeadersAsBody) {
+        this(maxHeaderSize, treatUnknownHeadersAsBody, false);
+    }
+
+    /**
+     * <p>Constructor for EslZeroCopyFrameDecoder.</p>
+     *
+     * @param maxHeaderSize             a int.
+     * @param treatUnknownHeadersAsBody a boolean.
+     * @param pooled                    decode into {@link EslMessage#newPooledInstance()} messages
+     */
+    public EslZeroCopyFrameDecoder(int maxHeaderSize, boolean treatUnknownHeadersAsBody, boolean pooled) {
+        this(maxHeaderSize, treatUnknownHeadersAsBody, pooled, null);
+    }
+
+    /**
+     * <p>Constructor for EslZeroCopyFrameDecoder.</p>
+     *
+     * @param maxHeaderSize             a int.
+     * @param treatUnknownHeadersAsBody a boolean.
+     * @param pooled                    decode into {@link EslMessage#newPooledInstance()} messages
+     * @param projection                event headers to keep, null to keep every header
+     */
+    public EslZeroCopyFrameDecoder(int maxHeaderSize, boolean treatUnknownHeadersAsBody, boolean pooled,
+                                   EventHeaderProjection projection) {
+        if (maxHeaderSize <= 0) {
+            throw new IllegalArgumentException(
+                    "maxHeaderSize must be a positive integer: " +
+                            maxHeaderSize);
+        }
+        this.maxHeaderSize = maxHeaderSize;
+        this.treatUnknownHeadersAsBody = treatUnknownHeadersAsBody;
+        this.pooled = pooled;
+        this.projection = projection;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf buffer, List<Object> out) {
+        if (contentLength < 0) {
+            if (currentMessage == null) {
+                currentMessage = pooled ? EslMessage.newPooledInstance() : new EslMessage();
+            }
+            if (!readHeaders(buffer)) {
+                // wait for more bytes, the header lines read so far are kept in currentMessage
+                return;
+            }
+            if (currentMessage.hasContentLength()) {
+                contentLength = currentMessage.getContentLength();
+                log.trace("have content-length [{}], decoding body ..", contentLength);
+            } else {
+                fireMessage(out);
+                return;
+            }
+        }
+        if (buffer.readableBytes() < contentLength) {
+            return;
+        }
+        readBody(buffer, contentLength);
+        fireMessage(out);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void handlerRemoved0(ChannelHandlerContext ctx) throws Exception {
+        // a partially decoded message would never be released
+        if (currentMessage != null) {
+            currentMessage.release();
+            currentMessage = null;
+        }
+        super.handlerRemoved0(ctx);
+    }
+
+    /**
+     * Read '\n' terminated header lines until a single '\n' is reached.
+     *
+     * @return true when the blank line ending the header block has been consumed
+     */
+    private boolean readHeaders(ByteBuf buffer) {
+        while (buffer.isReadable()) {
+            int start = buffer.readerIndex();
+            int eol = buffer.forEachByte(start, buffer.readableBytes(), ByteProcessor.FIND_LF);
+            if (eol < 0) {
+                if (buffer.readableBytes() > maxHeaderSize) {
+                    throw new TooLongFrameException(
+                            "ESL header line is longer than " + maxHeaderSize + " bytes.");
+                }
+                return false;
+            }
+            int length = eol - start;
+            if (length > maxHeaderSize) {
+                throw new TooLongFrameException(
+                        "ESL header line is longer than " + maxHeaderSize + " bytes.");
+            }
+            if (length == 0) {
+                buffer.skipBytes(1);
+                return true;
+            }
+            readHeaderLine(buffer, start, eol);
+            buffer.readerIndex(eol + 1);
+        }
+        return false;
+    }
+
+    private void readHeaderLine(ByteBuf buffer, int start, int end) {
+        int nameStart = skipWhitespace(buffer, start, end);
+        int nameEnd = nameStart;
+        while (nameEnd < end) {
+            byte b = buffer.getByte(nameEnd);
+            if (b == ':' || isWhitespace(b)) {
+                break;
+            }
+            nameEnd++;
+        }
+        int colonEnd = buffer.indexOf(nameEnd, end, (byte) ':');
+        colonEnd = colonEnd < 0 ? end : colonEnd + 1;
+        int valueStart = skipWhitespace(buffer, colonEnd, end);
+        int valueEnd = end;
+        while (valueEnd > valueStart && isWhitespace(buffer.getByte(valueEnd - 1))) {
+            valueEnd--;
+        }
+
+        EslHeaders.Name headerName = matchHeaderName(buffer, nameStart, nameEnd - nameStart);
+        if (headerName == null) {
+            if (treatUnknownHeadersAsBody) {
+                // cache this 'header' as a body line <-- useful for Outbound client mode
+                currentMessage.addBodyLine(buffer.toString(start, end - start, StandardCharsets.UTF_8));
+                return;
+            }
+            throw new IllegalStateException("Unhandled ESL header ["
+                    + buffer.toString(nameStart, nameEnd - nameStart, StandardCharsets.UTF_8) + ']');
+        }
+        currentMessage.addHeader(headerName, buffer.toString(valueStart, valueEnd - valueStart, StandardCharsets.UTF_8));
+    }
+
+    private void readBody(ByteBuf buffer, int length) {
+        String contentType = currentMessage.getContentType();
+        if (projection != null && !projection.isEmpty() && EslHeaders.Value.TEXT_EVENT_PLAIN.equals(contentType)) {
+            readProjectedBody(buffer, length);
+            return;
+        }
+        if (EslHeaders.Value.TEXT_EVENT_PLAIN.equals(contentType) || EslHeaders.Value.TEXT_EVENT_JSON.equals(contentType)
+                || EslHeaders.Value.TEXT_EVENT_XML.equals(contentType)) {
+            // the one copy of an event body, EslEvent indexes and decodes the headers on demand
+            buffer.readBytes(currentMessage.rawBodyBuffer(length), 0, length);
+            return;
+        }
+        int index = buffer.readerIndex();
+        int end = index + length;
+        // most bodies are line based, so split on LF
+        while (index < end) {
+            int eol = buffer.forEachByte(index, end - index, ByteProcessor.FIND_LF);
+            if (eol < 0) {
+                eol = end;
+            }
+            currentMessage.addBodyLine(buffer.toString(index, eol - index, StandardCharsets.UTF_8));
+            index = eol + 1;
+        }
+        buffer.skipBytes(length);
+    }
+
+    /**
+     * Copy the projected header lines of a plain event, and its body, into the raw body. The
+     * whole frame is consumed whatever is kept.
+     */
+    private void readProjectedBody(ByteBuf buffer, int length) {
+        int index = buffer.readerIndex();
+        int end = index + length;
+        byte[][] literals = projectedHeaders(buffer, index, end);
+        byte[] bytes = currentMessage.rawBodyBuffer(length);
+        if (literals == null) {
+            buffer.readBytes(bytes, 0, length);
+            return;
+        }
+        int pos = 0;
+        while (index < end) {
+            int eol = buffer.forEachByte(index, end - index, ByteProcessor.FIND_LF);
+            int next = eol < 0 ? end : eol + 1;
+            int nameEnd = buffer.indexOf(index, eol < 0 ? end : eol, (byte) ':');
+            if (nameEnd < 0) {
+                nameEnd = eol < 0 ? end : eol;
+            }
+            int nameLength = nameEnd - index;
+            boolean contentLength = nameLength == CONTENT_LENGTH.length && regionEquals(buffer, index, CONTENT_LENGTH);
+            if (contentLength || EventHeaderProjection.matches(literals, buffer, index, nameLength)) {
+                buffer.getBytes(index, bytes, pos, next - index);
+                pos += next - index;
+            }
+            index = next;
+            if (contentLength) {
+                // the remaining bytes are the event body
+                buffer.getBytes(index, bytes, pos, end - index);
+                pos += end - index;
+                break;
+            }
+        }
+        currentMessage.rawBodyLength(pos);
+        buffer.skipBytes(length);
+    }
+
+    /**
+     * @return the projected header names of the event, or null if the event is kept whole
+     */
+    private byte[][] projectedHeaders(ByteBuf buffer, int index, int end) {
+        while (index < end) {
+            int eol = buffer.forEachByte(index, end - index, ByteProcessor.FIND_LF);
+            int lineEnd = eol < 0 ? end : eol;
+            if (lineEnd - index > EVENT_NAME.length && regionEquals(buffer, index, EVENT_NAME)
+                    && buffer.getByte(index + EVENT_NAME.length) == ':') {
+                int valueStart = skipWhitespace(buffer, index + EVENT_NAME.length + 1, lineEnd);
+                int valueEnd = lineEnd;
+                while (valueEnd > valueStart && isWhitespace(buffer.getByte(valueEnd - 1))) {
+                    valueEnd--;
+                }
+                return projection.literals(buffer, valueStart, valueEnd - valueStart);
+            }
+            if (lineEnd - index > CONTENT_LENGTH.length && regionEquals(buffer, index, CONTENT_LENGTH)) {
+                return null;
+            }
+            index = lineEnd + 1;
+        }
+        return null;
+    }
+
+    private static boolean regionEquals(ByteBuf buffer, int index, byte[] literal) {
+        for (int i = 0; i < literal.length; i++) {
+            if (buffer.getByte(index + i) != literal[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void fireMessage(List<Object> out) {
+        EslMessage decodedMessage = currentMessage;
+        currentMessage = null;
+        contentLength = -1;
+        if (decodedMessage == null) {
+            throw new EslDecoderException("Illegal state: no message decoded");
+        }
+        out.add(decodedMessage);
+    }
+
+    private static EslHeaders.Name matchHeaderName(ByteBuf buffer, int index, int length) {
+        EslHeaders.Name[] names = EslHeaders.Name.values();
+        for (int i = 0; i < HEADER_LITERALS.length; i++) {
+            byte[] literal = HEADER_LITERALS[i];
+            if (literal.length == length && equalsIgnoreCase(buffer, index, literal)) {
+                return names[i];
+            }
+        }
+        return null;
+    }
+
+    private static boolean equalsIgnoreCase(ByteBuf buffer, int index, byte[] literal) {
+        for (int i = 0; i < literal.length; i++) {
+            byte b = buffer.getByte(index + i);
+            if (b != literal[i] && toLowerCase(b) != toLowerCase(literal[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte toLowerCase(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + 32) : b;
+    }
+
+    private static int skipWhitespace(ByteBuf buffer, int index, int end) {
+        while (index < end && isWhitespace(buffer.getByte(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
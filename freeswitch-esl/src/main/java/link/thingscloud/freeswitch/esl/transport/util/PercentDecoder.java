@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>PercentDecoder class.</p>
+ * <p>
+ * Decodes the url encoded values of ESL event headers, a replacement for
+ * {@code URLDecoder.decode(value, "UTF-8")} on the event hot path:
+ * <ul>
+ * <li>a value without any '%' or '+' is returned untouched</li>
+ * <li>an encoded value is decoded from bytes to a String in one pass, through a per thread scratch buffer</li>
+ * <li>UTF-8 is always used through {@link StandardCharsets}, there is no charset name lookup</li>
+ * </ul>
+ * Unlike {@link java.net.URLDecoder} a malformed escape sequence is kept as is instead of failing.
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class PercentDecoder {
+
+    private static final int MAX_SCRATCH_SIZE = 8192;
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private PercentDecoder() {
+    }
+
+    /**
+     * <p>decode.</p>
+     *
+     * @param value a {@link java.lang.String} object.
+     * @return the same instance if nothing has to be decoded, otherwise the decoded value
+     */
+    public static String decode(String value) {
+        if (value == null || !needsDecoding(value)) {
+            return value;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return decode(bytes, 0, bytes.length);
+    }
+
+    /**
+     * <p>decode.</p>
+     *
+     * @param bytes  utf-8 encoded source
+     * @param offset start of the value
+     * @param length length of the value
+     * @return a {@link java.lang.String} object.
+     */
+    public static String decode(byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        int first = offset;
+        while (first < end && bytes[first] != '%' && bytes[first] != '+') {
+            first++;
+        }
+        if (first == end) {
+            return new String(bytes, offset, length, StandardCharsets.UTF_8);
+        }
+
+        byte[] scratch = length <= MAX_SCRATCH_SIZE ? scratch(length) : new byte[length];
+        int prefix = first - offset;
+        System.arraycopy(bytes, offset, scratch, 0, prefix);
+        int pos = prefix;
+        for (int i = first; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '+') {
+                scratch[pos++] = ' ';
+            } else if (b == '%' && i + 2 < end && hex(bytes[i + 1]) >= 0 && hex(bytes[i + 2]) >= 0) {
+                scratch[pos++] = (byte) ((hex(bytes[i + 1]) << 4) | hex(bytes[i + 2]));
+                i += 2;
+            } else {
+                scratch[pos++] = b;
+            }
+        }
+        return new String(scratch, 0, pos, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * <p>needsDecoding.</p>
+     *
+     * @param value a {@link java.lang.String} object.
+     * @return true if the value contains '%' or '+'
+     */
+    public static boolean needsDecoding(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '+') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] scratch(int length) {
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    private static int hex(byte b) {
+        if (b >= '0' && b <= '9') {
+            return b - '0';
+        }
+        if (b >= 'a' && b <= 'f') {
+            return b - 'a' + 10;
+        }
+        if (b >= 'A' && b <= 'F') {
+            return b - 'A' + 10;
+        }
+        return -1;
+    }
+}
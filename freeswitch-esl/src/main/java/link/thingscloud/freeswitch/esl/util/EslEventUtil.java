@@ -65,166 +65,166 @@ public class EslEventUtil {
     }
 
     public static String getCoreUuid(EslEvent event) {
-        return event.getEventHeaders().get(CORE_UUID);
+        return event.getEventHeader(CORE_UUID);
     }
 
     public static String getUniqueId(EslEvent event) {
-        return event.getEventHeaders().get(UNIQUE_ID);
+        return event.getEventHeader(UNIQUE_ID);
     }
 
     public static String getCallerUniqueId(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_UNIQUE_ID);
+        return event.getEventHeader(CALLER_UNIQUE_ID);
     }
 
     public static String getEventName(EslEvent event) {
-        return event.getEventHeaders().get(EVENT_NAME);
+        return event.getEventHeader(EVENT_NAME);
     }
 
     public static String getEventSequence(EslEvent event) {
-        return event.getEventHeaders().get(EVENT_SEQUENCE);
+        return event.getEventHeader(EVENT_SEQUENCE);
     }
 
     public static String getEventDateLocal(EslEvent event) {
-        return event.getEventHeaders().get(EVENT_DATE_LOCAL);
+        return event.getEventHeader(EVENT_DATE_LOCAL);
     }
 
     public static String getEventDateGmt(EslEvent event) {
-        return event.getEventHeaders().get(EVENT_DATE_GMT);
+        return event.getEventHeader(EVENT_DATE_GMT);
     }
 
     public static String getEventCallingFile(EslEvent event) {
-        return event.getEventHeaders().get(EVENT_CALLING_FILE);
+        return event.getEventHeader(EVENT_CALLING_FILE);
     }
 
     public static String getEventCallingFunction(EslEvent event) {
-        return event.getEventHeaders().get(EVENT_CALLING_FUNCTION);
+        return event.getEventHeader(EVENT_CALLING_FUNCTION);
     }
 
     public static String getEventCallingLineNumber(EslEvent event) {
-        return event.getEventHeaders().get(EVENT_CALLING_LINE_NUMBER);
+        return event.getEventHeader(EVENT_CALLING_LINE_NUMBER);
     }
 
     public static String getFreeswitchIpv4(EslEvent event) {
-        return event.getEventHeaders().get(FREESWITCH_IPV4);
+        return event.getEventHeader(FREESWITCH_IPV4);
     }
 
     public static String getFreeswitchIpv6(EslEvent event) {
-        return event.getEventHeaders().get(FREESWITCH_IPV6);
+        return event.getEventHeader(FREESWITCH_IPV6);
     }
 
     public static String getFreeswitchHostname(EslEvent event) {
-        return event.getEventHeaders().get(FREESWITCH_HOSTNAME);
+        return event.getEventHeader(FREESWITCH_HOSTNAME);
     }
 
     public static String getFreeswitchSwitchname(EslEvent event) {
-        return event.getEventHeaders().get(FREESWITCH_SWITCHNAME);
+        return event.getEventHeader(FREESWITCH_SWITCHNAME);
     }
 
     public static String getEventDateTimestamp(EslEvent event) {
-        return event.getEventHeaders().get(EVENT_DATE_TIMESTAMP);
+        return event.getEventHeader(EVENT_DATE_TIMESTAMP);
     }
 
     public static String getCallerProfileCreatedTime(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_PROFILE_CREATED_TIME);
+        return event.getEventHeader(CALLER_PROFILE_CREATED_TIME);
     }
 
     public static String getCallerChannelCreatedTime(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_CHANNEL_CREATED_TIME);
+        return event.getEventHeader(CALLER_CHANNEL_CREATED_TIME);
     }
 
     public static String getCallerChannelProgressTime(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_CHANNEL_PROGRESS_TIME);
+        return event.getEventHeader(CALLER_CHANNEL_PROGRESS_TIME);
     }
 
     public static String getCallerChannelProgressMediaTime(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_CHANNEL_PROGRESS_MEDIA_TIME);
+        return event.getEventHeader(CALLER_CHANNEL_PROGRESS_MEDIA_TIME);
     }
 
     public static String getCallerChannelAnsweredTime(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_CHANNEL_ANSWERED_TIME);
+        return event.getEventHeader(CALLER_CHANNEL_ANSWERED_TIME);
     }
 
     public static String getCallerChannelHangupTime(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_CHANNEL_HANGUP_TIME);
+        return event.getEventHeader(CALLER_CHANNEL_HANGUP_TIME);
     }
 
     public static String getCallerChannelBridgedTime(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_CHANNEL_BRIDGED_TIME);
+        return event.getEventHeader(CALLER_CHANNEL_BRIDGED_TIME);
     }
 
     public static String getCallerNetworkAddr(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_NETWORK_ADDR);
+        return event.getEventHeader(CALLER_NETWORK_ADDR);
     }
 
     public static String getCallerContext(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_CONTEXT);
+        return event.getEventHeader(CALLER_CONTEXT);
     }
 
     public static String getCallerDialplan(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_DIALPLAN);
+        return event.getEventHeader(CALLER_DIALPLAN);
     }
 
     public static String getCallerDirection(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_DIRECTION);
+        return event.getEventHeader(CALLER_DIRECTION);
     }
 
     public static String getCallerLogicalDirection(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_LOGICAL_DIRECTION);
+        return event.getEventHeader(CALLER_LOGICAL_DIRECTION);
     }
 
     public static String getCallerProfileIndex(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_PROFILE_INDEX);
+        return event.getEventHeader(CALLER_PROFILE_INDEX);
     }
 
     public static String getCallerChannelName(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_CHANNEL_NAME);
+        return event.getEventHeader(CALLER_CHANNEL_NAME);
     }
 
     public static String getCallerChannelHoldAccum(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_CHANNEL_HOLD_ACCUM);
+        return event.getEventHeader(CALLER_CHANNEL_HOLD_ACCUM);
     }
 
     public static String getCallerChannelLastHold(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_CHANNEL_LAST_HOLD);
+        return event.getEventHeader(CALLER_CHANNEL_LAST_HOLD);
     }
 
     public static String getCallerChannelTransferTime(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_CHANNEL_TRANSFER_TIME);
+        return event.getEventHeader(CALLER_CHANNEL_TRANSFER_TIME);
     }
 
     public static String getCallerChannelResurrectTime(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_CHANNEL_RESURRECT_TIME);
+        return event.getEventHeader(CALLER_CHANNEL_RESURRECT_TIME);
     }
 
     public static String getCallerAni(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_ANI);
+        return event.getEventHeader(CALLER_ANI);
     }
 
     public static String getCallerUsername(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_USERNAME);
+        return event.getEventHeader(CALLER_USERNAME);
     }
 
     public static String getCallerDestinationNumber(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_DESTINATION_NUMBER);
+        return event.getEventHeader(CALLER_DESTINATION_NUMBER);
     }
 
     public static String getCallerCallerIdName(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_CALLER_ID_NAME);
+        return event.getEventHeader(CALLER_CALLER_ID_NAME);
     }
 
     public static String getCallerCallerIdNumber(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_CALLER_ID_NUMBER);
+        return event.getEventHeader(CALLER_CALLER_ID_NUMBER);
     }
 
     public static String getCallerOrigCallerIdName(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_ORIG_CALLER_ID_NAME);
+        return event.getEventHeader(CALLER_ORIG_CALLER_ID_NAME);
     }
 
     public static String getCallerOrigCallerIdNumber(EslEvent event) {
-        return event.getEventHeaders().get(CALLER_ORIG_CALLER_ID_NUMBER);
+        return event.getEventHeader(CALLER_ORIG_CALLER_ID_NUMBER);
     }
 
     public static String getSipToUri(EslEvent event) {
-        return event.getEventHeaders().get(VARIABLE_SIP_TO_URI);
+        return event.getEventHeader(VARIABLE_SIP_TO_URI);
     }
 }
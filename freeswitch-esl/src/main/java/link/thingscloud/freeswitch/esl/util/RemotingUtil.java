@@ -41,6 +41,9 @@ public class RemotingUtil {
      * @return a {@link java.lang.String} object.
      */
     public static String socketAddress2String(final SocketAddress address) {
+        if (!(address instanceof InetSocketAddress)) {
+            return String.valueOf(address);
+        }
         InetSocketAddress inetSocketAddress = (InetSocketAddress) address;
         return inetSocketAddress.getAddress().getHostAddress() +
                 ":" +
@@ -16,19 +16,22 @@ public class VariableUtil {
     }
 
     public static String get(EslEvent event, String key) {
-        return event.getEventHeaders().get(key);
+        return event.getEventHeader(key);
     }
 
     public static long getLongVar(EslEvent event, String key) {
-        return Long.parseLong(getVar(event.getEventHeaders(), key));
+        return Long.parseLong(getVar(event, key));
     }
 
     public static int getIntVar(EslEvent event, String key) {
-        return Integer.parseInt(getVar(event.getEventHeaders(), key));
+        return Integer.parseInt(getVar(event, key));
     }
 
     public static String getVar(EslEvent event, String key) {
-        return getVar(event.getEventHeaders(), key);
+        if (key.startsWith(VARIABLE_PREFIX)) {
+            return event.getEventHeader(key);
+        }
+        return event.getEventHeader(VARIABLE_PREFIX + key);
     }
 
     public static String getVar(Map<String, String> eventHeaders, String key) {
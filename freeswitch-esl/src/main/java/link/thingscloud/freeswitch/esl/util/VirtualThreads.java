@@ -0,0 +1,37 @@
+package link.thingscloud.freeswitch.esl.util;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * <p>VirtualThreads class.</p>
+ * <p>
+ * Virtual thread executors, available when running on Java 21 or later : the jar is multi-release
+ * and ships a Java 21 version of this class, this one only reports they are not supported.
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * <p>isSupported.</p>
+     *
+     * @return true if virtual threads can be used
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * An executor starting a new virtual thread per task.
+     *
+     * @param prefix thread name prefix
+     * @return a {@link java.util.concurrent.ExecutorService} object, null before Java 21 (see {@link #isSupported()})
+     */
+    public static ExecutorService newExecutor(String prefix) {
+        return null;
+    }
+}
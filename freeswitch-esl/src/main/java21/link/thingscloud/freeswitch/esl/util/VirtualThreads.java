@@ -0,0 +1,37 @@
+package link.thingscloud.freeswitch.esl.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>VirtualThreads class.</p>
+ * <p>
+ * Java 21 version of the class, packaged under {@code META-INF/versions/21}.
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * <p>isSupported.</p>
+     *
+     * @return true if virtual threads can be used
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * An executor starting a new virtual thread per task.
+     *
+     * @param prefix thread name prefix
+     * @return a {@link java.util.concurrent.ExecutorService} object.
+     */
+    public static ExecutorService newExecutor(String prefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix + "-", 0).factory());
+    }
+}
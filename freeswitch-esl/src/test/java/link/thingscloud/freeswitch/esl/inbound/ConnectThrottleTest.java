@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package link.thingscloud.freeswitch.esl.inbound;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import junit.framework.TestCase;
+import link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption;
+
+/**
+ * <p>ConnectThrottleTest class.</p>
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class ConnectThrottleTest extends TestCase {
+
+    public void testBackoffStaysUnderTheCeiling() {
+        ConnectThrottle throttle = new ConnectThrottle(new InboundClientOption()
+                .reconnectBackoffBaseMillis(100).reconnectBackoffMaxMillis(5000));
+        for (int i = 0; i < 200; i++) {
+            assertTrue(throttle.reconnectDelayMillis(0, 5) <= 100);
+            assertTrue(throttle.reconnectDelayMillis(3, 5) <= 800);
+            assertTrue(throttle.reconnectDelayMillis(Integer.MAX_VALUE, 5) <= 5000);
+        }
+        assertEquals(5000L, new ConnectThrottle(new InboundClientOption()).reconnectDelayMillis(7, 5));
+    }
+
+    public void testPermitReleasedOnce() {
+        ConnectThrottle throttle = new ConnectThrottle(new InboundClientOption().maxConcurrentConnects(1));
+        assertTrue(throttle.tryAcquire());
+        assertFalse(throttle.tryAcquire());
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.attr(ConnectThrottle.CONNECT_PERMIT).set(Boolean.TRUE);
+        throttle.release(channel);
+        throttle.release(channel);
+        assertTrue(throttle.tryAcquire());
+        assertFalse(throttle.tryAcquire());
+    }
+}
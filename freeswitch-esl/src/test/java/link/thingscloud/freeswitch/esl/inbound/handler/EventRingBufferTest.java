@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package link.thingscloud.freeswitch.esl.inbound.handler;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import junit.framework.TestCase;
+import link.thingscloud.freeswitch.esl.inbound.option.WaitStrategy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>EventRingBufferTest class.</p>
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class EventRingBufferTest extends TestCase {
+
+    public void testEveryStrategyConsumesAllProducers() throws Exception {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            CountDownLatch latch = new CountDownLatch(10000);
+            AtomicLong sum = new AtomicLong();
+            EventRingBuffer<String, Integer> ring = new EventRingBuffer<>(64, 3, waitStrategy,
+                    new DefaultThreadFactory("test-ring", true), (source, element) -> {
+                assertEquals("producer-" + element % 2, source);
+                sum.addAndGet(element);
+                latch.countDown();
+            });
+            Thread[] producers = new Thread[2];
+            for (int p = 0; p < producers.length; p++) {
+                int first = p;
+                producers[p] = new Thread(() -> {
+                    for (int i = first; i < 10000; i += producers.length) {
+                        while (!ring.offer("producer-" + first, i)) {
+                            Thread.yield();
+                        }
+                    }
+                });
+                producers[p].start();
+            }
+            assertTrue(waitStrategy.name(), latch.await(10, TimeUnit.SECONDS));
+            assertEquals(49995000L, sum.get());
+            ring.shutdown();
+        }
+    }
+
+    public void testSingleConsumerKeepsOrderAndReportsFull() throws Exception {
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        List<Integer> consumed = new CopyOnWriteArrayList<>();
+        EventRingBuffer<Object, Integer> ring = new EventRingBuffer<>(3, 1, WaitStrategy.BLOCKING,
+                new DefaultThreadFactory("test-ring", true), (source, element) -> {
+            if (element == 0) {
+                taken.countDown();
+                await(blocked);
+            }
+            consumed.add(element);
+        });
+        assertEquals(4, ring.capacity());
+        assertTrue(ring.offer(null, 0));
+        assertTrue(taken.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 5; i++) {
+            assertTrue(ring.offer(null, i));
+        }
+        // element 0 is taken and holds the consumer, its slot is free again
+        assertFalse(ring.offer(null, 5));
+        CountDownLatch notFull = new CountDownLatch(1);
+        ring.whenNotFull(notFull::countDown);
+        blocked.countDown();
+        assertTrue(notFull.await(5, TimeUnit.SECONDS));
+        ring.shutdown();
+        for (int i = 0; i < 100 && consumed.size() < 5; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(5, consumed.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, consumed.get(i).intValue());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
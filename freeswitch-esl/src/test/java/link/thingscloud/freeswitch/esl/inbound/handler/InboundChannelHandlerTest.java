@@ -0,0 +1,401 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package link.thingscloud.freeswitch.esl.inbound.handler;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import junit.framework.TestCase;
+import link.thingscloud.freeswitch.esl.exception.InboundClientException;
+import link.thingscloud.freeswitch.esl.exception.InboundClosedException;
+import link.thingscloud.freeswitch.esl.inbound.listener.ChannelEventListener;
+import link.thingscloud.freeswitch.esl.inbound.option.InFlightPolicy;
+import link.thingscloud.freeswitch.esl.inbound.option.InboundClientOption;
+import link.thingscloud.freeswitch.esl.inbound.option.WaitStrategy;
+import link.thingscloud.freeswitch.esl.transport.BatchResponse;
+import link.thingscloud.freeswitch.esl.transport.EslCommand;
+import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
+import link.thingscloud.freeswitch.esl.transport.message.EslHeaders;
+import link.thingscloud.freeswitch.esl.transport.message.EslMessage;
+import link.thingscloud.freeswitch.esl.transport.message.EslZeroCopyFrameDecoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>InboundChannelHandlerTest class.</p>
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class InboundChannelHandlerTest extends TestCase {
+
+    private static final String REPLY = "Content-Type: command/reply\nReply-Text: +OK\n\n";
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @Override
+    protected void tearDown() {
+        executor.shutdownNow();
+    }
+
+    public void testPipelinedWindow() throws Exception {
+        InboundChannelHandler handler = newHandler(2, InFlightPolicy.QUEUE);
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192, false, false), handler);
+
+        CompletableFuture<EslMessage> first = handler.sendCommand(EslCommand.line("event plain ALL"));
+        CompletableFuture<EslMessage> second = handler.sendCommand(EslCommand.line("nolog"));
+        CompletableFuture<EslMessage> third = handler.sendCommand(EslCommand.line("noevents"));
+        // two commands on the wire, the third waits for the window
+        assertEquals("event plain ALL", channel.readOutbound().toString());
+        assertEquals("nolog", channel.readOutbound().toString());
+        assertNull(channel.readOutbound());
+        assertEquals(3, handler.inFlightCommands());
+
+        reply(channel);
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        assertEquals("noevents", channel.readOutbound().toString());
+
+        reply(channel);
+        reply(channel);
+        assertEquals("+OK", second.get().getHeaderValue(EslHeaders.Name.REPLY_TEXT));
+        assertTrue(third.isDone());
+        assertEquals(0, handler.inFlightCommands());
+        assertFalse(channel.finish());
+    }
+
+    public void testFailFast() throws Exception {
+        InboundChannelHandler handler = newHandler(1, InFlightPolicy.FAIL_FAST);
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192, false, false), handler);
+
+        CompletableFuture<EslMessage> first = handler.sendCommand(EslCommand.line("nolog"));
+        CompletableFuture<EslMessage> second = handler.sendCommand(EslCommand.line("noevents"));
+        try {
+            second.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof InboundClientException);
+        }
+        reply(channel);
+        assertTrue(first.isDone());
+        assertEquals("nolog", channel.readOutbound().toString());
+        assertNull(channel.readOutbound());
+        channel.finish();
+    }
+
+    public void testCloseFailsPending() throws Exception {
+        InboundChannelHandler handler = newHandler(1, InFlightPolicy.QUEUE);
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192, false, false), handler);
+
+        CompletableFuture<EslMessage> pending = handler.sendCommand(EslCommand.line("nolog"));
+        CompletableFuture<EslMessage> queued = handler.sendCommand(EslCommand.line("noevents"));
+        CompletableFuture<EslEvent> job = handler.sendBackgroundJobCommand(EslCommand.bgapi("status", null));
+        channel.close();
+        for (CompletableFuture<?> future : new CompletableFuture<?>[]{pending, queued, job}) {
+            try {
+                future.get();
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof InboundClosedException);
+            }
+        }
+        channel.finishAndReleaseAll();
+    }
+
+    public void testBackgroundJobEventReadWithItsReply() throws Exception {
+        InboundChannelHandler handler = newHandler(0, InFlightPolicy.QUEUE);
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192, false, false), handler);
+
+        CompletableFuture<EslEvent> job = handler.sendBackgroundJobCommand(EslCommand.bgapi("status", null));
+        assertEquals("bgapi status", channel.readOutbound().toString());
+        String body = "Event-Name: BACKGROUND_JOB\nJob-UUID: 42\nContent-Length: 4\n\n+OK\n";
+        // the reply and the event of the job in one read
+        channel.writeInbound(Unpooled.copiedBuffer("Content-Type: command/reply\nReply-Text: +OK Job-UUID: 42\nJob-UUID: 42\n\n"
+                + "Content-Length: " + body.length() + "\nContent-Type: text/event-plain\n\n" + body, StandardCharsets.UTF_8));
+        assertTrue(job.isDone());
+        assertEquals("+OK", job.get().getEventBodyLines().get(0));
+        channel.finishAndReleaseAll();
+    }
+
+    public void testBatchKeepsOrderAndReportsFailures() throws Exception {
+        InboundChannelHandler handler = newHandler(0, InFlightPolicy.QUEUE);
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192, false, false), handler);
+
+        List<EslCommand> commands = Arrays.asList(EslCommand.bgapi("uuid_kill", "a"),
+                EslCommand.bgapi("uuid_kill", "b"), EslCommand.bgapi("uuid_kill", "c"));
+        CompletableFuture<BatchResponse> batch = BatchResponse.collect(commands, handler.sendCommands(commands));
+        assertEquals("bgapi uuid_kill a", channel.readOutbound().toString());
+        assertEquals("bgapi uuid_kill b", channel.readOutbound().toString());
+        assertEquals("bgapi uuid_kill c", channel.readOutbound().toString());
+
+        reply(channel);
+        channel.writeInbound(Unpooled.copiedBuffer("Content-Type: command/reply\nReply-Text: -ERR no such channel\n\n", StandardCharsets.UTF_8));
+        assertFalse(batch.isDone());
+        channel.close();
+
+        BatchResponse response = batch.get();
+        assertTrue(response.isOk(0));
+        assertFalse(response.isOk(1));
+        assertNull(response.getFailure(1));
+        assertTrue(response.getFailure(2) instanceof InboundClosedException);
+        assertEquals(Arrays.asList(1, 2), response.getFailedIndexes());
+        channel.finishAndReleaseAll();
+    }
+
+    public void testEventLanesKeepCallOrder() throws Exception {
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        ChannelEventListener listener = new NoopListener() {
+            @Override
+            public void handleEslEvent(String remoteAddr, EslEvent event) {
+                received.computeIfAbsent(event.getEventHeader("Unique-ID"), key -> new CopyOnWriteArrayList<>())
+                        .add(Integer.valueOf(event.getEventHeader("Event-Sequence")));
+            }
+        };
+        EventLanes lanes = new EventLanes(4, new DefaultThreadFactory("test-lane", true));
+        InboundChannelHandler handler = new InboundChannelHandler(listener, executor, lanes, null, new InboundClientOption(), null);
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192, false, false), handler);
+        for (int i = 0; i < 100; i++) {
+            String body = "Event-Name: CHANNEL_STATE\nUnique-ID: call-" + (i % 5) + "\nEvent-Sequence: " + i + "\n\n";
+            channel.writeInbound(Unpooled.copiedBuffer("Content-Length: " + body.length()
+                    + "\nContent-Type: text/event-plain\n\n" + body, StandardCharsets.UTF_8));
+        }
+        assertTrue(lanes.shutdownGracefully().await(5, TimeUnit.SECONDS));
+
+        assertEquals(5, received.size());
+        for (int call = 0; call < 5; call++) {
+            List<Integer> sequences = received.get("call-" + call);
+            assertEquals(20, sequences.size());
+            for (int i = 0; i < sequences.size(); i++) {
+                assertEquals(call + i * 5, sequences.get(i).intValue());
+            }
+        }
+        channel.finishAndReleaseAll();
+    }
+
+    public void testFullRingStopsReadingAndKeepsOrder() throws Exception {
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        List<String> received = new CopyOnWriteArrayList<>();
+        ChannelEventListener listener = new NoopListener() {
+            @Override
+            public void handleEslEvent(String remoteAddr, EslEvent event) {
+                if (received.isEmpty()) {
+                    taken.countDown();
+                    try {
+                        blocked.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                received.add(event.getEventHeader("Unique-ID"));
+            }
+        };
+        EventRingBuffer<InboundChannelHandler, EslEvent> ring = InboundChannelHandler.newEventRing(2, 1, WaitStrategy.BLOCKING,
+                new DefaultThreadFactory("test-ring", true));
+        InboundChannelHandler handler = new InboundChannelHandler(listener, executor, null, ring, new InboundClientOption(), null);
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192, false, false), handler);
+
+        call(channel, 0);
+        assertTrue(taken.await(5, TimeUnit.SECONDS));
+        call(channel, 1);
+        call(channel, 2);
+        assertTrue(channel.config().isAutoRead());
+        // the ring is full, the next events wait in order
+        call(channel, 3);
+        assertFalse(channel.config().isAutoRead());
+        call(channel, 4);
+        // a ring capacity of events waits, the next one is dropped
+        call(channel, 5);
+        assertEquals(1L, handler.backpressure().shed());
+
+        blocked.countDown();
+        for (int i = 0; i < 100 && (received.size() < 5 || !channel.config().isAutoRead()); i++) {
+            Thread.sleep(10);
+            channel.runPendingTasks();
+        }
+        assertTrue(channel.config().isAutoRead());
+        assertEquals(Arrays.asList("call-0", "call-1", "call-2", "call-3", "call-4"), received);
+        ring.shutdown();
+        channel.finishAndReleaseAll();
+    }
+
+    public void testBackpressureStopsReadingAndShedsHeartbeats() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        ChannelEventListener listener = new NoopListener() {
+            @Override
+            public void handleEslEvent(String remoteAddr, EslEvent event) {
+                received.add(event.getEventName());
+            }
+        };
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        InboundClientOption option = new InboundClientOption().eventQueueHighWatermark(2);
+        InboundChannelHandler handler = new InboundChannelHandler(listener, executor, option, null);
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192, false, false), handler);
+
+        event(channel, "CHANNEL_CREATE");
+        assertTrue(channel.config().isAutoRead());
+        event(channel, "CHANNEL_ANSWER");
+        assertFalse(channel.config().isAutoRead());
+        event(channel, "HEARTBEAT");
+        event(channel, "CHANNEL_HANGUP_COMPLETE");
+        assertEquals(3, handler.backpressure().pending());
+        assertEquals(1L, handler.backpressure().shed());
+
+        blocked.countDown();
+        for (int i = 0; i < 100 && (handler.backpressure().pending() > 0 || !channel.config().isAutoRead()); i++) {
+            Thread.sleep(10);
+            // reading resumes on the event loop
+            channel.runPendingTasks();
+        }
+        assertTrue(channel.config().isAutoRead());
+        assertEquals(Arrays.asList("CHANNEL_CREATE", "CHANNEL_ANSWER", "CHANNEL_HANGUP_COMPLETE"), received);
+        channel.finishAndReleaseAll();
+    }
+
+    public void testSuspendedChannelReadsRepliesOfListenerCommands() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        InboundClientOption option = new InboundClientOption().eventQueueHighWatermark(1);
+        InboundChannelHandler handler = new InboundChannelHandler(new NoopListener(), executor, option, null);
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192, false, false), handler);
+
+        event(channel, "CHANNEL_CREATE");
+        assertFalse(channel.config().isAutoRead());
+
+        // a listener blocked on its reply while the events wait
+        CompletableFuture<EslMessage> future = handler.sendCommand(EslCommand.api("status", null));
+        assertTrue(channel.config().isAutoRead());
+        assertEquals("api status", channel.readOutbound().toString());
+        channel.writeInbound(Unpooled.copiedBuffer("Content-Type: api/response\nContent-Length: 3\n\n+OK", StandardCharsets.UTF_8));
+        assertTrue(future.isDone());
+        assertFalse(channel.config().isAutoRead());
+
+        blocked.countDown();
+        for (int i = 0; i < 100 && !channel.config().isAutoRead(); i++) {
+            Thread.sleep(10);
+            channel.runPendingTasks();
+        }
+        assertTrue(channel.config().isAutoRead());
+        channel.finishAndReleaseAll();
+    }
+
+    public void testHardLimitStopsReadingWhileBackgroundJobIsAwaited() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        InboundClientOption option = new InboundClientOption().eventQueueHighWatermark(2).eventQueueHardLimit(4);
+        InboundChannelHandler handler = new InboundChannelHandler(new NoopListener(), executor, option, null);
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192, false, false), handler);
+
+        // a long running originate
+        CompletableFuture<EslEvent> job = handler.sendBackgroundJobCommand(EslCommand.bgapi("originate", "user/1000 &park"));
+        channel.readOutbound();
+        channel.writeInbound(Unpooled.copiedBuffer("Content-Type: command/reply\nReply-Text: +OK Job-UUID: 42\nJob-UUID: 42\n\n",
+                StandardCharsets.UTF_8));
+        assertFalse(job.isDone());
+
+        for (int i = 0; i < 3; i++) {
+            event(channel, "CHANNEL_STATE");
+            // the BACKGROUND_JOB event must still be read
+            assertTrue(channel.config().isAutoRead());
+        }
+        event(channel, "CHANNEL_STATE");
+        assertEquals(4, handler.backpressure().pending());
+        assertFalse(channel.config().isAutoRead());
+
+        blocked.countDown();
+        for (int i = 0; i < 100 && !channel.config().isAutoRead(); i++) {
+            Thread.sleep(10);
+            channel.runPendingTasks();
+        }
+        assertTrue(channel.config().isAutoRead());
+        channel.finishAndReleaseAll();
+    }
+
+    private InboundChannelHandler newHandler(int maxInFlightCommands, InFlightPolicy policy) {
+        InboundClientOption option = new InboundClientOption().disablePublicExecutor(true)
+                .maxInFlightCommands(maxInFlightCommands).inFlightPolicy(policy);
+        return new InboundChannelHandler(new NoopListener(), executor, option, null);
+    }
+
+    private static void event(EmbeddedChannel channel, String eventName) {
+        String body = "Event-Name: " + eventName + "\n\n";
+        channel.writeInbound(Unpooled.copiedBuffer("Content-Length: " + body.length()
+                + "\nContent-Type: text/event-plain\n\n" + body, StandardCharsets.UTF_8));
+    }
+
+    private static void call(EmbeddedChannel channel, int call) {
+        String body = "Event-Name: CHANNEL_STATE\nUnique-ID: call-" + call + "\n\n";
+        channel.writeInbound(Unpooled.copiedBuffer("Content-Length: " + body.length()
+                + "\nContent-Type: text/event-plain\n\n" + body, StandardCharsets.UTF_8));
+    }
+
+    private static void reply(EmbeddedChannel channel) {
+        channel.writeInbound(Unpooled.copiedBuffer(REPLY, StandardCharsets.UTF_8));
+    }
+
+    private static class NoopListener implements ChannelEventListener {
+        @Override
+        public void onChannelActive(String remoteAddr, InboundChannelHandler inboundChannelHandler) {
+        }
+
+        @Override
+        public void onChannelClosed(String remoteAddr, InboundChannelHandler inboundChannelHandler) {
+        }
+
+        @Override
+        public void handleAuthRequest(String remoteAddr, InboundChannelHandler inboundChannelHandler) {
+        }
+
+        @Override
+        public void handleEslEvent(String remoteAddr, EslEvent event) {
+        }
+
+        @Override
+        public void handleDisconnectNotice(String remoteAddr) {
+        }
+    }
+}
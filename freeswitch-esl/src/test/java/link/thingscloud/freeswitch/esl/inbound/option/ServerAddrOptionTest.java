@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package link.thingscloud.freeswitch.esl.inbound.option;
+
+import junit.framework.TestCase;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p>ServerAddrOptionTest class.</p>
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class ServerAddrOptionTest extends TestCase {
+
+    public void testLeastLoadSkipsBusyAndUnauthed() {
+        long now = System.currentTimeMillis() * 1000L;
+        InboundClientOption option = new InboundClientOption()
+                .addServerOption(new ServerOption("10.0.0.1", 8021).state(ConnectState.AUTHED)
+                        .load(new ServerLoad(900, 30, 20D, 1000, now)))
+                .addServerOption(new ServerOption("10.0.0.2", 8021).state(ConnectState.AUTHED)
+                        .load(new ServerLoad(100, 30, 80D, 1000, now)))
+                .addServerOption(new ServerOption("10.0.0.3", 8021).state(ConnectState.CLOSED));
+        for (int i = 0; i < 20; i++) {
+            assertEquals("10.0.0.2:8021", option.serverAddrOption().leastLoad());
+        }
+        assertEquals(0.9D, option.serverOptions().get(0).load().load(), 1e-9);
+
+        option.serverOptions().get(0).state(ConnectState.CLOSED);
+        assertSame(ServerLoad.UNKNOWN, option.serverOptions().get(0).load());
+    }
+
+    public void testUnknownAndStaleLoadsAreNeutral() {
+        long stale = (System.currentTimeMillis() - 2 * ServerLoad.MAX_AGE_MILLIS) * 1000L;
+        InboundClientOption option = new InboundClientOption()
+                .addServerOption(new ServerOption("10.0.0.1", 8021).state(ConnectState.AUTHED))
+                .addServerOption(new ServerOption("10.0.0.2", 8021).state(ConnectState.AUTHED)
+                        .load(new ServerLoad(100, 30, 80D, 1000, stale)));
+        Set<String> picked = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            picked.add(option.serverAddrOption().leastLoad());
+        }
+        assertEquals(2, picked.size());
+    }
+}
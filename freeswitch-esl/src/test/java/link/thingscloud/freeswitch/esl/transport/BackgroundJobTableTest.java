@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package link.thingscloud.freeswitch.esl.transport;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.HashedWheelTimer;
+import junit.framework.TestCase;
+import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
+import link.thingscloud.freeswitch.esl.transport.message.EslMessage;
+import link.thingscloud.freeswitch.esl.transport.message.EslZeroCopyFrameDecoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>BackgroundJobTableTest class.</p>
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class BackgroundJobTableTest extends TestCase {
+
+    private static final String JOB_UUID = "7f4de4bc-17d7-11dd-b7a0-db4edd065621";
+    private static final String BODY = "Event-Name: BACKGROUND_JOB\n"
+            + "Job-UUID: " + JOB_UUID + "\n"
+            + "Content-Length: 4\n"
+            + "\n"
+            + "+OK\n";
+    private static final String FRAME = "Content-Length: " + BODY.length() + "\nContent-Type: text/event-plain\n\n" + BODY;
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS);
+
+    @Override
+    protected void tearDown() {
+        timer.stop();
+    }
+
+    public void testCompleteByJobUuid() throws Exception {
+        BackgroundJobTable table = new BackgroundJobTable(timer, 60000);
+        CompletableFuture<EslEvent> future = table.register(JOB_UUID);
+        assertEquals(1, table.size());
+        assertTrue(table.complete(newEvent()));
+        assertEquals(0, table.size());
+        assertEquals("+OK", future.get().getEventBodyLines().get(0));
+        assertFalse(table.complete(newEvent()));
+    }
+
+    public void testExpiry() throws Exception {
+        BackgroundJobTable table = new BackgroundJobTable(timer, 50);
+        CompletableFuture<EslEvent> future = table.register(JOB_UUID);
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertEquals(0, table.size());
+    }
+
+    private static EslEvent newEvent() {
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192));
+        channel.writeInbound(Unpooled.copiedBuffer(FRAME, StandardCharsets.UTF_8));
+        EslMessage message = channel.readInbound();
+        channel.finish();
+        return new EslEvent(message);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import junit.framework.TestCase;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>EslCommandEncoderTest class.</p>
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class EslCommandEncoderTest extends TestCase {
+
+    public void testEncodeCommands() {
+        EmbeddedChannel channel = new EmbeddedChannel(new EslCommandEncoder());
+        channel.writeOutbound(EslCommand.api("status", null));
+        channel.writeOutbound(EslCommand.bgapi("originate", "user/1000 &park"));
+        channel.writeOutbound(new SendMsg("1234").addCallCommand("hangup"));
+        assertEquals("api status\n\n", read(channel));
+        assertEquals("bgapi originate user/1000 &park\n\n", read(channel));
+        assertEquals("sendmsg 1234\ncall-command: hangup\n\n", read(channel));
+        assertFalse(channel.finish());
+    }
+
+    private static String read(EmbeddedChannel channel) {
+        ByteBuf buf = channel.readOutbound();
+        try {
+            return buf.toString(StandardCharsets.UTF_8);
+        } finally {
+            buf.release();
+        }
+    }
+}
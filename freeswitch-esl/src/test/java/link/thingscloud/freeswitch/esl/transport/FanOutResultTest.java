@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package link.thingscloud.freeswitch.esl.transport;
+
+import junit.framework.TestCase;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>FanOutResultTest class.</p>
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class FanOutResultTest extends TestCase {
+
+    public void testCollectAndSum() {
+        Map<String, CompletableFuture<String>> futures = new LinkedHashMap<>();
+        futures.put("10.0.0.1:8021", CompletableFuture.completedFuture("3 total."));
+        futures.put("10.0.0.2:8021", CompletableFuture.completedFuture("4 total."));
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("closed"));
+        futures.put("10.0.0.3:8021", failed);
+        futures.put("10.0.0.4:8021", new CompletableFuture<>());
+
+        FanOutResult<String> result = FanOutResult.collect(futures, TimeoutException::new);
+        assertFalse(result.isOk());
+        assertEquals(4, result.size());
+        assertEquals(2, result.getResults().size());
+        assertTrue(result.getFailures().get("10.0.0.3:8021") instanceof IllegalStateException);
+        assertTrue(result.getFailures().get("10.0.0.4:8021") instanceof TimeoutException);
+        assertEquals(7L, result.sum(count -> Long.parseLong(count.split(" ")[0])));
+        assertEquals("3 total.4 total.", result.reduce("", String::concat));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport.event;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import junit.framework.TestCase;
+import link.thingscloud.freeswitch.esl.transport.message.EslFrameDecoder;
+import link.thingscloud.freeswitch.esl.transport.message.EslMessage;
+import link.thingscloud.freeswitch.esl.transport.message.EslZeroCopyFrameDecoder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>EslEventJsonParserTest class.</p>
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class EslEventJsonParserTest extends TestCase {
+
+    private static final String BODY = "{\"Event-Name\":\"BACKGROUND_JOB\",\"Core-UUID\":\"1234\","
+            + "\"Job-UUID\":\"7f4de4bc-17d7-11dd-b7a0-db4edd065621\","
+            + "\"Job-Command-Arg\":\"sofia/default/1005 '&park' \\u00e9\","
+            + "\"Content-Length\":\"41\",\"_body\":\"+OK 7f4de4bc-17d7-11dd-b7a0-db4edd065621\\n\"}";
+    private static final String FRAME = "Content-Length: " + BODY.getBytes(StandardCharsets.UTF_8).length
+            + "\nContent-Type: text/event-json\n\n" + BODY;
+
+    public void testJsonEvent() {
+        EslEvent event = new EslEvent(decode(new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192))));
+        assertEquals("BACKGROUND_JOB", event.getEventName());
+        assertEquals("sofia/default/1005 '&park' \u00e9", event.getEventHeader("Job-Command-Arg"));
+        assertEquals(5, event.getEventHeaders().size());
+        assertEquals(1, event.getEventBodyLines().size());
+        assertEquals("+OK 7f4de4bc-17d7-11dd-b7a0-db4edd065621", event.getEventBodyLines().get(0));
+    }
+
+    public void testSameAsReplayingDecoder() {
+        EslEvent lazy = new EslEvent(decode(new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192))));
+        EslEvent eager = new EslEvent(decode(new EmbeddedChannel(new EslFrameDecoder(8192))));
+        assertEquals(eager.getEventHeaders(), lazy.getEventHeaders());
+        assertEquals(eager.getEventBodyLines(), lazy.getEventBodyLines());
+    }
+
+    private static EslMessage decode(EmbeddedChannel channel) {
+        channel.writeInbound(Unpooled.copiedBuffer(FRAME, StandardCharsets.UTF_8));
+        return channel.readInbound();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport.event;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import junit.framework.TestCase;
+import link.thingscloud.freeswitch.esl.transport.message.EslFrameDecoder;
+import link.thingscloud.freeswitch.esl.transport.message.EslMessage;
+import link.thingscloud.freeswitch.esl.transport.message.EslZeroCopyFrameDecoder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>EslEventTest class.</p>
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class EslEventTest extends TestCase {
+
+    private static final String BODY = "Event-Name: BACKGROUND_JOB\n"
+            + "Core-UUID: 1234\n"
+            + "Job-UUID: 7f4de4bc-17d7-11dd-b7a0-db4edd065621\n"
+            + "Job-Command: originate\n"
+            + "Job-Command-Arg: sofia/default/1005%20'%26park'\n"
+            + "Content-Length: 41\n"
+            + "\n"
+            + "+OK 7f4de4bc-17d7-11dd-b7a0-db4edd065621\n";
+    private static final String FRAME = "Content-Length: " + BODY.length() + "\nContent-Type: text/event-plain\n\n" + BODY;
+
+    public void testLazyEvent() {
+        EslEvent event = new EslEvent(decode(new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192))));
+        assertEquals("BACKGROUND_JOB", event.getEventName());
+        assertEquals("sofia/default/1005 '&park'", event.getEventHeader("Job-Command-Arg"));
+        assertNull(event.getEventHeader("Unique-ID"));
+        assertEquals(1, event.getEventBodyLines().size());
+        assertEquals(6, event.getEventHeaders().size());
+    }
+
+    public void testSameAsEagerEvent() {
+        EslEvent lazy = new EslEvent(decode(new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192))));
+        EslEvent eager = new EslEvent(decode(new EmbeddedChannel(new EslFrameDecoder(8192))));
+        assertEquals(eager.getEventHeaders(), lazy.getEventHeaders());
+        assertEquals(eager.getEventBodyLines(), lazy.getEventBodyLines());
+    }
+
+    public void testSharedNamesAndValues() {
+        EslEvent first = new EslEvent(decode(new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192))));
+        EslEvent second = new EslEvent(decode(new EmbeddedChannel(new EslFrameDecoder(8192))));
+        assertSame(first.getEventHeader("Core-UUID"), second.getEventHeader("Core-UUID"));
+        for (String name : first.getEventHeaders().keySet()) {
+            assertSame(EslEventHeaderTable.canonical(name), name);
+        }
+    }
+
+    public void testPooledEvent() {
+        EslMessage message = decode(new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192, false, true)));
+        assertTrue(message.isPooled());
+        EslEvent event = EslEvent.valueOf(message);
+        assertFalse(message.release());
+        assertEquals(1, message.refCnt());
+        assertTrue(event.isPooled());
+        assertEquals("sofia/default/1005 '&park'", event.getEventHeader("Job-Command-Arg"));
+        assertFalse(event.retain().release());
+        assertTrue(event.release());
+        assertEquals(0, message.refCnt());
+    }
+
+    private static EslMessage decode(EmbeddedChannel channel) {
+        channel.writeInbound(Unpooled.copiedBuffer(FRAME, StandardCharsets.UTF_8));
+        return channel.readInbound();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport.message;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import junit.framework.TestCase;
+import link.thingscloud.freeswitch.esl.transport.event.EslEvent;
+import link.thingscloud.freeswitch.esl.transport.event.EventHeaderProjection;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>EslZeroCopyFrameDecoderTest class.</p>
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class EslZeroCopyFrameDecoderTest extends TestCase {
+
+    private static final String REPLY = "Content-Type: command/reply\nReply-Text: +OK accepted\n\n";
+    private static final String BODY = "Event-Name: HEARTBEAT\nCore-UUID: 1234\n";
+    private static final String EVENT = "Content-Length: " + BODY.length() + "\nContent-Type: text/event-plain\n\n" + BODY;
+
+    public void testDecodeReply() {
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192));
+        channel.writeInbound(Unpooled.copiedBuffer(REPLY, StandardCharsets.UTF_8));
+        EslMessage message = channel.readInbound();
+        assertEquals(EslHeaders.Value.COMMAND_REPLY, message.getContentType());
+        assertEquals("+OK accepted", message.getHeaderValue(EslHeaders.Name.REPLY_TEXT));
+        assertTrue(message.getBodyLines().isEmpty());
+        assertFalse(channel.finish());
+    }
+
+    public void testDecodeFragmentedEvent() {
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192));
+        String frames = EVENT + REPLY;
+        for (int i = 0; i < frames.length(); i++) {
+            channel.writeInbound(Unpooled.copiedBuffer(frames.substring(i, i + 1), StandardCharsets.UTF_8));
+        }
+        EslMessage event = channel.readInbound();
+        assertEquals(EslHeaders.Value.TEXT_EVENT_PLAIN, event.getContentType());
+        assertEquals(2, event.getBodyLines().size());
+        assertEquals("Event-Name: HEARTBEAT", event.getBodyLines().get(0));
+        // split once and shared by every reader
+        assertSame(event.getBodyLines(), event.getBodyLines());
+        EslMessage reply = channel.readInbound();
+        assertEquals(EslHeaders.Value.COMMAND_REPLY, reply.getContentType());
+        assertFalse(channel.finish());
+    }
+
+    public void testHeaderProjection() {
+        String body = "Event-Name: BACKGROUND_JOB\nCore-UUID: 1234\nJob-UUID: 42\nJob-Command: status\n"
+                + "Content-Length: 4\n\n+OK\n";
+        String frame = "Content-Length: " + body.length() + "\nContent-Type: text/event-plain\n\n" + body;
+        EventHeaderProjection projection = new EventHeaderProjection().add("BACKGROUND_JOB", "Job-Command");
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192, false, false, projection));
+        channel.writeInbound(Unpooled.copiedBuffer(frame + REPLY, StandardCharsets.UTF_8));
+        EslEvent event = new EslEvent(channel.readInbound());
+        assertEquals("status", event.getEventHeader("Job-Command"));
+        assertEquals("42", event.getEventHeader("Job-UUID"));
+        assertNull(event.getEventHeader("Core-UUID"));
+        assertEquals("+OK", event.getEventBodyLines().get(0));
+        EslMessage reply = channel.readInbound();
+        assertEquals(EslHeaders.Value.COMMAND_REPLY, reply.getContentType());
+        // the server load is read from every HEARTBEAT
+        assertTrue(projection.add("HEARTBEAT", "Up-Time").headers("HEARTBEAT").containsAll(EventHeaderProjection.HEARTBEAT_HEADERS));
+    }
+
+    public void testUnknownHeaderAsBody() {
+        EmbeddedChannel channel = new EmbeddedChannel(new EslZeroCopyFrameDecoder(8192, true));
+        channel.writeInbound(Unpooled.copiedBuffer("Content-Type: command/reply\nChannel-Name: sofia/internal/1000\n\n", StandardCharsets.UTF_8));
+        EslMessage message = channel.readInbound();
+        assertEquals(1, message.getBodyLines().size());
+        assertEquals("Channel-Name: sofia/internal/1000", message.getBodyLines().get(0));
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package link.thingscloud.freeswitch.esl.transport.util;
+
+import junit.framework.TestCase;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>PercentDecoderTest class.</p>
+ *
+ * @author zhouhailin
+ * @version 1.0.0
+ */
+public class PercentDecoderTest extends TestCase {
+
+    public void testUnchanged() {
+        String value = "sofia/internal/1000@127.0.0.1";
+        assertSame(value, PercentDecoder.decode(value));
+    }
+
+    public void testDecode() {
+        assertEquals("Tue, 02 Mar 2021 10:00:00 GMT", PercentDecoder.decode("Tue,%2002%20Mar%202021%2010%3A00%3A00%20GMT"));
+        assertEquals("a b", PercentDecoder.decode("a+b"));
+        assertEquals("中文", PercentDecoder.decode("%E4%B8%AD%E6%96%87"));
+        assertEquals("100%", PercentDecoder.decode("100%"));
+    }
+
+    public void testDecodeSlice() {
+        byte[] bytes = "Caller-Caller-ID-Name: Extension%201000\n".getBytes(StandardCharsets.UTF_8);
+        assertEquals("Extension 1000", PercentDecoder.decode(bytes, 23, 16));
+    }
+}
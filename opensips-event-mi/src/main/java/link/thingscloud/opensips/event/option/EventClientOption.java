@@ -47,6 +47,8 @@ public class EventClientOption {
     private int readTimeoutSeconds = 120;
     private int readerIdleTimeSeconds = 120;
     private boolean disablePublicExecutor = false;
+    private boolean nativeTransport = false;
+    private boolean edgeTriggered = true;
     private boolean performance = false;
     private long performanceCostTime = 200;
     private boolean eventPerformance = false;
@@ -263,6 +265,52 @@ public class EventClientOption {
         return this;
     }
 
+    /**
+     * <p>nativeTransport.</p>
+     *
+     * @return a boolean.
+     */
+    public boolean nativeTransport() {
+        return nativeTransport;
+    }
+
+    /**
+     * <p>
+     * use the epoll native transport when it is available, otherwise fall back to NIO.
+     * 优先使用 epoll 本地传输，不可用时回退到 NIO
+     * </p>
+     *
+     * @param nativeTransport a boolean.
+     * @return a {@link EventClientOption} object.
+     */
+    public EventClientOption nativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+        return this;
+    }
+
+    /**
+     * <p>edgeTriggered.</p>
+     *
+     * @return a boolean.
+     */
+    public boolean edgeTriggered() {
+        return edgeTriggered;
+    }
+
+    /**
+     * <p>
+     * edge-triggered (default) or level-triggered epoll mode, epoll transport only.
+     * epoll 边缘触发模式，关闭则为水平触发，仅 epoll 传输有效
+     * </p>
+     *
+     * @param edgeTriggered a boolean.
+     * @return a {@link EventClientOption} object.
+     */
+    public EventClientOption edgeTriggered(boolean edgeTriggered) {
+        this.edgeTriggered = edgeTriggered;
+        return this;
+    }
+
     /**
      * <p>performance.</p>
      *
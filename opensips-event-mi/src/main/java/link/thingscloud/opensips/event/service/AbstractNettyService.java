@@ -7,6 +7,11 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioDatagramChannel;
@@ -43,10 +48,21 @@ public abstract class AbstractNettyService extends AbstractService implements Ch
 
         publicExecutor = new ScheduledThreadPoolExecutor(option.publicExecutorThread(),
                 new DefaultThreadFactory("Opensips-Event", true));
-        workerGroup = new NioEventLoopGroup(option.workerGroupThread(), new DefaultThreadFactory("outbound-worker", true));
-        bootstrap.group(workerGroup)
-                .channel(NioDatagramChannel.class)
-                .option(ChannelOption.SO_BROADCAST, true)
+        boolean epoll = option.nativeTransport() && Epoll.isAvailable();
+        if (option.nativeTransport() && !epoll) {
+            log.warn("epoll native transport is unavailable, fall back to nio : {}", Epoll.unavailabilityCause().toString());
+        }
+        if (epoll) {
+            workerGroup = new EpollEventLoopGroup(option.workerGroupThread(), new DefaultThreadFactory("outbound-worker", true));
+            bootstrap.group(workerGroup)
+                    .channel(EpollDatagramChannel.class)
+                    .option(EpollChannelOption.EPOLL_MODE, option.edgeTriggered() ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED);
+        } else {
+            workerGroup = new NioEventLoopGroup(option.workerGroupThread(), new DefaultThreadFactory("outbound-worker", true));
+            bootstrap.group(workerGroup)
+                    .channel(NioDatagramChannel.class);
+        }
+        bootstrap.option(ChannelOption.SO_BROADCAST, true)
                 .option(ChannelOption.SO_REUSEADDR, Boolean.TRUE)
                 .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
                 .option(ChannelOption.SO_SNDBUF, option.sndBufSize())